@@ -4,8 +4,11 @@ import static de.retest.recheck.util.FileUtil.normalize;
 
 import java.awt.HeadlessException;
 import java.io.File;
+import java.net.URI;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -14,8 +17,10 @@ import org.slf4j.LoggerFactory;
 import de.retest.recheck.configuration.ProjectConfiguration;
 import de.retest.recheck.execution.RecheckAdapters;
 import de.retest.recheck.execution.RecheckDifferenceFinder;
+import de.retest.recheck.persistence.BackgroundWriter;
 import de.retest.recheck.persistence.CloudPersistence;
 import de.retest.recheck.persistence.FileNamer;
+import de.retest.recheck.persistence.GoldenMasterDigest;
 import de.retest.recheck.persistence.RecheckSutState;
 import de.retest.recheck.persistence.RecheckTestReportUtil;
 import de.retest.recheck.printer.TestReplayResultPrinter;
@@ -55,6 +60,7 @@ public class RecheckImpl implements Recheck, SutStateLoader {
 
 	private final Map<String, DefaultValueFinder> usedFinders = new HashMap<>();
 	private final TestReplayResultPrinter printer = new TestReplayResultPrinter( usedFinders::get );
+	private final Set<URI> createdGoldenMasters = new HashSet<>();
 
 	/**
 	 * Constructor that works purely with defaults. Default {@link FileNamerStrategy} assumes being called from within a
@@ -126,17 +132,30 @@ public class RecheckImpl implements Recheck, SutStateLoader {
 		final File file = getGoldenMasterFile( currentStep );
 
 		final SutState actual = RecheckSutState.convert( toVerify, adapter );
+		final RecheckDifferenceFinder finder =
+				new RecheckDifferenceFinder( defaultFinder, currentStep, file.getPath() );
+		final String digest = RecheckProperties.getInstance().goldenMasterDigest()
+				? GoldenMasterDigest.of( actual, defaultFinder ) : null;
+		if ( digest != null ) {
+			final Optional<SutState> unchanged = GoldenMasterDigest.loadUnchanged( getDigestFolder(), file, digest );
+			if ( unchanged.isPresent() ) {
+				logger.debug( "State of step '{}' is unchanged, skipping comparison with golden master.",
+						currentStep );
+				return finder.findNoDifferences( unchanged.get(), actual );
+			}
+		}
 		final SutState expected = loadExpected( file );
 		if ( expected == null ) {
 			createNew( file, actual );
+			createdGoldenMasters.add( file.toURI() );
 			return new NoGoldenMasterActionReplayResult( currentStep, actual, file.getPath() );
 		}
-		final RecheckDifferenceFinder finder =
-				new RecheckDifferenceFinder( defaultFinder, currentStep, file.getPath() );
 
 		final ActionReplayResult actionReplayResult = finder.findDifferences( expected, actual );
 		if ( actionReplayResult.hasDifferences() ) {
 			adapter.notifyAboutDifferences( actionReplayResult );
+		} else if ( digest != null ) {
+			GoldenMasterDigest.save( getDigestFolder(), file, expected, digest );
 		}
 		return actionReplayResult;
 	}
@@ -203,6 +222,12 @@ public class RecheckImpl implements Recheck, SutStateLoader {
 		} finally {
 			final File file = getResultFile();
 			RecheckTestReportUtil.persist( suite, file );
+			// Only await the writes of this suite, not those of suites running in parallel.
+			final Set<URI> written = new HashSet<>( createdGoldenMasters );
+			written.add( file.toURI() );
+			written.add( new File( file.getParent(), RecheckProperties.AGGREGATED_TEST_REPORT_FILE_NAME ).toURI() );
+			createdGoldenMasters.clear();
+			BackgroundWriter.getIfCreated().ifPresent( writer -> writer.flush( written ) );
 		}
 	}
 
@@ -215,6 +240,14 @@ public class RecheckImpl implements Recheck, SutStateLoader {
 		return options.getProjectLayout().getReport( suiteName ).toFile();
 	}
 
+	/**
+	 * @return the folder next to the reports, i.e. within the build folder, which contains the digests of unchanged
+	 *         golden masters
+	 */
+	protected File getDigestFolder() {
+		return new File( getResultFile().getParentFile(), "digests" );
+	}
+
 	private class CapWarner extends Thread {
 		private volatile boolean armed = true;
 
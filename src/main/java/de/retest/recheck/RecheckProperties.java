@@ -66,6 +66,36 @@ public interface RecheckProperties extends Reloadable {
 	@DefaultValue( "0.3" )
 	double elementMatchThreshold();
 
+	String ELEMENT_MATCH_CANDIDATES_PROPERTY_KEY = "de.retest.recheck.elementMatchCandidates";
+
+	@Key( ELEMENT_MATCH_CANDIDATES_PROPERTY_KEY )
+	@DefaultValue( "0" )
+	int elementMatchCandidates();
+
+	String ELEMENT_MATCH_EXHAUSTIVE_FALLBACK_PROPERTY_KEY = "de.retest.recheck.elementMatchExhaustiveFallback";
+
+	@Key( ELEMENT_MATCH_EXHAUSTIVE_FALLBACK_PROPERTY_KEY )
+	@DefaultValue( "true" )
+	boolean elementMatchExhaustiveFallback();
+
+	String ELEMENT_MATCH_PARALLEL_PROPERTY_KEY = "de.retest.recheck.elementMatchParallel";
+
+	/**
+	 * Scores element matches in parallel. Ignored if {@link #elementMatchHierarchical()} is set.
+	 */
+	@Key( ELEMENT_MATCH_PARALLEL_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean elementMatchParallel();
+
+	String ELEMENT_MATCH_HIERARCHICAL_PROPERTY_KEY = "de.retest.recheck.elementMatchHierarchical";
+
+	/**
+	 * Aligns elements level by level. Exclusive with {@link #elementMatchParallel()}, which is ignored if both are set.
+	 */
+	@Key( ELEMENT_MATCH_HIERARCHICAL_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean elementMatchHierarchical();
+
 	String ROOT_ELEMENT_MATCH_THRESHOLD_PROPERTY_KEY = "de.retest.recheck.rootElementMatchThreshold";
 
 	@Key( ROOT_ELEMENT_MATCH_THRESHOLD_PROPERTY_KEY )
@@ -91,6 +121,72 @@ public interface RecheckProperties extends Reloadable {
 	@DefaultValue( "3" )
 	int rehubReportUploadAttempts();
 
+	String CHUNKED_REPORTS_PROPERTY_KEY = "de.retest.recheck.chunkedReports";
+
+	@Key( CHUNKED_REPORTS_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean chunkedReports();
+
+	String STREAMING_XML_READER_PROPERTY_KEY = "de.retest.recheck.streamingXmlReader";
+
+	@Key( STREAMING_XML_READER_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean streamingXmlReader();
+
+	String PERSIST_MIGRATED_XML_PROPERTY_KEY = "de.retest.recheck.persistMigratedXml";
+
+	@Key( PERSIST_MIGRATED_XML_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean persistMigratedXml();
+
+	String ASYNC_PERSISTENCE_PROPERTY_KEY = "de.retest.recheck.asyncPersistence";
+
+	@Key( ASYNC_PERSISTENCE_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean asyncPersistence();
+
+	String APPEND_AGGREGATED_REPORT_PROPERTY_KEY = "de.retest.recheck.appendAggregatedReport";
+
+	@Key( APPEND_AGGREGATED_REPORT_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean appendAggregatedReport();
+
+	String HARD_LINK_SCREENSHOTS_PROPERTY_KEY = "de.retest.recheck.hardLinkScreenshots";
+
+	@Key( HARD_LINK_SCREENSHOTS_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean hardLinkScreenshots();
+
+	String LAZY_SCREENSHOTS_PROPERTY_KEY = "de.retest.recheck.lazyScreenshots";
+
+	@Key( LAZY_SCREENSHOTS_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean lazyScreenshots();
+
+	String COMPILED_FILTERS_PROPERTY_KEY = "de.retest.recheck.compiledFilters";
+
+	@Key( COMPILED_FILTERS_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean compiledFilters();
+
+	String COMPILED_JS_FILTERS_PROPERTY_KEY = "de.retest.recheck.compiledJsFilters";
+
+	@Key( COMPILED_JS_FILTERS_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean compiledJsFilters();
+
+	String GOLDEN_MASTER_DIGEST_PROPERTY_KEY = "de.retest.recheck.goldenMasterDigest";
+
+	/**
+	 * Skips comparing golden masters to states that were already compared without differences, see
+	 * {@link de.retest.recheck.persistence.GoldenMasterDigest}. The digests are kept in a folder next to the reports,
+	 * not within the golden masters. If the comparison is skipped, metadata differences are only found against the
+	 * metadata of the golden master as stored along with the digests.
+	 */
+	@Key( GOLDEN_MASTER_DIGEST_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean goldenMasterDigest();
+
 	String FILE_OUTPUT_FORMAT_PROPERTY_KEY = "de.retest.output.Format";
 
 	@Key( FILE_OUTPUT_FORMAT_PROPERTY_KEY )
@@ -54,6 +54,17 @@ public class SuiteAggregator {
 		return currentSuite;
 	}
 
+	/**
+	 * Removes an already persisted suite from the aggregated test report, so it can be garbage collected once it is
+	 * done. It is still returned for its name, so that further tests are added to the same suite.
+	 *
+	 * @param suite
+	 *            the suite to release
+	 */
+	public void release( final SuiteReplayResult suite ) {
+		aggregatedTestReport.removeSuite( suite );
+	}
+
 	private SuiteReplayResult createSuiteReplayResult( final String suiteName, final Path testSourceRoot ) {
 		final GroundState groundState = new GroundState();
 		final ExecutableSuite execSuite = new ExecutableSuite( groundState, 0, new ArrayList<>() );
@@ -3,18 +3,25 @@ package de.retest.recheck;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import de.retest.recheck.util.OptionalUtil;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Finds the test case (method) recheck is called from. The stack of the current thread is searched first, only if it
+ * does not contain a test case, the stacks of all threads are searched (e.g. if recheck is called from a thread pool).
+ * The test case annotation type of the methods of each class on the stack is only determined once.
+ */
 @Slf4j
 public class TestCaseFinder {
 
@@ -78,16 +85,15 @@ public class TestCaseFinder {
 		};
 	}
 
-	private static TestCaseFinder instance;
+	private static final TestCaseFinder instance = new TestCaseFinder();
 
-	private final Map<StackTraceElement, Integer> repeatableTestCaseAnnotationsCount = new HashMap<>();
+	private final Map<StackTraceElement, Integer> repeatableTestCaseAnnotationsCount = new ConcurrentHashMap<>();
+	// Test case annotation type by method name by class name, methods without a type are left out.
+	private final Map<String, Map<String, TestCaseAnnotationType>> testCaseAnnotationTypes = new ConcurrentHashMap<>();
 
 	private TestCaseFinder() {}
 
 	public static TestCaseFinder getInstance() {
-		if ( instance == null ) {
-			instance = new TestCaseFinder();
-		}
 		return instance;
 	}
 
@@ -114,6 +120,10 @@ public class TestCaseFinder {
 	 * @return The class name for the test being called from.
 	 */
 	public Optional<String> findTestCaseClassInStack() {
+		final Optional<String> testCaseClass = findTestCaseClassInStack( Thread.currentThread().getStackTrace() );
+		if ( testCaseClass.isPresent() ) {
+			return testCaseClass;
+		}
 		return Thread.getAllStackTraces().values().stream() //
 				.map( this::findTestCaseClassInStack ) //
 				.flatMap( OptionalUtil::stream ) //
@@ -188,6 +198,10 @@ public class TestCaseFinder {
 	 * @return Test case information for the test case method in all stack traces.
 	 */
 	public TestCaseInformation findTestCaseMethodInStack() {
+		final TestCaseInformation current = findTestCaseMethodInStack( Thread.currentThread().getStackTrace() );
+		if ( current.isFound() ) {
+			return current;
+		}
 		for ( final StackTraceElement[] stack : Thread.getAllStackTraces().values() ) {
 			final TestCaseInformation info = findTestCaseMethodInStack( stack );
 			if ( info.isFound() ) {
@@ -217,11 +231,43 @@ public class TestCaseFinder {
 	}
 
 	private TestCaseAnnotationType determineTestCaseAnnotationType( final StackTraceElement element ) {
-		final Method method = tryToFindMethodForStackTraceElement( element );
-		if ( method == null ) {
-			return TestCaseAnnotationType.NONE;
+		return testCaseAnnotationTypes.computeIfAbsent( element.getClassName(), this::determineTestCaseAnnotationTypes )
+				.getOrDefault( element.getMethodName(), TestCaseAnnotationType.NONE );
+	}
+
+	private Map<String, TestCaseAnnotationType> determineTestCaseAnnotationTypes( final String className ) {
+		final Class<?> clazz;
+		try {
+			clazz = Class.forName( className );
+		} catch ( final ClassNotFoundException e ) {
+			return Collections.emptyMap();
 		}
+		final Map<String, Method> methods = new HashMap<>();
+		final Set<String> ambiguousMethods = new HashSet<>();
+		try {
+			for ( final Method method : clazz.getDeclaredMethods() ) {
+				if ( methods.putIfAbsent( method.getName(), method ) != null ) {
+					// two methods with same name found, can't determine correct one!
+					ambiguousMethods.add( method.getName() );
+				}
+			}
+		} catch ( final NoClassDefFoundError e ) {
+			log.error( "Could not analyze method due to NoClassDefFoundError: {}", e.getMessage() );
+			return Collections.emptyMap();
+		}
+		methods.keySet().removeAll( ambiguousMethods );
+
+		final Map<String, TestCaseAnnotationType> types = new HashMap<>();
+		methods.forEach( ( name, method ) -> {
+			final TestCaseAnnotationType type = determineTestCaseAnnotationType( method );
+			if ( type != TestCaseAnnotationType.NONE ) {
+				types.put( name, type );
+			}
+		} );
+		return types;
+	}
 
+	private static TestCaseAnnotationType determineTestCaseAnnotationType( final Method method ) {
 		final Annotation[] annotations = method.getAnnotations();
 		for ( final Annotation annotation : annotations ) {
 			final String annotationName = annotation.annotationType().getName();
@@ -236,32 +282,6 @@ public class TestCaseFinder {
 		return TestCaseAnnotationType.NONE;
 	}
 
-	private Method tryToFindMethodForStackTraceElement( final StackTraceElement element ) {
-		final Class<?> clazz;
-		Method method = null;
-
-		try {
-			clazz = Class.forName( element.getClassName() );
-		} catch ( final ClassNotFoundException e ) {
-			return null;
-		}
-		try {
-			for ( final Method methodCandidate : clazz.getDeclaredMethods() ) {
-				if ( methodCandidate.getName().equals( element.getMethodName() ) ) {
-					if ( method == null ) {
-						method = methodCandidate;
-					} else {
-						// two methods with same name found, can't determine correct one!
-						return null;
-					}
-				}
-			}
-		} catch ( final NoClassDefFoundError e ) {
-			log.error( "Could not analyze method due to NoClassDefFoundError: {}", e.getMessage() );
-		}
-		return method;
-	}
-
 	@Value
 	public static class TestCaseInformation {
 		StackTraceElement stackTraceElement;
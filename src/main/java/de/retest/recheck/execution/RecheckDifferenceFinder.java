@@ -44,6 +44,18 @@ public class RecheckDifferenceFinder {
 		return createEmptyResult( actual, metadataDifference );
 	}
 
+	/**
+	 * @param expected
+	 *            the golden master, of which only the metadata is compared
+	 * @param actual
+	 *            the actual state, which is known to have no differences to the elements of the golden master, e.g.
+	 *            due to its {@link de.retest.recheck.persistence.GoldenMasterDigest}
+	 * @return a result without element differences, but with the metadata differences
+	 */
+	public ActionReplayResult findNoDifferences( final SutState expected, final SutState actual ) {
+		return createEmptyResult( actual, metadataDifferenceFinder.findDifferences( expected, actual ) );
+	}
+
 	private ActionReplayResult createResult( final StateDifference stateDifference,
 			final MetadataDifference metadataDifference ) {
 		logger.debug( "Found {} differences for step '{}'.", stateDifference.size(), currentStep );
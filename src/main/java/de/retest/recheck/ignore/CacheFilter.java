@@ -1,59 +1,204 @@
 package de.retest.recheck.ignore;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
-
-import org.apache.commons.lang3.tuple.Pair;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 import de.retest.recheck.review.ignore.io.Loader;
 import de.retest.recheck.review.ignore.io.Loaders;
+import de.retest.recheck.ui.descriptors.Attribute;
+import de.retest.recheck.ui.descriptors.Attributes;
 import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
 import de.retest.recheck.ui.diff.AttributeDifference;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
-
-@RequiredArgsConstructor
+import lombok.Value;
+
+/**
+ * Caches the results of a (costly) base filter, such as a {@link JSFilterImpl}. The cache can be used by multiple
+ * threads and holds at most {@value #DEFAULT_MAXIMUM_SIZE} results per kind of match by default, evicting the least
+ * recently used ones.
+ *
+ * Results are cached by a SHA-256 digest of the retest ID, identifying attributes and attributes of the element
+ * instead of the element itself. Thus the cache neither compares nor retains elements, their attributes or
+ * screenshots.
+ */
 public class CacheFilter implements Filter {
 
-	private final Map<Element, Boolean> elementCache = new HashMap<>();
-	private final Map<Pair<Element, AttributeDifference>, Boolean> attributeCache = new HashMap<>();
-	private final Map<Pair<Element, String>, Boolean> attributeKeyCache = new HashMap<>();
+	static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+	private final Cache<ElementKey, Boolean> elementCache;
+	private final Cache<MatchKey<ChangeType>, Boolean> changeCache;
+	private final Cache<MatchKey<AttributeDifference>, Boolean> attributeCache;
+	private final Cache<MatchKey<String>, Boolean> attributeKeyCache;
 
 	@Getter
 	private final Filter base;
 
-	@Override
-	public boolean matches( final Element element ) {
-		return elementCache.computeIfAbsent( element, matches() );
+	public CacheFilter( final Filter base ) {
+		this( base, DEFAULT_MAXIMUM_SIZE );
 	}
 
-	private Function<Element, Boolean> matches() {
-		return base::matches;
+	public CacheFilter( final Filter base, final long maximumSize ) {
+		this.base = base;
+		elementCache = createCache( maximumSize );
+		changeCache = createCache( maximumSize );
+		attributeCache = createCache( maximumSize );
+		attributeKeyCache = createCache( maximumSize );
+	}
+
+	private static <K> Cache<K, Boolean> createCache( final long maximumSize ) {
+		return CacheBuilder.newBuilder().maximumSize( maximumSize ).recordStats().build();
+	}
+
+	@Override
+	public boolean matches( final Element element ) {
+		return get( elementCache, ElementKey.of( element ), () -> base.matches( element ) );
 	}
 
 	@Override
 	public boolean matches( final Element element, final ChangeType changeType ) {
-		return elementCache.computeIfAbsent( element, e -> base.matches( e, changeType ) );
+		return get( changeCache, new MatchKey<>( ElementKey.of( element ), changeType ),
+				() -> base.matches( element, changeType ) );
 	}
 
 	@Override
 	public boolean matches( final Element element, final AttributeDifference attributeDifference ) {
-		return attributeCache.computeIfAbsent( Pair.of( element, attributeDifference ), matchesDiff() );
+		return get( attributeCache, new MatchKey<>( ElementKey.of( element ), attributeDifference ),
+				() -> base.matches( element, attributeDifference ) );
 	}
 
-	private Function<Pair<Element, AttributeDifference>, Boolean> matchesDiff() {
-		return p -> base.matches( p.getLeft(), p.getRight() );
+	@Override
+	public boolean matches( final Element element, final String attributeKey ) {
+		return get( attributeKeyCache, new MatchKey<>( ElementKey.of( element ), attributeKey ),
+				() -> base.matches( element, attributeKey ) );
 	}
 
 	@Override
-	public boolean matches( final Element element, final String attributeKey ) {
-		return attributeKeyCache.computeIfAbsent( Pair.of( element, attributeKey ), matchesKeyDiff() );
+	public Set<AttributeDifference> matching( final Element element,
+			final Collection<AttributeDifference> attributeDifferences ) {
+		final ElementKey key = ElementKey.of( element );
+		final Set<AttributeDifference> matching = Collections.newSetFromMap( new IdentityHashMap<>() );
+		final List<AttributeDifference> misses = new ArrayList<>();
+		for ( final AttributeDifference attributeDifference : attributeDifferences ) {
+			final Boolean cached = attributeCache.getIfPresent( new MatchKey<>( key, attributeDifference ) );
+			if ( cached == null ) {
+				misses.add( attributeDifference );
+			} else if ( cached ) {
+				matching.add( attributeDifference );
+			}
+		}
+		if ( !misses.isEmpty() ) {
+			final Set<AttributeDifference> matched = base.matching( element, misses );
+			for ( final AttributeDifference miss : misses ) {
+				final boolean matches = matched.contains( miss );
+				attributeCache.put( new MatchKey<>( key, miss ), matches );
+				if ( matches ) {
+					matching.add( miss );
+				}
+			}
+		}
+		return matching;
+	}
+
+	private static <K> boolean get( final Cache<K, Boolean> cache, final K key, final Callable<Boolean> matches ) {
+		try {
+			return cache.get( key, matches );
+		} catch ( final UncheckedExecutionException | ExecutionError | ExecutionException e ) {
+			Throwables.throwIfUnchecked( e.getCause() );
+			throw new IllegalStateException( e.getCause() );
+		}
+	}
+
+	/**
+	 * @return the statistics of all cached kinds of matches combined, including hits, misses and evictions
+	 */
+	public CacheStats getStats() {
+		return elementCache.stats() //
+				.plus( changeCache.stats() ) //
+				.plus( attributeCache.stats() ) //
+				.plus( attributeKeyCache.stats() );
+	}
+
+	/**
+	 * @return the number of currently cached results
+	 */
+	public long size() {
+		return elementCache.size() + changeCache.size() + attributeCache.size() + attributeKeyCache.size();
+	}
+
+	@Override
+	public String toString() {
+		return "CacheFilter(base=" + base + ", stats=" + getStats() + ")";
+	}
+
+	@Value
+	static class ElementKey {
+		HashCode digest;
+
+		static ElementKey of( final Element element ) {
+			final Hasher hasher = Hashing.sha256().newHasher();
+			putString( hasher, element.getRetestId() );
+			final IdentifyingAttributes identifyingAttributes = element.getIdentifyingAttributes();
+			if ( identifyingAttributes == null ) {
+				hasher.putInt( -1 );
+			} else {
+				hasher.putInt( identifyingAttributes.getAttributes().size() );
+				for ( final Attribute attribute : identifyingAttributes.getAttributes() ) {
+					putString( hasher, attribute.getClass().getName() );
+					putString( hasher, attribute.getKey() );
+					putValue( hasher, attribute.getValue() );
+				}
+			}
+			// Like Attributes#equals(Object), screenshots are represented by their persistence ID.
+			final Attributes attributes = element.getAttributes();
+			if ( attributes == null ) {
+				hasher.putInt( -1 );
+			} else {
+				hasher.putInt( attributes.size() );
+				for ( final Map.Entry<String, Object> attribute : attributes ) {
+					putString( hasher, attribute.getKey() );
+					putValue( hasher, attribute.getValue() );
+				}
+			}
+			return new ElementKey( hasher.hash() );
+		}
+
+		private static void putValue( final Hasher hasher, final Object value ) {
+			putString( hasher, value == null ? null : value.getClass().getName() );
+			putString( hasher, value == null ? null : value.toString() );
+		}
+
+		private static void putString( final Hasher hasher, final String value ) {
+			if ( value == null ) {
+				hasher.putInt( -1 );
+			} else {
+				hasher.putInt( value.length() ).putUnencodedChars( value );
+			}
+		}
 	}
 
-	private Function<Pair<Element, String>, Boolean> matchesKeyDiff() {
-		return p -> base.matches( p.getLeft(), p.getRight() );
+	@Value
+	static class MatchKey<T> {
+		ElementKey element;
+		T value;
 	}
 
 	public static class FilterLoader implements Loader<CacheFilter> {
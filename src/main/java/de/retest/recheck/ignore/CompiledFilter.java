@@ -0,0 +1,261 @@
+package de.retest.recheck.ignore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import de.retest.recheck.review.ignore.AttributeFilter;
+import de.retest.recheck.review.ignore.AttributeRegexFilter;
+import de.retest.recheck.review.ignore.ElementFilter;
+import de.retest.recheck.review.ignore.MatcherFilter;
+import de.retest.recheck.review.ignore.matcher.ElementRetestIdMatcher;
+import de.retest.recheck.review.ignore.matcher.ElementXPathMatcher;
+import de.retest.recheck.review.ignore.matcher.Matcher;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.diff.AttributeDifference;
+
+/**
+ * Combines filters via an OR like {@link CompoundFilter}, but compiles the most common filters into lookup structures
+ * instead of checking each of them one after another:
+ *
+ * <ul>
+ * <li>{@code matcher: retestid=...} and {@code matcher: xpath=...} are looked up by retest ID respectively path for
+ * the element and each of its parents.</li>
+ * <li>{@code attribute=...} is looked up by attribute key, also if combined with a matcher as above.</li>
+ * <li>All {@code attribute-regex=...} are combined into a single regular expression.</li>
+ * </ul>
+ *
+ * All other filters are checked one after another. The result is the same as that of a {@link CompoundFilter} with
+ * the same filters, as the compiled filters are free of side effects.
+ */
+public final class CompiledFilter implements Filter {
+
+	// Characters with a special meaning in a regular expression, an ID without them only matches itself.
+	private static final Pattern REGEX_CHARACTERS = Pattern.compile( "[\\\\\\[\\](){}.*+?^$|]" );
+	// Constructs which cannot be combined with other regular expressions, such as back references.
+	private static final Pattern UNCOMBINABLE_REGEX = Pattern.compile( "\\\\[0-9kQ]|\\(\\?[a-zA-Z-]*x|\\(\\?<[a-zA-Z]" );
+
+	private final ElementRules elements = new ElementRules();
+	private final Set<String> attributes = new HashSet<>();
+	private final List<Pattern> attributePatterns = new ArrayList<>();
+	private Pattern combinedAttributePattern;
+	private final Map<String, ElementRules> elementAttributes = new HashMap<>();
+	private final List<Pair<Pattern, ElementRules>> elementAttributePatterns = new ArrayList<>();
+	private final List<Filter> others = new ArrayList<>();
+
+	private CompiledFilter() {}
+
+	/**
+	 * @param filters
+	 *            filters to combine via an OR
+	 * @return a filter matching if any of the given filters matches
+	 */
+	public static CompiledFilter compile( final Collection<? extends Filter> filters ) {
+		final CompiledFilter compiled = new CompiledFilter();
+		filters.forEach( compiled::add );
+		compiled.combineAttributePatterns();
+		return compiled;
+	}
+
+	private void add( final Filter filter ) {
+		if ( filter == null || filter == NEVER_MATCH ) {
+			return;
+		}
+		if ( filter.getClass() == PersistentFilter.class ) {
+			add( ((PersistentFilter) filter).getFilter() );
+		} else if ( filter.getClass() == CompoundFilter.class ) {
+			((CompoundFilter) filter).getFilters().forEach( this::add );
+		} else if ( isMatcherFilter( filter ) ) {
+			elements.add( ((MatcherFilter) filter).getMatcher() );
+		} else if ( filter.getClass() == AttributeFilter.class ) {
+			attributes.add( ((AttributeFilter) filter).getAttribute() );
+		} else if ( filter.getClass() == AttributeRegexFilter.class ) {
+			attributePatterns.add( ((AttributeRegexFilter) filter).getAttributePattern() );
+		} else if ( !addElementAttribute( filter ) ) {
+			others.add( filter );
+		}
+	}
+
+	/**
+	 * Adds an {@link AllMatchFilter} of a {@link MatcherFilter} and an attribute filter, as loaded from
+	 * {@code matcher: ..., attribute=...}.
+	 */
+	private boolean addElementAttribute( final Filter filter ) {
+		if ( filter.getClass() != AllMatchFilter.class || ((AllMatchFilter) filter).getFilters().size() != 2 ) {
+			return false;
+		}
+		final List<Filter> filters = ((AllMatchFilter) filter).getFilters();
+		final int matcherIdx = isMatcherFilter( filters.get( 0 ) ) ? 0 : 1;
+		final Filter matcherFilter = filters.get( matcherIdx );
+		final Filter attributeFilter = filters.get( 1 - matcherIdx );
+		if ( !isMatcherFilter( matcherFilter ) ) {
+			return false;
+		}
+		final Matcher<Element> matcher = ((MatcherFilter) matcherFilter).getMatcher();
+		if ( attributeFilter.getClass() == AttributeFilter.class ) {
+			elementAttributes.computeIfAbsent( ((AttributeFilter) attributeFilter).getAttribute(),
+					key -> new ElementRules() ).add( matcher );
+			return true;
+		}
+		if ( attributeFilter.getClass() == AttributeRegexFilter.class ) {
+			final ElementRules rules = new ElementRules();
+			rules.add( matcher );
+			elementAttributePatterns
+					.add( Pair.of( ((AttributeRegexFilter) attributeFilter).getAttributePattern(), rules ) );
+			return true;
+		}
+		return false;
+	}
+
+	private static boolean isMatcherFilter( final Filter filter ) {
+		return filter.getClass() == MatcherFilter.class || filter.getClass() == ElementFilter.class;
+	}
+
+	private void combineAttributePatterns() {
+		final List<Pattern> combinable = attributePatterns.stream() //
+				.filter( pattern -> pattern.flags() == 0 && !UNCOMBINABLE_REGEX.matcher( pattern.pattern() ).find() ) //
+				.collect( Collectors.toList() );
+		if ( combinable.size() < 2 ) {
+			return;
+		}
+		try {
+			combinedAttributePattern = Pattern.compile( combinable.stream() //
+					.map( pattern -> "(?:" + pattern.pattern() + ")" ) //
+					.collect( Collectors.joining( "|" ) ) );
+			attributePatterns.removeAll( combinable );
+		} catch ( final PatternSyntaxException e ) {
+			// Keep checking them one after another.
+		}
+	}
+
+	@Override
+	public boolean matches( final Element element ) {
+		return elements.matchesWithParents( element ) || others.stream().anyMatch( f -> f.matches( element ) );
+	}
+
+	@Override
+	public boolean matches( final Element element, final ChangeType change ) {
+		return elements.matchesWithParents( element ) || others.stream().anyMatch( f -> f.matches( element, change ) );
+	}
+
+	@Override
+	public boolean matches( final Element element, final String attributeKey ) {
+		return matchesCompiled( element, attributeKey ) //
+				|| others.stream().anyMatch( f -> f.matches( element, attributeKey ) );
+	}
+
+	@Override
+	public boolean matches( final Element element, final AttributeDifference attributeDifference ) {
+		// The compiled filters only consider the attribute key of a difference.
+		return matchesCompiled( element, attributeDifference.getKey() ) //
+				|| others.stream().anyMatch( f -> f.matches( element, attributeDifference ) );
+	}
+
+	@Override
+	public Set<AttributeDifference> matching( final Element element,
+			final Collection<AttributeDifference> attributeDifferences ) {
+		final List<AttributeDifference> remaining = new ArrayList<>();
+		final Set<AttributeDifference> matching = Collections.newSetFromMap( new IdentityHashMap<>() );
+		for ( final AttributeDifference attributeDifference : attributeDifferences ) {
+			if ( matchesCompiled( element, attributeDifference.getKey() ) ) {
+				matching.add( attributeDifference );
+			} else {
+				remaining.add( attributeDifference );
+			}
+		}
+		matching.addAll( CompoundFilter.matchingAny( others, element, remaining ) );
+		return matching;
+	}
+
+	private boolean matchesCompiled( final Element element, final String attributeKey ) {
+		if ( attributes.contains( attributeKey ) ) {
+			return true;
+		}
+		if ( combinedAttributePattern != null && combinedAttributePattern.matcher( attributeKey ).matches() ) {
+			return true;
+		}
+		for ( final Pattern pattern : attributePatterns ) {
+			if ( pattern.matcher( attributeKey ).matches() ) {
+				return true;
+			}
+		}
+		final ElementRules rules = elementAttributes.get( attributeKey );
+		if ( rules != null && rules.matchesWithParents( element ) ) {
+			return true;
+		}
+		for ( final Pair<Pattern, ElementRules> rule : elementAttributePatterns ) {
+			if ( rule.getLeft().matcher( attributeKey ).matches() && rule.getRight().matchesWithParents( element ) ) {
+				return true;
+			}
+		}
+		return elements.matchesWithParents( element );
+	}
+
+	@Override
+	public String toString() {
+		return "CompiledFilter(retestIds=" + elements.retestIds.size() + ", xpaths=" + elements.xpaths.size()
+				+ ", matchers=" + elements.others.size() + ", attributes=" + attributes.size() + ", attributePatterns="
+				+ (attributePatterns.size() + (combinedAttributePattern != null ? 1 : 0)) + ", elementAttributes="
+				+ elementAttributes.size() + ", elementAttributePatterns=" + elementAttributePatterns.size()
+				+ ", others=" + others + ")";
+	}
+
+	/**
+	 * Element matchers, of which any has to match the element or one of its parents, as {@link MatcherFilter} does.
+	 */
+	private static class ElementRules {
+
+		private final Set<String> retestIds = new HashSet<>();
+		private final Set<String> xpaths = new HashSet<>();
+		private final List<Matcher<Element>> others = new ArrayList<>();
+
+		void add( final Matcher<Element> matcher ) {
+			if ( matcher.getClass() == ElementRetestIdMatcher.class
+					&& !REGEX_CHARACTERS.matcher( ((ElementRetestIdMatcher) matcher).getRetestid() ).find() ) {
+				retestIds.add( ((ElementRetestIdMatcher) matcher).getRetestid() );
+			} else if ( matcher.getClass() == ElementXPathMatcher.class ) {
+				xpaths.add( ((ElementXPathMatcher) matcher).getNormalizedXPath() );
+			} else {
+				others.add( matcher );
+			}
+		}
+
+		boolean matchesWithParents( final Element element ) {
+			if ( retestIds.isEmpty() && xpaths.isEmpty() && others.isEmpty() ) {
+				return false;
+			}
+			for ( Element current = element; current != null; current = current.getParent() ) {
+				if ( matches( current ) ) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean matches( final Element element ) {
+			if ( !retestIds.isEmpty() && retestIds.contains( element.getRetestId() ) ) {
+				return true;
+			}
+			if ( !xpaths.isEmpty() && xpaths.contains( element.getIdentifyingAttributes().getPath() ) ) {
+				return true;
+			}
+			for ( final Matcher<Element> matcher : others ) {
+				if ( matcher.test( element ) ) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -1,9 +1,14 @@
 package de.retest.recheck.ignore;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
+import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.ui.descriptors.Element;
 import de.retest.recheck.ui.diff.AttributeDifference;
 import lombok.Getter;
@@ -12,6 +17,9 @@ import lombok.ToString;
 /**
  * A compound filter consists of multiple filters that are combined into one via an OR. So the compound filter returns
  * true if _any_ of its filters return true.
+ *
+ * If {@link RecheckProperties#compiledFilters()} is enabled, the filters are compiled into a {@link CompiledFilter} on
+ * first use, so they must not be modified afterwards.
  */
 @ToString
 public class CompoundFilter implements Filter {
@@ -19,6 +27,11 @@ public class CompoundFilter implements Filter {
 	@Getter
 	private final List<Filter> filters;
 
+	@ToString.Exclude
+	private final boolean compile = RecheckProperties.getInstance().compiledFilters();
+	@ToString.Exclude
+	private volatile CompiledFilter compiled;
+
 	public CompoundFilter() {
 		this( Collections.emptyList() );
 	}
@@ -31,8 +44,20 @@ public class CompoundFilter implements Filter {
 		this.filters = filters;
 	}
 
+	private CompiledFilter compiled() {
+		CompiledFilter result = compiled;
+		if ( result == null ) {
+			result = CompiledFilter.compile( filters );
+			compiled = result;
+		}
+		return result;
+	}
+
 	@Override
 	public boolean matches( final Element element ) {
+		if ( compile ) {
+			return compiled().matches( element );
+		}
 		for ( final Filter filter : filters ) {
 			if ( filter.matches( element ) ) {
 				return true;
@@ -43,11 +68,17 @@ public class CompoundFilter implements Filter {
 
 	@Override
 	public boolean matches( final Element element, final ChangeType change ) {
+		if ( compile ) {
+			return compiled().matches( element, change );
+		}
 		return filters.stream().anyMatch( f -> f.matches( element, change ) );
 	}
 
 	@Override
 	public boolean matches( final Element element, final AttributeDifference attributeDifference ) {
+		if ( compile ) {
+			return compiled().matches( element, attributeDifference );
+		}
 		for ( final Filter filter : filters ) {
 			if ( filter.matches( element, attributeDifference ) ) {
 				return true;
@@ -58,6 +89,9 @@ public class CompoundFilter implements Filter {
 
 	@Override
 	public boolean matches( final Element element, final String attributeKey ) {
+		if ( compile ) {
+			return compiled().matches( element, attributeKey );
+		}
 		for ( final Filter filter : filters ) {
 			if ( filter.matches( element, attributeKey ) ) {
 				return true;
@@ -65,4 +99,45 @@ public class CompoundFilter implements Filter {
 		}
 		return false;
 	}
+
+	@Override
+	public Set<AttributeDifference> matching( final Element element,
+			final Collection<AttributeDifference> attributeDifferences ) {
+		if ( compile ) {
+			return compiled().matching( element, attributeDifferences );
+		}
+		return matchingAny( filters, element, attributeDifferences );
+	}
+
+	/**
+	 * Passes the attribute differences to each of the given filters at once, leaving out those already matched by a
+	 * previous filter. Thus each filter is called for the same differences as by
+	 * {@link #matches(Element, AttributeDifference)}.
+	 *
+	 * @param filters
+	 *            filters to combine via an OR
+	 * @param element
+	 *            The element in question.
+	 * @param attributeDifferences
+	 *            The attribute differences for the given element.
+	 * @return The given attribute differences that any of the filters matches, compared by identity.
+	 */
+	public static Set<AttributeDifference> matchingAny( final Collection<? extends Filter> filters,
+			final Element element, final Collection<AttributeDifference> attributeDifferences ) {
+		final Set<AttributeDifference> matching = Collections.newSetFromMap( new IdentityHashMap<>() );
+		Collection<AttributeDifference> remaining = attributeDifferences;
+		for ( final Filter filter : filters ) {
+			if ( remaining.isEmpty() ) {
+				break;
+			}
+			final Set<AttributeDifference> matched = filter.matching( element, remaining );
+			if ( !matched.isEmpty() ) {
+				matching.addAll( matched );
+				final List<AttributeDifference> unmatched = new ArrayList<>();
+				remaining.stream().filter( diff -> !matching.contains( diff ) ).forEach( unmatched::add );
+				remaining = unmatched;
+			}
+		}
+		return matching;
+	}
 }
@@ -1,5 +1,10 @@
 package de.retest.recheck.ignore;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
 import de.retest.recheck.ui.descriptors.Element;
 import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
 import de.retest.recheck.ui.diff.AttributeDifference;
@@ -92,6 +97,28 @@ public interface Filter {
 		return matches( element, attributeDifference.getKey() );
 	}
 
+	/**
+	 * Returns those of the given attribute differences that should be filtered for the given element, as determined by
+	 * {@link #matches(Element, AttributeDifference)}. Filters with a considerable overhead per call, such as JavaScript
+	 * filters, can evaluate all differences of an element at once.
+	 *
+	 * @param element
+	 *            The element in question.
+	 * @param attributeDifferences
+	 *            The attribute differences for the given element.
+	 * @return The given attribute differences that should be filtered, compared by identity.
+	 */
+	default Set<AttributeDifference> matching( final Element element,
+			final Collection<AttributeDifference> attributeDifferences ) {
+		final Set<AttributeDifference> matching = Collections.newSetFromMap( new IdentityHashMap<>() );
+		for ( final AttributeDifference attributeDifference : attributeDifferences ) {
+			if ( matches( element, attributeDifference ) ) {
+				matching.add( attributeDifference );
+			}
+		}
+		return matching;
+	}
+
 	/**
 	 * A special {@link Filter} that never matches.
 	 */
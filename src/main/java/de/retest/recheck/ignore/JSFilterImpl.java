@@ -6,30 +6,57 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
 
 import javax.script.Invocable;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.RhinoException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.ui.descriptors.Element;
 import de.retest.recheck.ui.diff.AttributeDifference;
 
+/**
+ * Filter implemented by the functions <code>matches</code> (or the legacy <code>shouldIgnoreElement</code> and
+ * <code>shouldIgnoreAttributeDifference</code>) of a JavaScript file.
+ *
+ * If {@link RecheckProperties#compiledJsFilters()} is enabled, the functions are compiled and resolved once (see
+ * {@link JSFunctions}) instead of being invoked by name, which is considerably faster for many differences.
+ */
 public class JSFilterImpl implements Filter {
 
 	private static final Logger logger = LoggerFactory.getLogger( JSFilterImpl.class );
 
 	private static final String JS_ENGINE_NAME = "rhino";
 
+	private static final String MATCHES = "matches";
+	private static final String SHOULD_IGNORE_ELEMENT = "shouldIgnoreElement";
+	private static final String SHOULD_IGNORE_ATTRIBUTE_DIFFERENCE = "shouldIgnoreAttributeDifference";
+
 	private final String filePath;
 	private final ScriptEngine engine;
+	private final JSFunctions functions;
 	private boolean noMethodWarningPrinted = false;
 
 	public JSFilterImpl( final Path filterFilePath ) {
 		filePath = filterFilePath.toString();
+		if ( RecheckProperties.getInstance().compiledJsFilters() ) {
+			engine = null;
+			functions = compile( filterFilePath );
+			return;
+		}
+		functions = null;
 		final ScriptEngineManager manager = new ScriptEngineManager();
 		engine = manager.getEngineByName( JS_ENGINE_NAME );
 		if ( engine == null ) {
@@ -45,6 +72,20 @@ public class JSFilterImpl implements Filter {
 		}
 	}
 
+	private JSFunctions compile( final Path filterFilePath ) {
+		try ( final Reader script = readScriptFile( filterFilePath ) ) {
+			final JSFunctions compiled = JSFunctions.compile( script, filePath, MATCHES, SHOULD_IGNORE_ELEMENT,
+					SHOULD_IGNORE_ATTRIBUTE_DIFFERENCE );
+			if ( !compiled.has( MATCHES ) ) {
+				logger.warn( "Specified JS filter file '{}' has no '{}' function.", filePath, MATCHES );
+			}
+			return compiled;
+		} catch ( final Exception e ) {
+			logger.error( "Reading script file '{}' caused exception: ", filterFilePath, e );
+			return JSFunctions.empty();
+		}
+	}
+
 	Reader readScriptFile( final Path filterFilePath ) {
 		try {
 			logger.info( "Reading JS filter rules file from '{}'.", filterFilePath );
@@ -59,19 +100,82 @@ public class JSFilterImpl implements Filter {
 
 	@Override
 	public boolean matches( final Element element ) {
-		return callBooleanJSFunction( "matches", element ) || callBooleanJSFunction( "shouldIgnoreElement", element );
+		if ( functions != null ) {
+			return functions.withContext( cx -> {
+				final Object jsElement = functions.wrap( element );
+				return callCompiled( cx, MATCHES, jsElement ) || callCompiled( cx, SHOULD_IGNORE_ELEMENT, jsElement );
+			} );
+		}
+		return callBooleanJSFunction( MATCHES, element ) || callBooleanJSFunction( SHOULD_IGNORE_ELEMENT, element );
 	}
 
 	@Override
 	public boolean matches( final Element element, final ChangeType change ) {
 		// "shouldIgnore" is legacy, so this needn't be called there
-		return callBooleanJSFunction( "matches", element, change.toString().toLowerCase() );
+		final String changeType = change.toString().toLowerCase();
+		if ( functions != null ) {
+			return functions.withContext(
+					cx -> callCompiled( cx, MATCHES, functions.wrap( element ), functions.wrap( changeType ) ) );
+		}
+		return callBooleanJSFunction( MATCHES, element, changeType );
 	}
 
 	@Override
 	public boolean matches( final Element element, final AttributeDifference attributeDifference ) {
-		return callBooleanJSFunction( "matches", element, attributeDifference )
-				|| callBooleanJSFunction( "shouldIgnoreAttributeDifference", element, attributeDifference );
+		if ( functions != null ) {
+			return functions.withContext( cx -> matchesCompiled( cx, functions.wrap( element ), attributeDifference ) );
+		}
+		return callBooleanJSFunction( MATCHES, element, attributeDifference )
+				|| callBooleanJSFunction( SHOULD_IGNORE_ATTRIBUTE_DIFFERENCE, element, attributeDifference );
+	}
+
+	/**
+	 * If compiled, evaluates all differences of the element within the same context and passes the element to
+	 * JavaScript only once.
+	 */
+	@Override
+	public Set<AttributeDifference> matching( final Element element,
+			final Collection<AttributeDifference> attributeDifferences ) {
+		if ( functions == null ) {
+			return Filter.super.matching( element, attributeDifferences );
+		}
+		return functions.withContext( cx -> {
+			final Object jsElement = functions.wrap( element );
+			final Set<AttributeDifference> matching = Collections.newSetFromMap( new IdentityHashMap<>() );
+			for ( final AttributeDifference attributeDifference : attributeDifferences ) {
+				if ( matchesCompiled( cx, jsElement, attributeDifference ) ) {
+					matching.add( attributeDifference );
+				}
+			}
+			return matching;
+		} );
+	}
+
+	/**
+	 * @return the total time spent in each function if compiled, otherwise an empty map
+	 */
+	public Map<String, Duration> getTimings() {
+		return functions != null ? functions.getTimings() : Collections.emptyMap();
+	}
+
+	private boolean matchesCompiled( final Context cx, final Object jsElement,
+			final AttributeDifference attributeDifference ) {
+		final Object jsDifference = functions.wrap( attributeDifference );
+		return callCompiled( cx, MATCHES, jsElement, jsDifference )
+				|| callCompiled( cx, SHOULD_IGNORE_ATTRIBUTE_DIFFERENCE, jsElement, jsDifference );
+	}
+
+	private boolean callCompiled( final Context cx, final String functionName, final Object... args ) {
+		if ( !functions.has( functionName ) ) {
+			return false;
+		}
+		try {
+			return toBoolean( functionName, functions.call( cx, functionName, args ) );
+		} catch ( final RhinoException e ) {
+			logger.error( "JS '{}' method caused an exception: {} in file '{}'.", functionName, e.getMessage(),
+					filePath );
+		}
+		return false;
 	}
 
 	private boolean callBooleanJSFunction( final String functionName, final Object... args ) {
@@ -81,18 +185,7 @@ public class JSFilterImpl implements Filter {
 		final Invocable inv = (Invocable) engine;
 		// call function from script file
 		try {
-			final Object callResult = inv.invokeFunction( functionName, args );
-			if ( callResult == null ) {
-				logger.warn( "{} returned 'null' instead of a boolean value in file '{}'. Interpreting that as 'false'.",
-						filePath, functionName );
-				return false;
-			}
-			if ( !(callResult instanceof Boolean) ) {
-				logger.error( "'{}' of {} cannot be cast to java.lang.Boolean in file '{}'.", callResult,
-						callResult.getClass(), filePath );
-				return false;
-			}
-			return (boolean) callResult;
+			return toBoolean( functionName, inv.invokeFunction( functionName, args ) );
 		} catch ( final ScriptException e ) {
 			logger.error( "JS '{}' method caused an exception: {} in file '{}'.", functionName, e.getMessage(),
 					filePath );
@@ -104,4 +197,18 @@ public class JSFilterImpl implements Filter {
 		}
 		return false;
 	}
+
+	private boolean toBoolean( final String functionName, final Object callResult ) {
+		if ( callResult == null ) {
+			logger.warn( "{} returned 'null' instead of a boolean value in file '{}'. Interpreting that as 'false'.",
+					functionName, filePath );
+			return false;
+		}
+		if ( !(callResult instanceof Boolean) ) {
+			logger.error( "'{}' of {} cannot be cast to java.lang.Boolean in file '{}'.", callResult,
+					callResult.getClass(), filePath );
+			return false;
+		}
+		return (boolean) callResult;
+	}
 }
@@ -0,0 +1,133 @@
+package de.retest.recheck.ignore;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Function;
+import org.mozilla.javascript.ImporterTopLevel;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.Undefined;
+import org.mozilla.javascript.Wrapper;
+
+/**
+ * The functions of a JavaScript filter file, compiled and resolved by Rhino once. Unlike
+ * {@link javax.script.Invocable#invokeFunction(String, Object...)}, calling a function neither looks it up nor creates
+ * a new scope, and missing functions are known up front. Keeps the time spent per function.
+ */
+final class JSFunctions {
+
+	private final Scriptable scope;
+	private final Map<String, Function> functions;
+	private final Map<String, Timing> timings = new HashMap<>();
+
+	private JSFunctions( final Scriptable scope, final Map<String, Function> functions ) {
+		this.scope = scope;
+		this.functions = functions;
+		functions.keySet().forEach( name -> timings.put( name, new Timing() ) );
+	}
+
+	/**
+	 * @return an instance without any functions
+	 */
+	static JSFunctions empty() {
+		final Context cx = Context.enter();
+		try {
+			return new JSFunctions( new ImporterTopLevel( cx ), Collections.emptyMap() );
+		} finally {
+			Context.exit();
+		}
+	}
+
+	/**
+	 * Compiles and executes the given script and resolves the functions with the given names.
+	 *
+	 * @throws IOException
+	 *             if the script cannot be read
+	 * @throws org.mozilla.javascript.RhinoException
+	 *             if the script cannot be compiled or executed
+	 */
+	static JSFunctions compile( final Reader script, final String sourceName, final String... names )
+			throws IOException {
+		final Context cx = Context.enter();
+		try {
+			final ScriptableObject scope = new ImporterTopLevel( cx );
+			cx.compileReader( script, sourceName, 1, null ).exec( cx, scope );
+			final Map<String, Function> functions = new HashMap<>();
+			for ( final String name : names ) {
+				final Object function = ScriptableObject.getProperty( scope, name );
+				if ( function instanceof Function ) {
+					functions.put( name, (Function) function );
+				}
+			}
+			return new JSFunctions( scope, functions );
+		} finally {
+			Context.exit();
+		}
+	}
+
+	boolean has( final String name ) {
+		return functions.containsKey( name );
+	}
+
+	/**
+	 * Executes the given action within a Rhino context, which is required to call functions.
+	 */
+	<T> T withContext( final java.util.function.Function<Context, T> action ) {
+		final Context cx = Context.enter();
+		try {
+			return action.apply( cx );
+		} finally {
+			Context.exit();
+		}
+	}
+
+	/**
+	 * @return the given Java object as an argument for {@link #call(Context, String, Object...)}, which can be passed
+	 *         to any number of calls
+	 */
+	Object wrap( final Object javaObject ) {
+		return Context.javaToJS( javaObject, scope );
+	}
+
+	/**
+	 * @param cx
+	 *            the context of {@link #withContext(java.util.function.Function)}
+	 * @param name
+	 *            name of the function, which must exist
+	 * @param args
+	 *            arguments as returned by {@link #wrap(Object)}
+	 * @return the result of the function as a Java object, <code>null</code> if it is undefined
+	 */
+	Object call( final Context cx, final String name, final Object... args ) {
+		final Timing timing = timings.get( name );
+		final long start = System.nanoTime();
+		try {
+			final Object result = functions.get( name ).call( cx, scope, scope, args );
+			final Object unwrapped = result instanceof Wrapper ? ((Wrapper) result).unwrap() : result;
+			return unwrapped instanceof Undefined ? null : unwrapped;
+		} finally {
+			timing.nanos.add( System.nanoTime() - start );
+		}
+	}
+
+	/**
+	 * @return the total time spent in each function
+	 */
+	Map<String, Duration> getTimings() {
+		final Map<String, Duration> result = new TreeMap<>();
+		timings.forEach( ( name, timing ) -> result.put( name, Duration.ofNanos( timing.nanos.sum() ) ) );
+		return result;
+	}
+
+	private static class Timing {
+		private final LongAdder nanos = new LongAdder();
+	}
+}
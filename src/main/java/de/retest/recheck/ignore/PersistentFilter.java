@@ -1,7 +1,9 @@
 package de.retest.recheck.ignore;
 
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -55,4 +57,11 @@ public class PersistentFilter implements Filter {
 		return filter.matches( element, attributeDifference );
 	}
 
+	@Override
+	public Set<AttributeDifference> matching( final Element element,
+			final Collection<AttributeDifference> attributeDifferences ) {
+		// Delegate
+		return filter.matching( element, attributeDifferences );
+	}
+
 }
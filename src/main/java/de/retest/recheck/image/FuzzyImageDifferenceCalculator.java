@@ -9,8 +9,14 @@ import static de.retest.recheck.ui.image.ImageUtils.toBufferedImage;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
 import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
 import java.io.IOException;
+import java.util.stream.IntStream;
 
 import javax.swing.GrayFilter;
 
@@ -38,6 +44,12 @@ public class FuzzyImageDifferenceCalculator implements ImageDifferenceCalculator
 
 	private static final double STABILIZER = 25.0;
 
+	// Images with fewer pixels are compared on the calling thread.
+	private static final int PARALLEL_THRESHOLD = 256 * 256;
+
+	// Subclasses overriding getAverageBrightness(BufferedImage) get their blocks compared as sub-images.
+	private final boolean averageBrightnessOverridden = isAverageBrightnessOverridden( getClass() );
+
 	public FuzzyImageDifferenceCalculator() {
 		this( Integer.getInteger( BLOCKSIZE_PROPERTY, DEFAULT_BLOCKSIZE ),
 				Integer.getInteger( SENSITIVITY_PROPERTY, DEFAULT_SENSITIVITY ) );
@@ -71,36 +83,32 @@ public class FuzzyImageDifferenceCalculator implements ImageDifferenceCalculator
 		img1 = toBufferedImage( scaleProportionallyToMaxWidthHeight( img1, 800, 600 ) );
 		img1 = toBufferedImage( scaleToSameSize( img1, img2 ) );
 		img2 = toBufferedImage( scaleToSameSize( img2, img1 ) );
+		final int width = img1.getWidth();
+		final int height = img1.getHeight();
+		final int numRows = (int) Math.ceil( height / (float) blockSize );
+		final int numCols = (int) Math.ceil( width / (float) blockSize );
+		final boolean[] diffs = averageBrightnessOverridden //
+				? compareSubImages( img1, img2, numRows, numCols ) //
+				: compareBlocks( img1, img2, numRows, numCols );
+
 		final BufferedImage differenceImage = toBufferedImage( img2 );
 		final Graphics2D gc = differenceImage.createGraphics();
 		gc.setColor( Color.RED );
-		// convert to gray images.
-		img1 = toBufferedImage( GrayFilter.createDisabledImage( img1 ) );
-		img2 = toBufferedImage( GrayFilter.createDisabledImage( img2 ) );
-		// set to a match by default, if a change is found then flag non-match
 		int numdiffs = 0;
-		final int numRows = (int) Math.ceil( img1.getHeight() / (float) blockSize );
-		final int numCols = (int) Math.ceil( img1.getWidth() / (float) blockSize );
-		// loop through whole image and compare individual blocks of images
-		StringBuilder textual = new StringBuilder();
 		for ( int row = 0; row < numRows; row++ ) {
-			textual.append( "|" );
 			for ( int col = 0; col < numCols; col++ ) {
-				final int b1 = getAverageBrightness( getSubImage( img1, col, row ) );
-				final int b2 = getAverageBrightness( getSubImage( img2, col, row ) );
-				final int diff = Math.abs( b1 - b2 );
-				if ( diff > sensitivity ) {
+				if ( diffs[row * numCols + col] ) {
 					// the difference in a certain region has passed the threshold value
 					// draw an indicator on the change image to show where change was detected.
 					// TODO Merge borders of neighboring blocks
 					gc.drawRect( col * blockSize, row * blockSize, blockSize - 1, blockSize - 1 );
 					numdiffs++;
 				}
-				textual.append( diff > sensitivity ? "X" : " " );
 			}
-			textual.append( "|" );
-			logger.warn( textual.toString() );
-			textual = new StringBuilder();
+		}
+		gc.dispose();
+		if ( logger.isDebugEnabled() ) {
+			logDifferences( diffs, numRows, numCols );
 		}
 		if ( numdiffs == 0 ) {
 			// ensure no rounding errors...
@@ -111,7 +119,103 @@ public class FuzzyImageDifferenceCalculator implements ImageDifferenceCalculator
 		return new ImageDifference( match, differenceImage, FuzzyImageDifferenceCalculator.class );
 	}
 
-	// returns a value specifying some kind of average brightness in the image.
+	private boolean[] compareBlocks( final BufferedImage img1, final BufferedImage img2, final int numRows,
+			final int numCols ) {
+		final int width = img1.getWidth();
+		final int height = img1.getHeight();
+		final int[] gray1 = toGray( img1 );
+		final int[] gray2 = toGray( img2 );
+		// compare the blocks of each row independently, in parallel for large images
+		final boolean[] diffs = new boolean[numRows * numCols];
+		IntStream rows = IntStream.range( 0, numRows );
+		if ( width * height >= PARALLEL_THRESHOLD ) {
+			rows = rows.parallel();
+		}
+		rows.forEach( row -> compareRow( gray1, gray2, width, height, row, numCols, diffs ) );
+		return diffs;
+	}
+
+	/**
+	 * Compares the blocks as gray sub-images by {@link #getAverageBrightness(BufferedImage)}, as previous versions did.
+	 */
+	private boolean[] compareSubImages( final BufferedImage img1, final BufferedImage img2, final int numRows,
+			final int numCols ) {
+		final BufferedImage gray1 = toBufferedImage( GrayFilter.createDisabledImage( img1 ) );
+		final BufferedImage gray2 = toBufferedImage( GrayFilter.createDisabledImage( img2 ) );
+		final boolean[] diffs = new boolean[numRows * numCols];
+		for ( int row = 0; row < numRows; row++ ) {
+			for ( int col = 0; col < numCols; col++ ) {
+				final int b1 = getAverageBrightness( getSubImage( gray1, col, row ) );
+				final int b2 = getAverageBrightness( getSubImage( gray2, col, row ) );
+				diffs[row * numCols + col] = Math.abs( b1 - b2 ) > sensitivity;
+			}
+		}
+		return diffs;
+	}
+
+	private BufferedImage getSubImage( final BufferedImage img, final int col, final int row ) {
+		final int x = col * blockSize;
+		final int width = Math.abs( Math.min( img.getWidth() - x, blockSize - 1 ) );
+		final int y = row * blockSize;
+		final int height = Math.abs( Math.min( img.getHeight() - y, blockSize - 1 ) );
+		return img.getSubimage( x, y, width, height );
+	}
+
+	private static boolean isAverageBrightnessOverridden( final Class<?> type ) {
+		Class<?> current = type;
+		while ( current != FuzzyImageDifferenceCalculator.class ) {
+			try {
+				current.getDeclaredMethod( "getAverageBrightness", BufferedImage.class );
+				return true;
+			} catch ( final NoSuchMethodException e ) {
+				current = current.getSuperclass();
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compares the blocks of the given row. Like the blocks of previous versions, which were sub-images of
+	 * {@code blockSize - 1} pixels, the last row and column of each block are left out. And as the raster of those
+	 * sub-images had the size of the whole image, the brightness of each block is relative to the whole image.
+	 */
+	private void compareRow( final int[] gray1, final int[] gray2, final int width, final int height, final int row,
+			final int numCols, final boolean[] diffs ) {
+		final int y = row * blockSize;
+		final int blockHeight = Math.min( height - y, blockSize - 1 );
+		// summed-area table of the row, i.e. the sum of all pixels of the row left of x
+		final long[] sums1 = sumColumns( gray1, width, y, blockHeight );
+		final long[] sums2 = sumColumns( gray2, width, y, blockHeight );
+		for ( int col = 0; col < numCols; col++ ) {
+			final int x = col * blockSize;
+			final int blockWidth = Math.min( width - x, blockSize - 1 );
+			final int b1 = getBlockBrightness( sums1[x + blockWidth] - sums1[x], width, height );
+			final int b2 = getBlockBrightness( sums2[x + blockWidth] - sums2[x], width, height );
+			diffs[row * numCols + col] = Math.abs( b1 - b2 ) > sensitivity;
+		}
+	}
+
+	private static long[] sumColumns( final int[] gray, final int width, final int y, final int height ) {
+		final long[] sums = new long[width + 1];
+		for ( int x = 0; x < width; x++ ) {
+			long column = 0;
+			for ( int offset = y * width + x; offset < (y + height) * width; offset += width ) {
+				column += gray[offset];
+			}
+			sums[x + 1] = sums[x] + column;
+		}
+		return sums;
+	}
+
+	// returns a value specifying some kind of average brightness of a block within an image of the given size.
+	private static int getBlockBrightness( final long total, final int width, final int height ) {
+		return (int) (total / (width / STABILIZER * (height / STABILIZER)));
+	}
+
+	/**
+	 * Returns a value specifying some kind of average brightness in the image. Blocks are compared as sub-images by
+	 * this method only if a subclass overrides it, otherwise the same brightness is calculated from summed gray values.
+	 */
 	protected int getAverageBrightness( final BufferedImage img ) {
 		final Raster r = img.getData();
 		int total = 0;
@@ -123,11 +227,98 @@ public class FuzzyImageDifferenceCalculator implements ImageDifferenceCalculator
 		return (int) (total / (r.getWidth() / STABILIZER * (r.getHeight() / STABILIZER)));
 	}
 
-	private BufferedImage getSubImage( final BufferedImage img, final int col, final int row ) {
-		final int x = col * blockSize;
-		final int width = Math.abs( Math.min( img.getWidth() - x, blockSize - 1 ) );
-		final int y = row * blockSize;
-		final int height = Math.abs( Math.min( img.getHeight() - y, blockSize - 1 ) );
-		return img.getSubimage( x, y, width, height );
+	/**
+	 * Converts the image to gray as {@link GrayFilter#createDisabledImage(java.awt.Image)} does, reading the backing
+	 * arrays of common image types directly.
+	 *
+	 * @return the gray value per pixel, row by row
+	 */
+	static int[] toGray( final BufferedImage img ) {
+		final int width = img.getWidth();
+		final int height = img.getHeight();
+		final int[] gray = new int[width * height];
+		final WritableRaster raster = img.getRaster();
+		final int translateX = -raster.getSampleModelTranslateX();
+		final int translateY = -raster.getSampleModelTranslateY();
+		final int type = img.getType();
+		if ( (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB)
+				&& raster.getSampleModel() instanceof SinglePixelPackedSampleModel ) {
+			final DataBufferInt buffer = (DataBufferInt) raster.getDataBuffer();
+			final int[] data = buffer.getData();
+			final int stride = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+			final int opaque = type == BufferedImage.TYPE_INT_RGB ? 0xff000000 : 0;
+			for ( int y = 0; y < height; y++ ) {
+				final int offset = buffer.getOffset() + (y + translateY) * stride + translateX;
+				for ( int x = 0; x < width; x++ ) {
+					gray[y * width + x] = toGray( data[offset + x] | opaque );
+				}
+			}
+		} else if ( (type == BufferedImage.TYPE_3BYTE_BGR || type == BufferedImage.TYPE_4BYTE_ABGR)
+				&& raster.getSampleModel() instanceof ComponentSampleModel ) {
+			final DataBufferByte buffer = (DataBufferByte) raster.getDataBuffer();
+			final byte[] data = buffer.getData();
+			final ComponentSampleModel sampleModel = (ComponentSampleModel) raster.getSampleModel();
+			final int stride = sampleModel.getScanlineStride();
+			final int pixelStride = sampleModel.getPixelStride();
+			final int[] bands = sampleModel.getBandOffsets();
+			final boolean hasAlpha = type == BufferedImage.TYPE_4BYTE_ABGR;
+			for ( int y = 0; y < height; y++ ) {
+				final int offset = buffer.getOffset() + (y + translateY) * stride + translateX * pixelStride;
+				for ( int x = 0; x < width; x++ ) {
+					final int pixel = offset + x * pixelStride;
+					final int alpha = hasAlpha ? data[pixel + bands[3]] & 0xff : 0xff;
+					gray[y * width + x] = toGray( alpha << 24 | (data[pixel + bands[0]] & 0xff) << 16
+							| (data[pixel + bands[1]] & 0xff) << 8 | data[pixel + bands[2]] & 0xff );
+				}
+			}
+		} else {
+			final int[] rgb = new int[width];
+			for ( int y = 0; y < height; y++ ) {
+				img.getRGB( 0, y, width, 1, rgb, 0, width );
+				for ( int x = 0; x < width; x++ ) {
+					gray[y * width + x] = toGray( rgb[x] );
+				}
+			}
+		}
+		return gray;
+	}
+
+	private static int toGray( final int argb ) {
+		final int alpha = argb >>> 24;
+		// transparent pixels are not drawn, so they remain black
+		if ( alpha == 0 ) {
+			return 0;
+		}
+		int gray = (int) ((0.30 * (argb >> 16 & 0xff) + 0.59 * (argb >> 8 & 0xff) + 0.11 * (argb & 0xff)) / 3);
+		// brighter by 50 percent, as the disabled image
+		gray = Math.min( 255, Math.max( 0, 255 - (255 - gray) * 50 / 100 ) );
+		if ( alpha < 255 ) {
+			// drawing translucent pixels premultiplies and divides by alpha with 8 bit precision
+			gray = div8( alpha, mul8( alpha, gray ) );
+		}
+		return gray;
+	}
+
+	// alpha * value / 255, rounded as by Java2D
+	private static int mul8( final int alpha, final int value ) {
+		return (int) ((alpha * 0x10101L * value + 0x800000L) >>> 24);
+	}
+
+	// value * 255 / alpha, rounded as by Java2D
+	private static int div8( final int alpha, final int value ) {
+		if ( value >= alpha ) {
+			return 255;
+		}
+		return (int) (((0xff000000L + alpha / 2) / alpha * value + 0x800000L) >>> 24);
+	}
+
+	private static void logDifferences( final boolean[] diffs, final int numRows, final int numCols ) {
+		for ( int row = 0; row < numRows; row++ ) {
+			final StringBuilder textual = new StringBuilder( "|" );
+			for ( int col = 0; col < numCols; col++ ) {
+				textual.append( diffs[row * numCols + col] ? "X" : " " );
+			}
+			logger.debug( textual.append( "|" ).toString() );
+		}
 	}
 }
@@ -13,12 +13,20 @@ public class ImageDiffCalcFactory {
 		if ( configured != null ) {
 			try {
 				logger.info( "Using '{}' as ImageDifferenceCalculator.", configured );
-				return (ImageDifferenceCalculator) Class.forName( configured ).newInstance();
+				return tiered( (ImageDifferenceCalculator) Class.forName( configured ).newInstance() );
 			} catch ( final Exception exc ) {
 				logger.error( "Error creating configured ImageDifferenceCalculator {}:", configured, exc );
 			}
 		}
 		logger.info( "No ImageDifferenceCalculator specified, will use default." );
-		return new ExactImageDifferenceCalculator();
+		return tiered( new ExactImageDifferenceCalculator() );
+	}
+
+	private static ImageDifferenceCalculator tiered( final ImageDifferenceCalculator calculator ) {
+		// Its cached hashes are cheaper than decoding the screenshots.
+		if ( calculator instanceof PerceptualImageDifferenceCalculator ) {
+			return calculator;
+		}
+		return new TieredImageDifferenceCalculator( calculator );
 	}
 }
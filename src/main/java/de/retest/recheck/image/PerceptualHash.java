@@ -0,0 +1,180 @@
+package de.retest.recheck.image;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Compact perceptual fingerprint of an image: The image is divided into {@value #GRID} x {@value #GRID} regions and
+ * for each region a difference hash (dHash) is computed, i.e. the region is reduced to 9 x 8 average gray values and
+ * each of the 64 bits tells whether a value is brighter than its right neighbor. Thus regions that merely differ by
+ * noise such as antialiasing usually have the same hash. As the hash only captures gradients, the average color of
+ * each region is kept as well.
+ */
+final class PerceptualHash {
+
+	static final int GRID = 8;
+
+	private static final int HASH_WIDTH = 9;
+	private static final int HASH_HEIGHT = 8;
+	// The average color channels of the same region may differ by this much.
+	private static final int COLOR_TOLERANCE = 1;
+
+	private final int width;
+	private final int height;
+	private final long[] regionHashes;
+	private final int[] regionColors;
+
+	private PerceptualHash( final int width, final int height, final long[] regionHashes,
+			final int[] regionColors ) {
+		this.width = width;
+		this.height = height;
+		this.regionHashes = regionHashes;
+		this.regionColors = regionColors;
+	}
+
+	static PerceptualHash of( final BufferedImage img ) {
+		final int width = img.getWidth();
+		final int height = img.getHeight();
+		final int[] rgb = img.getRGB( 0, 0, width, height, null, 0, width );
+		final int[] luma = new int[rgb.length];
+		for ( int i = 0; i < rgb.length; i++ ) {
+			luma[i] = ((rgb[i] >> 16 & 0xff) * 299 + (rgb[i] >> 8 & 0xff) * 587 + (rgb[i] & 0xff) * 114) / 1000;
+		}
+		final long[] sums = sumTable( luma, width, height );
+		final long[] regionHashes = new long[GRID * GRID];
+		final int[] regionColors = new int[GRID * GRID];
+		for ( int row = 0; row < GRID; row++ ) {
+			for ( int col = 0; col < GRID; col++ ) {
+				regionHashes[row * GRID + col] = hash( sums, width, height, col, row );
+				regionColors[row * GRID + col] = averageColor( rgb, width, col, row, height );
+			}
+		}
+		return new PerceptualHash( width, height, regionHashes, regionColors );
+	}
+
+	private static int averageColor( final int[] rgb, final int width, final int col, final int row,
+			final int height ) {
+		final int x0 = regionStart( col, width );
+		final int x1 = regionEnd( col, width );
+		final int y0 = regionStart( row, height );
+		final int y1 = regionEnd( row, height );
+		long red = 0;
+		long green = 0;
+		long blue = 0;
+		for ( int y = y0; y < y1; y++ ) {
+			for ( int x = x0; x < x1; x++ ) {
+				final int pixel = rgb[y * width + x];
+				red += pixel >> 16 & 0xff;
+				green += pixel >> 8 & 0xff;
+				blue += pixel & 0xff;
+			}
+		}
+		final long pixels = (long) (x1 - x0) * (y1 - y0);
+		return (int) (red / pixels) << 16 | (int) (green / pixels) << 8 | (int) (blue / pixels);
+	}
+
+	/**
+	 * @return the summed-area table of the given values, with an additional leading row and column of zeros
+	 */
+	private static long[] sumTable( final int[] values, final int width, final int height ) {
+		final long[] sums = new long[(width + 1) * (height + 1)];
+		for ( int y = 0; y < height; y++ ) {
+			long row = 0;
+			for ( int x = 0; x < width; x++ ) {
+				row += values[y * width + x];
+				sums[(y + 1) * (width + 1) + x + 1] = sums[y * (width + 1) + x + 1] + row;
+			}
+		}
+		return sums;
+	}
+
+	private static long hash( final long[] sums, final int width, final int height, final int col, final int row ) {
+		final int x0 = regionStart( col, width );
+		final int x1 = regionEnd( col, width );
+		final int y0 = regionStart( row, height );
+		final int y1 = regionEnd( row, height );
+		long hash = 0;
+		for ( int y = 0; y < HASH_HEIGHT; y++ ) {
+			final int top = cellStart( y0, y1, y, HASH_HEIGHT );
+			final int bottom = cellEnd( y0, y1, y, HASH_HEIGHT );
+			double left = average( sums, width, cellStart( x0, x1, 0, HASH_WIDTH ), top,
+					cellEnd( x0, x1, 0, HASH_WIDTH ), bottom );
+			for ( int x = 1; x < HASH_WIDTH; x++ ) {
+				final double right = average( sums, width, cellStart( x0, x1, x, HASH_WIDTH ), top,
+						cellEnd( x0, x1, x, HASH_WIDTH ), bottom );
+				hash = hash << 1 | (left > right ? 1 : 0);
+				left = right;
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * @return the first pixel of the given region along an axis of the given size
+	 */
+	static int regionStart( final int region, final int size ) {
+		return Math.min( region * size / GRID, size - 1 );
+	}
+
+	/**
+	 * @return the pixel after the given region along an axis of the given size, images smaller than the grid still
+	 *         have one pixel per region
+	 */
+	static int regionEnd( final int region, final int size ) {
+		return Math.max( (region + 1) * size / GRID, regionStart( region, size ) + 1 );
+	}
+
+	private static int cellStart( final int start, final int end, final int cell, final int cells ) {
+		return start + cell * (end - start) / cells;
+	}
+
+	private static int cellEnd( final int start, final int end, final int cell, final int cells ) {
+		// regions smaller than the hash still use one pixel per cell
+		return Math.max( cellStart( start, end, cell + 1, cells ), cellStart( start, end, cell, cells ) + 1 );
+	}
+
+	private static double average( final long[] sums, final int width, final int x0, final int y0, final int x1,
+			final int y1 ) {
+		final int stride = width + 1;
+		final long sum = sums[y1 * stride + x1] - sums[y0 * stride + x1] - sums[y1 * stride + x0] + sums[y0 * stride + x0];
+		return sum / (double) ((x1 - x0) * (y1 - y0));
+	}
+
+	int getWidth() {
+		return width;
+	}
+
+	int getHeight() {
+		return height;
+	}
+
+	boolean hasSameSize( final PerceptualHash other ) {
+		return width == other.width && height == other.height;
+	}
+
+	/**
+	 * @return whether the given region has the same hash and about the same color in both images
+	 */
+	boolean isSameRegion( final PerceptualHash other, final int region ) {
+		final int color = regionColors[region];
+		final int otherColor = other.regionColors[region];
+		return regionHashes[region] == other.regionHashes[region] //
+				&& Math.abs( (color >> 16 & 0xff) - (otherColor >> 16 & 0xff) ) <= COLOR_TOLERANCE
+				&& Math.abs( (color >> 8 & 0xff) - (otherColor >> 8 & 0xff) ) <= COLOR_TOLERANCE
+				&& Math.abs( (color & 0xff) - (otherColor & 0xff) ) <= COLOR_TOLERANCE;
+	}
+
+	/**
+	 * @return whether all regions are the same in both images
+	 */
+	boolean isSameImage( final PerceptualHash other ) {
+		if ( !hasSameSize( other ) ) {
+			return false;
+		}
+		for ( int region = 0; region < GRID * GRID; region++ ) {
+			if ( !isSameRegion( other, region ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,241 @@
+package de.retest.recheck.image;
+
+import static de.retest.recheck.ui.image.ImageUtils.readImage;
+import static de.retest.recheck.ui.image.ImageUtils.scaleToSameSize;
+import static de.retest.recheck.ui.image.ImageUtils.screenshot2Image;
+import static de.retest.recheck.ui.image.ImageUtils.toBufferedImage;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.retest.recheck.ui.image.Screenshot;
+
+/**
+ * Compares images by their {@link PerceptualHash}: Only regions whose hash or color differs are compared by their
+ * structural similarity (SSIM), which tolerates noise such as antialiasing. The match is the share of similar regions.
+ *
+ * The hashes of screenshots are cached by their content, so comparing an unchanged screenshot with its golden master
+ * does not decode any image once the golden master was hashed.
+ */
+public class PerceptualImageDifferenceCalculator implements ImageDifferenceCalculator {
+
+	private static final String SIMILARITY_PROPERTY = "de.retest.recheck.image.similarityThreshold";
+
+	private static final double DEFAULT_SIMILARITY = 0.8;
+
+	private static final int MAX_CACHED_HASHES = 10_000;
+
+	// Shared, as the calculator is instantiated again to create difference images.
+	private static final Cache<String, PerceptualHash> hashes =
+			CacheBuilder.newBuilder().maximumSize( MAX_CACHED_HASHES ).build();
+
+	private static final int WINDOW = 8;
+	private static final double C1 = Math.pow( 0.01 * 255, 2 );
+	private static final double C2 = Math.pow( 0.03 * 255, 2 );
+
+	// Minimal structural similarity of regions considered equal
+	private final double similarity;
+
+	public PerceptualImageDifferenceCalculator() {
+		this( Double.parseDouble( System.getProperty( SIMILARITY_PROPERTY, String.valueOf( DEFAULT_SIMILARITY ) ) ) );
+	}
+
+	public PerceptualImageDifferenceCalculator( final double similarity ) {
+		this.similarity = similarity;
+	}
+
+	public ImageDifference compare( final String file1, final String file2 ) throws IOException {
+		return compare( readImage( file1 ), readImage( file2 ) );
+	}
+
+	@Override
+	public ImageDifference compare( final Screenshot shot1, final Screenshot shot2 ) {
+		if ( shot1 == null || shot2 == null ) {
+			return compare( screenshot2Image( shot1 ), screenshot2Image( shot2 ) );
+		}
+		final Decoded decoded1 = new Decoded( shot1 );
+		final Decoded decoded2 = new Decoded( shot2 );
+		final PerceptualHash hash1 = decoded1.getHash();
+		final PerceptualHash hash2 = decoded2.getHash();
+		if ( !hash1.hasSameSize( hash2 ) ) {
+			return compare( decoded1.getImage(), decoded2.getImage() );
+		}
+		if ( hash1.isSameImage( hash2 ) ) {
+			return new ImageDifference( 1.0, null, PerceptualImageDifferenceCalculator.class );
+		}
+		return compare( decoded1.getImage(), decoded2.getImage(), hash1, hash2 );
+	}
+
+	@Override
+	public ImageDifference compare( BufferedImage img1, BufferedImage img2 ) {
+		if ( img1 == null ) {
+			if ( img2 == null ) {
+				return new ImageDifference( 1.0, null, PerceptualImageDifferenceCalculator.class );
+			}
+			return new ImageDifference( 0.0, img2, PerceptualImageDifferenceCalculator.class );
+		}
+		if ( img2 == null ) {
+			return new ImageDifference( 0.0, img1, PerceptualImageDifferenceCalculator.class );
+		}
+		img1 = toBufferedImage( scaleToSameSize( img1, img2 ) );
+		img2 = toBufferedImage( scaleToSameSize( img2, img1 ) );
+		return compare( img1, img2, PerceptualHash.of( img1 ), PerceptualHash.of( img2 ) );
+	}
+
+	private ImageDifference compare( final BufferedImage img1, final BufferedImage img2, final PerceptualHash hash1,
+			final PerceptualHash hash2 ) {
+		final int width = img1.getWidth();
+		final int height = img1.getHeight();
+
+		final BufferedImage differenceImage = copy( img2 );
+		final Graphics2D gc = differenceImage.createGraphics();
+		gc.setColor( Color.RED );
+		final int[] rgb1 = img1.getRGB( 0, 0, width, height, null, 0, width );
+		final int[] rgb2 = img2.getRGB( 0, 0, width, height, null, 0, width );
+		int numdiffs = 0;
+		for ( int region = 0; region < PerceptualHash.GRID * PerceptualHash.GRID; region++ ) {
+			if ( hash1.isSameRegion( hash2, region ) ) {
+				continue;
+			}
+			final int x0 = PerceptualHash.regionStart( region % PerceptualHash.GRID, width );
+			final int x1 = PerceptualHash.regionEnd( region % PerceptualHash.GRID, width );
+			final int y0 = PerceptualHash.regionStart( region / PerceptualHash.GRID, height );
+			final int y1 = PerceptualHash.regionEnd( region / PerceptualHash.GRID, height );
+			if ( getSimilarity( rgb1, rgb2, width, x0, y0, x1, y1 ) < similarity ) {
+				gc.drawRect( x0, y0, x1 - x0 - 1, y1 - y0 - 1 );
+				numdiffs++;
+			}
+		}
+		gc.dispose();
+		if ( numdiffs == 0 ) {
+			return new ImageDifference( 1.0, differenceImage, PerceptualImageDifferenceCalculator.class );
+		}
+		final int total = PerceptualHash.GRID * PerceptualHash.GRID;
+		return new ImageDifference( (total - numdiffs) / (double) total, differenceImage,
+				PerceptualImageDifferenceCalculator.class );
+	}
+
+	/**
+	 * @return the lowest mean SSIM of the color channels within the given region, computed over windows of
+	 *         {@value #WINDOW} x {@value #WINDOW} pixels after a 3 x 3 box blur, which evens out antialiasing
+	 */
+	static double getSimilarity( final int[] rgb1, final int[] rgb2, final int width, final int x0, final int y0,
+			final int x1, final int y1 ) {
+		final int height = rgb1.length / width;
+		double lowest = 1.0;
+		for ( int shift = 0; shift <= 16; shift += 8 ) {
+			final double[] channel1 = blur( rgb1, width, height, shift, x0, y0, x1, y1 );
+			final double[] channel2 = blur( rgb2, width, height, shift, x0, y0, x1, y1 );
+			final int regionWidth = x1 - x0;
+			final int regionHeight = y1 - y0;
+			double total = 0;
+			int windows = 0;
+			for ( int y = 0; y < regionHeight; y += WINDOW ) {
+				for ( int x = 0; x < regionWidth; x += WINDOW ) {
+					total += getSimilarity( channel1, channel2, regionWidth, x, y, Math.min( x + WINDOW, regionWidth ),
+							Math.min( y + WINDOW, regionHeight ) );
+					windows++;
+				}
+			}
+			lowest = Math.min( lowest, total / windows );
+		}
+		return lowest;
+	}
+
+	/**
+	 * @return the blurred values of the given color channel within the given region, row by row
+	 */
+	private static double[] blur( final int[] rgb, final int width, final int height, final int shift, final int x0,
+			final int y0, final int x1, final int y1 ) {
+		final double[] blurred = new double[(x1 - x0) * (y1 - y0)];
+		for ( int y = y0; y < y1; y++ ) {
+			for ( int x = x0; x < x1; x++ ) {
+				int sum = 0;
+				int pixels = 0;
+				for ( int neighborY = Math.max( 0, y - 1 ); neighborY <= Math.min( height - 1, y + 1 ); neighborY++ ) {
+					for ( int neighborX = Math.max( 0, x - 1 ); neighborX <= Math.min( width - 1, x + 1 ); neighborX++ ) {
+						sum += rgb[neighborY * width + neighborX] >> shift & 0xff;
+						pixels++;
+					}
+				}
+				blurred[(y - y0) * (x1 - x0) + x - x0] = sum / (double) pixels;
+			}
+		}
+		return blurred;
+	}
+
+	private static double getSimilarity( final double[] values1, final double[] values2, final int width,
+			final int x0, final int y0, final int x1, final int y1 ) {
+		final int pixels = (x1 - x0) * (y1 - y0);
+		double sum1 = 0;
+		double sum2 = 0;
+		for ( int y = y0; y < y1; y++ ) {
+			for ( int x = x0; x < x1; x++ ) {
+				sum1 += values1[y * width + x];
+				sum2 += values2[y * width + x];
+			}
+		}
+		final double mean1 = sum1 / pixels;
+		final double mean2 = sum2 / pixels;
+		double variance1 = 0;
+		double variance2 = 0;
+		double covariance = 0;
+		for ( int y = y0; y < y1; y++ ) {
+			for ( int x = x0; x < x1; x++ ) {
+				final double value1 = values1[y * width + x] - mean1;
+				final double value2 = values2[y * width + x] - mean2;
+				variance1 += value1 * value1;
+				variance2 += value2 * value2;
+				covariance += value1 * value2;
+			}
+		}
+		variance1 /= pixels;
+		variance2 /= pixels;
+		covariance /= pixels;
+		return (2 * mean1 * mean2 + C1) * (2 * covariance + C2)
+				/ ((mean1 * mean1 + mean2 * mean2 + C1) * (variance1 + variance2 + C2));
+	}
+
+	private static BufferedImage copy( final BufferedImage img ) {
+		final BufferedImage copy = new BufferedImage( img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB );
+		final Graphics2D graphics = copy.createGraphics();
+		graphics.drawImage( img, 0, 0, null );
+		graphics.dispose();
+		return copy;
+	}
+
+	/**
+	 * A screenshot that is only decoded if its hash is not cached or its pixels are needed.
+	 */
+	private static class Decoded {
+
+		private final Screenshot screenshot;
+		private BufferedImage image;
+
+		Decoded( final Screenshot screenshot ) {
+			this.screenshot = screenshot;
+		}
+
+		PerceptualHash getHash() {
+			final String key = screenshot.getType() + ":" + screenshot.getSha256();
+			PerceptualHash hash = hashes.getIfPresent( key );
+			if ( hash == null ) {
+				hash = PerceptualHash.of( getImage() );
+				hashes.put( key, hash );
+			}
+			return hash;
+		}
+
+		BufferedImage getImage() {
+			if ( image == null ) {
+				image = screenshot2Image( screenshot );
+			}
+			return image;
+		}
+	}
+}
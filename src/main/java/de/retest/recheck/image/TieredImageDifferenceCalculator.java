@@ -0,0 +1,70 @@
+package de.retest.recheck.image;
+
+import static de.retest.recheck.ui.image.ImageUtils.screenshot2Image;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import de.retest.recheck.ui.image.Screenshot;
+
+/**
+ * Avoids the full comparison of the given {@link ImageDifferenceCalculator} where cheaper checks suffice:
+ *
+ * <ol>
+ * <li>Screenshots with the same checksum are equal, without decoding them.</li>
+ * <li>Decoded images of the same dimensions with the same pixels are equal, e.g. if only the PNG encoding differs.</li>
+ * <li>Otherwise, the given calculator compares the decoded images.</li>
+ * </ol>
+ *
+ * Differences are always reported with the strategy name of the given calculator.
+ */
+public class TieredImageDifferenceCalculator implements ImageDifferenceCalculator {
+
+	private final ImageDifferenceCalculator delegate;
+
+	public TieredImageDifferenceCalculator( final ImageDifferenceCalculator delegate ) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public ImageDifference compare( final Screenshot expected, final Screenshot actual ) {
+		if ( expected == null || actual == null ) {
+			return delegate.compare( expected, actual );
+		}
+		if ( hasSameContent( expected, actual ) ) {
+			return equal();
+		}
+		return compare( screenshot2Image( expected ), screenshot2Image( actual ) );
+	}
+
+	@Override
+	public ImageDifference compare( final BufferedImage img1, final BufferedImage img2 ) {
+		if ( img1 != null && img2 != null && hasSamePixels( img1, img2 ) ) {
+			return equal();
+		}
+		return delegate.compare( img1, img2 );
+	}
+
+	private static boolean hasSameContent( final Screenshot expected, final Screenshot actual ) {
+		final byte[] expectedData = expected.getBinaryData();
+		final byte[] actualData = actual.getBinaryData();
+		return expectedData != null && actualData != null //
+				&& expected.getType() == actual.getType() //
+				&& expectedData.length == actualData.length //
+				&& expected.getSha256().equals( actual.getSha256() );
+	}
+
+	private static boolean hasSamePixels( final BufferedImage img1, final BufferedImage img2 ) {
+		final int width = img1.getWidth();
+		final int height = img1.getHeight();
+		if ( width != img2.getWidth() || height != img2.getHeight() ) {
+			return false;
+		}
+		return Arrays.equals( img1.getRGB( 0, 0, width, height, null, 0, width ),
+				img2.getRGB( 0, 0, width, height, null, 0, width ) );
+	}
+
+	private ImageDifference equal() {
+		return new ImageDifference( 1.0, null, delegate.getClass() );
+	}
+}
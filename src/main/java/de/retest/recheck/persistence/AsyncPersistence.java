@@ -0,0 +1,34 @@
+package de.retest.recheck.persistence;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Saves via the given {@link Persistence} in the background of the {@link BackgroundWriter}. Loading waits for pending
+ * saves to the same identifier, thus always reads what was saved before.
+ */
+public class AsyncPersistence<T extends Persistable> implements Persistence<T> {
+
+	private final Persistence<T> delegate;
+	private final BackgroundWriter writer;
+
+	public AsyncPersistence( final Persistence<T> delegate ) {
+		this( delegate, BackgroundWriter.getInstance() );
+	}
+
+	AsyncPersistence( final Persistence<T> delegate, final BackgroundWriter writer ) {
+		this.delegate = delegate;
+		this.writer = writer;
+	}
+
+	@Override
+	public void save( final URI identifier, final T element ) throws IOException {
+		writer.submit( identifier, () -> delegate.save( identifier, element ) );
+	}
+
+	@Override
+	public T load( final URI identifier ) throws IOException {
+		writer.await( identifier );
+		return delegate.load( identifier );
+	}
+}
@@ -0,0 +1,218 @@
+package de.retest.recheck.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executes writes in the background, so that the calling (test) thread does not have to wait for marshalling and disk
+ * I/O:
+ *
+ * <ul>
+ * <li>Writes to the same identifier are executed in the order they were submitted, writes to different identifiers
+ * concurrently.</li>
+ * <li>The number of pending writes is bounded, submitting further writes blocks until a pending write finished.</li>
+ * <li>{@link #flush(Collection)} waits for the pending writes to the given identifiers, forces the written files to
+ * disk and reports the failed writes to these identifiers. {@link #flush()} does so for all identifiers.</li>
+ * </ul>
+ */
+@Slf4j
+public class BackgroundWriter {
+
+	private static final int MAX_PENDING_WRITES = 32;
+
+	private static BackgroundWriter instance;
+
+	/**
+	 * @return the writer, created along with its threads when first needed, i.e. only if anything is written in the
+	 *         background
+	 */
+	public static synchronized BackgroundWriter getInstance() {
+		if ( instance == null ) {
+			instance = new BackgroundWriter();
+		}
+		return instance;
+	}
+
+	/**
+	 * @return the writer if it was created already, thus might have pending writes
+	 */
+	public static synchronized Optional<BackgroundWriter> getIfCreated() {
+		return Optional.ofNullable( instance );
+	}
+
+	@FunctionalInterface
+	public interface Write {
+		void write() throws IOException;
+	}
+
+	private final ExecutorService executor;
+	private final Semaphore pendingWrites = new Semaphore( MAX_PENDING_WRITES );
+	// Keyed by the normalized identifier, as File#toURI() only appends a slash to existing directories.
+	private final Map<URI, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+	private final Set<URI> written = ConcurrentHashMap.newKeySet();
+	private final Map<URI, Queue<Throwable>> failures = new ConcurrentHashMap<>();
+
+	BackgroundWriter() {
+		final int threads = Math.max( 1, Runtime.getRuntime().availableProcessors() / 2 );
+		executor = Executors.newFixedThreadPool( threads,
+				new ThreadFactoryBuilder().setNameFormat( "recheck-writer-%d" ).setDaemon( true ).build() );
+		// Writes must not get lost if the test did not call cap().
+		Runtime.getRuntime().addShutdownHook( new Thread( this::flushQuietly, "recheck-writer-shutdown" ) );
+	}
+
+	/**
+	 * Submits the given write, blocking while the maximum number of writes is pending.
+	 *
+	 * @param identifier
+	 *            identifier that is written, writes to the same identifier are executed in order
+	 * @param write
+	 *            the write to execute in the background
+	 */
+	public void submit( final URI identifier, final Write write ) {
+		final URI key = normalize( identifier );
+		final Runnable task = () -> {
+			try {
+				write.write();
+			} catch ( final IOException e ) {
+				throw new UncheckedIOException( "Could not write '" + identifier + "'.", e );
+			}
+		};
+		pendingWrites.acquireUninterruptibly();
+		final CompletableFuture<Void> future;
+		try {
+			future = pending.compute( key, ( id, previous ) -> ( previous == null //
+					? CompletableFuture.runAsync( task, executor ) //
+					: previous.handle( ( result, failure ) -> result ).thenRunAsync( task, executor ) )
+							// Recorded before the future completes, so that awaiting it includes the outcome.
+							.whenComplete( ( result, failure ) -> record( key, failure ) ) );
+		} catch ( final RuntimeException | Error e ) {
+			pendingWrites.release();
+			throw e;
+		}
+		future.whenComplete( ( result, failure ) -> {
+			pending.remove( key, future );
+			pendingWrites.release();
+		} );
+	}
+
+	private void record( final URI key, final Throwable failure ) {
+		if ( failure != null ) {
+			failures.computeIfAbsent( key, id -> new ConcurrentLinkedQueue<>() ).add( failure );
+		} else {
+			written.add( key );
+		}
+	}
+
+	/**
+	 * Waits until all writes to the given identifier submitted so far are done. Failures are not reported here, but by
+	 * {@link #flush(Collection)}.
+	 *
+	 * @param identifier
+	 *            identifier to wait for
+	 */
+	public void await( final URI identifier ) {
+		final CompletableFuture<Void> future = pending.get( normalize( identifier ) );
+		if ( future != null ) {
+			future.handle( ( result, failure ) -> result ).join();
+		}
+	}
+
+	/**
+	 * Waits until all writes submitted so far are done and forces the written files to disk.
+	 *
+	 * @throws UncheckedIOException
+	 *             if any write since the last flush failed
+	 */
+	public void flush() {
+		final Set<URI> identifiers = new HashSet<>( pending.keySet() );
+		identifiers.addAll( written );
+		identifiers.addAll( failures.keySet() );
+		flush( identifiers );
+	}
+
+	/**
+	 * Waits until all writes to the given identifiers submitted so far are done and forces the written files to disk.
+	 * Writes to other identifiers, e.g. of other suites, are neither awaited nor reported.
+	 *
+	 * @param identifiers
+	 *            identifiers to flush
+	 * @throws UncheckedIOException
+	 *             if any write to the given identifiers since their last flush failed, with the failures of further
+	 *             identifiers as suppressed exceptions
+	 */
+	public void flush( final Collection<URI> identifiers ) {
+		final Set<URI> keys = identifiers.stream().map( BackgroundWriter::normalize ).collect( Collectors.toSet() );
+		keys.forEach( this::await );
+		final List<Throwable> flushed = new ArrayList<>();
+		for ( final URI key : keys ) {
+			if ( written.remove( key ) && "file".equals( key.getScheme() ) ) {
+				sync( new File( key ) );
+			}
+			final Queue<Throwable> failed = failures.remove( key );
+			if ( failed != null ) {
+				failed.forEach( failure -> flushed.add(
+						failure.getCause() instanceof UncheckedIOException ? failure.getCause() : failure ) );
+			}
+		}
+		if ( !flushed.isEmpty() ) {
+			final UncheckedIOException exception = flushed.get( 0 ) instanceof UncheckedIOException
+					? (UncheckedIOException) flushed.get( 0 )
+					: new UncheckedIOException( new IOException( "Could not write in the background.",
+							flushed.get( 0 ) ) );
+			flushed.stream().skip( 1 ).forEach( exception::addSuppressed );
+			throw exception;
+		}
+	}
+
+	private void flushQuietly() {
+		try {
+			flush();
+		} catch ( final RuntimeException e ) {
+			log.error( "Error writing in the background.", e );
+		}
+	}
+
+	private static URI normalize( final URI identifier ) {
+		final String normalized = identifier.normalize().toString();
+		return normalized.endsWith( "/" ) ? URI.create( normalized.substring( 0, normalized.length() - 1 ) )
+				: identifier.normalize();
+	}
+
+	private static void sync( final File file ) {
+		final File[] children = file.listFiles();
+		if ( children != null ) {
+			for ( final File child : children ) {
+				sync( child );
+			}
+		} else if ( file.isFile() ) {
+			try ( FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.WRITE ) ) {
+				channel.force( true );
+			} catch ( final IOException e ) {
+				log.warn( "Could not force '{}' to disk: {}", file, e.getMessage() );
+			}
+		}
+	}
+}
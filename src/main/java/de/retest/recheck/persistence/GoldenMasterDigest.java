@@ -0,0 +1,262 @@
+package de.retest.recheck.persistence;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import de.retest.recheck.RecheckProperties;
+import de.retest.recheck.ui.DefaultValueFinder;
+import de.retest.recheck.ui.descriptors.Attribute;
+import de.retest.recheck.ui.descriptors.Attributes;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.RootElement;
+import de.retest.recheck.ui.descriptors.SutState;
+import de.retest.recheck.ui.image.Screenshot;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Digests of a golden master and of an actual state, which has been compared to that golden master without any
+ * differences. They are stored in a cache folder outside of the golden master, so that checking the same state again
+ * neither loads nor compares the golden master, as long as none of its files changed. To keep this check cheap, the
+ * digest of the golden master only covers the paths, sizes and modification times of its files, not their contents.
+ *
+ * The digest of a state covers everything that is compared, i.e. the identifying attributes, attributes and screenshots
+ * of all elements, as well as the configuration of the comparison. Instead of the metadata of the golden master, its
+ * metadata is stored along with the digests, so that metadata differences can still be found.
+ */
+@Slf4j
+public final class GoldenMasterDigest {
+
+	static final String DIGEST_FILE_EXTENSION = ".digest";
+
+	private static final String PATH_KEY = "path";
+	private static final String GOLDEN_MASTER_KEY = "goldenMaster";
+	private static final String STATE_KEY = "state";
+	private static final String METADATA_KEY_PREFIX = "metadata.";
+
+	/**
+	 * System properties with this prefix configure the comparison, e.g. the image difference calculator and its
+	 * thresholds.
+	 */
+	private static final String CONFIGURATION_PROPERTY_PREFIX = "de.retest.";
+
+	private GoldenMasterDigest() {}
+
+	/**
+	 * @param state
+	 *            the actual state, as converted by the adapter
+	 * @param defaultValueFinder
+	 *            the default value finder of the adapter, which is used for the comparison
+	 * @return the digest of the given state, independent of the order of its root elements
+	 */
+	public static String of( final SutState state, final DefaultValueFinder defaultValueFinder ) {
+		final List<HashCode> rootElements = new ArrayList<>();
+		for ( final RootElement rootElement : state.getRootElements() ) {
+			final Hasher hasher = Hashing.sha256().newHasher();
+			putString( hasher, rootElement.getScreen() );
+			putString( hasher, rootElement.getTitle() );
+			hasher.putInt( rootElement.getScreenId() );
+			put( hasher, rootElement );
+			rootElements.add( hasher.hash() );
+		}
+		final Hasher hasher = Hashing.sha256().newHasher();
+		putConfiguration( hasher, defaultValueFinder );
+		if ( !rootElements.isEmpty() ) {
+			hasher.putBytes( Hashing.combineUnordered( rootElements ).asBytes() );
+		}
+		return hasher.hash().toString();
+	}
+
+	private static void putConfiguration( final Hasher hasher, final DefaultValueFinder defaultValueFinder ) {
+		final RecheckProperties properties = RecheckProperties.getInstance();
+		putString( hasher, String.valueOf( properties.ignoreAttributes() ) );
+		hasher.putDouble( properties.elementMatchThreshold() );
+		hasher.putInt( properties.elementMatchCandidates() );
+		hasher.putBoolean( properties.elementMatchExhaustiveFallback() );
+		hasher.putBoolean( properties.elementMatchParallel() );
+		hasher.putBoolean( properties.elementMatchHierarchical() );
+		hasher.putDouble( properties.rootElementMatchThreshold() );
+		hasher.putDouble( properties.rootElementContainedChildrenMatchThreshold() );
+		putString( hasher, defaultValueFinder == null ? null : defaultValueFinder.getClass().getName() );
+		final Map<String, String> systemProperties = new TreeMap<>();
+		System.getProperties().stringPropertyNames().stream() //
+				.filter( key -> key.startsWith( CONFIGURATION_PROPERTY_PREFIX ) ) //
+				.forEach( key -> systemProperties.put( key, System.getProperty( key ) ) );
+		hasher.putInt( systemProperties.size() );
+		systemProperties.forEach( ( key, value ) -> {
+			putString( hasher, key );
+			putString( hasher, value );
+		} );
+	}
+
+	private static void put( final Hasher hasher, final Element element ) {
+		putString( hasher, element.getClass().getName() );
+		putString( hasher, element.getRetestId() );
+		final List<Attribute> identifyingAttributes = element.getIdentifyingAttributes().getAttributes();
+		hasher.putInt( identifyingAttributes.size() );
+		for ( final Attribute attribute : identifyingAttributes ) {
+			putString( hasher, attribute.getClass().getName() );
+			putString( hasher, attribute.getKey() );
+			putValue( hasher, attribute.getValue() );
+		}
+		final Attributes attributes = element.getAttributes();
+		hasher.putInt( attributes.size() );
+		attributes.forEach( entry -> {
+			putString( hasher, entry.getKey() );
+			putValue( hasher, attributes.get( entry.getKey() ) );
+		} );
+		hasher.putInt( element.getContainedElements().size() );
+		for ( final Element child : element.getContainedElements() ) {
+			put( hasher, child );
+		}
+	}
+
+	private static void putValue( final Hasher hasher, final Object value ) {
+		if ( value instanceof Screenshot ) {
+			final Screenshot screenshot = (Screenshot) value;
+			putString( hasher, Screenshot.class.getName() );
+			putString( hasher, screenshot.getPersistenceId() );
+			putString( hasher, String.valueOf( screenshot.getType() ) );
+			putString( hasher, screenshot.getSha256() );
+		} else {
+			putString( hasher, value == null ? null : value.getClass().getName() );
+			putString( hasher, value == null ? null : value.toString() );
+		}
+	}
+
+	private static void putString( final Hasher hasher, final String value ) {
+		if ( value == null ) {
+			hasher.putInt( -1 );
+		} else {
+			hasher.putInt( value.length() ).putUnencodedChars( value );
+		}
+	}
+
+	/**
+	 * @param cacheFolder
+	 *            the folder containing the digests, e.g. within the build folder
+	 * @param goldenMaster
+	 *            the golden master folder
+	 * @param stateDigest
+	 *            the digest of the actual state as returned by {@link #of(SutState, DefaultValueFinder)}
+	 * @return a state without any elements, but with the metadata of the golden master, if a state with the given
+	 *         digest was already compared to the golden master without any differences and the golden master did not
+	 *         change since; otherwise empty
+	 */
+	public static Optional<SutState> loadUnchanged( final File cacheFolder, final File goldenMaster,
+			final String stateDigest ) {
+		// The golden master might still be written in the background.
+		BackgroundWriter.getIfCreated().ifPresent( writer -> writer.await( goldenMaster.toURI() ) );
+		final File digestFile = digestFile( cacheFolder, goldenMaster );
+		if ( !digestFile.isFile() ) {
+			return Optional.empty();
+		}
+		try ( final Reader reader = Files.newBufferedReader( digestFile.toPath(), UTF_8 ) ) {
+			final Properties digests = new Properties();
+			digests.load( reader );
+			if ( !goldenMaster.getAbsolutePath().equals( digests.getProperty( PATH_KEY ) )
+					|| !stateDigest.equals( digests.getProperty( STATE_KEY ) )
+					|| !digestFolder( goldenMaster ).equals( digests.getProperty( GOLDEN_MASTER_KEY ) ) ) {
+				return Optional.empty();
+			}
+			final Map<String, String> metadata = new HashMap<>();
+			for ( final String key : digests.stringPropertyNames() ) {
+				if ( key.startsWith( METADATA_KEY_PREFIX ) ) {
+					metadata.put( key.substring( METADATA_KEY_PREFIX.length() ), digests.getProperty( key ) );
+				}
+			}
+			return Optional.of( new SutState( Collections.emptySet(), () -> metadata ) );
+		} catch ( final IOException e ) {
+			log.debug( "Could not read digest of golden master '{}', comparing it instead.", goldenMaster, e );
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Stores the given digest in the cache folder. Must only be called if the state has no differences to the golden
+	 * master.
+	 *
+	 * @param cacheFolder
+	 *            the folder containing the digests, e.g. within the build folder
+	 * @param goldenMaster
+	 *            the golden master folder
+	 * @param expected
+	 *            the golden master as loaded, whose metadata is stored along with the digests
+	 * @param stateDigest
+	 *            the digest of the actual state as returned by {@link #of(SutState, DefaultValueFinder)}
+	 */
+	public static void save( final File cacheFolder, final File goldenMaster, final SutState expected,
+			final String stateDigest ) {
+		try {
+			final Properties digests = new Properties();
+			digests.setProperty( PATH_KEY, goldenMaster.getAbsolutePath() );
+			digests.setProperty( GOLDEN_MASTER_KEY, digestFolder( goldenMaster ) );
+			digests.setProperty( STATE_KEY, stateDigest );
+			expected.getMetadata().forEach( ( key, value ) -> {
+				if ( value != null ) {
+					digests.setProperty( METADATA_KEY_PREFIX + key, value );
+				}
+			} );
+			final File digestFile = digestFile( cacheFolder, goldenMaster );
+			Files.createDirectories( digestFile.toPath().getParent() );
+			try ( final Writer writer = Files.newBufferedWriter( digestFile.toPath(), UTF_8 ) ) {
+				digests.store( writer, null );
+			}
+		} catch ( final IOException e ) {
+			log.warn( "Could not save digest of golden master '{}'.", goldenMaster, e );
+		}
+	}
+
+	/**
+	 * @return the file within the cache folder, which is named by the digest of the absolute path of the golden master
+	 */
+	static File digestFile( final File cacheFolder, final File goldenMaster ) {
+		final String name = Hashing.sha256().hashString( goldenMaster.getAbsolutePath(), UTF_8 ).toString();
+		return new File( cacheFolder, name + DIGEST_FILE_EXTENSION );
+	}
+
+	/**
+	 * @return the digest of the relative paths, sizes and modification times of all files within the given folder,
+	 *         which does not read their contents
+	 */
+	private static String digestFolder( final File folder ) throws IOException {
+		final Path root = folder.toPath();
+		final List<Path> files;
+		try ( final Stream<Path> paths = Files.walk( root ) ) {
+			files = paths.filter( Files::isRegularFile ) //
+					.sorted() //
+					.collect( Collectors.toList() );
+		}
+		final Hasher hasher = Hashing.sha256().newHasher();
+		for ( final Path file : files ) {
+			final BasicFileAttributes attributes = Files.readAttributes( file, BasicFileAttributes.class );
+			putString( hasher, root.relativize( file ).toString().replace( File.separatorChar, '/' ) );
+			hasher.putLong( attributes.size() );
+			hasher.putLong( attributes.lastModifiedTime().to( TimeUnit.NANOSECONDS ) );
+			putString( hasher, Objects.toString( attributes.fileKey(), null ) );
+		}
+		return hasher.hash().toString();
+	}
+}
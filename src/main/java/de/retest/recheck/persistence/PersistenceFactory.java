@@ -29,6 +29,17 @@ public class PersistenceFactory {
 		return new DynamicLoadPersistenceProxy<>();
 	}
 
+	/**
+	 * @return a persistence that saves in the background if {@link RecheckProperties#asyncPersistence()} is enabled,
+	 *         otherwise the same as {@link #getPersistence()}
+	 */
+	public <T extends Persistable> Persistence<T> getAsyncPersistence() {
+		if ( RecheckProperties.getInstance().asyncPersistence() ) {
+			return new AsyncPersistence<>( getPersistence() );
+		}
+		return getPersistence();
+	}
+
 	<T extends Persistable> Persistence<T> getSavePersistenceForIdentifier( final URI identifier ) {
 		final FileOutputFormat format = getFormatForIdentifier( identifier );
 
@@ -38,7 +49,7 @@ public class PersistenceFactory {
 			case PLAIN:
 				return new XmlFolderPersistence<>( xml );
 			case KRYO:
-				return new KryoPersistence<>();
+				return new KryoPersistence<>( RecheckProperties.getInstance().chunkedReports() );
 			case CLOUD:
 				return new CloudPersistence<>();
 			default:
@@ -30,7 +30,7 @@ public class RecheckSutState {
 
 	public static SutState createNew( final File file, final SutState actual ) {
 		try {
-			persistenceFactory.getPersistence().save( file.toURI(), actual );
+			persistenceFactory.getAsyncPersistence().save( file.toURI(), actual );
 		} catch ( final IOException e ) {
 			throw new UncheckedIOException( "Could not save SUT state '" + actual + "' to '" + file + "'.", e );
 		}
@@ -38,6 +38,8 @@ public class RecheckSutState {
 	}
 
 	public static SutState loadExpected( final File file ) {
+		// The golden master might still be written in the background.
+		BackgroundWriter.getIfCreated().ifPresent( writer -> writer.await( file.toURI() ) );
 		if ( !file.exists() ) {
 			return null;
 		}
@@ -5,12 +5,17 @@ import static de.retest.recheck.XmlTransformerUtil.getXmlTransformer;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.SuiteAggregator;
+import de.retest.recheck.persistence.BackgroundWriter.Write;
+import de.retest.recheck.persistence.bin.ChunkedReportAppender;
 import de.retest.recheck.report.SuiteReplayResult;
 import de.retest.recheck.report.TestReport;
 
@@ -20,21 +25,86 @@ public class RecheckTestReportUtil {
 
 	private static final PersistenceFactory persistenceFactory = new PersistenceFactory( getXmlTransformer() );
 
+	private static final Map<File, ChunkedReportAppender> aggregatedTestReportAppenders = new ConcurrentHashMap<>();
+
 	private RecheckTestReportUtil() {}
 
 	public static void persist( final SuiteReplayResult suite, final File file ) {
 		logger.info( "Persisting test report to file '{}'.", file.getAbsoluteFile().toURI() );
 		try {
-			// Save separate test report for suite.
-			persistenceFactory.getPersistence().save( file.toURI(), TestReport.fromApi( suite ) );
+			// Save separate test report for suite, a snapshot as further tests might be added while saving.
+			persistenceFactory.getAsyncPersistence().save( file.toURI(), TestReport.fromApi( suite.snapshot() ) );
 
 			// Save/update aggregated test report for all suites.
 			final File testReportFile =
 					new File( file.getParent(), RecheckProperties.AGGREGATED_TEST_REPORT_FILE_NAME );
-			final TestReport aggregatedTestReport = SuiteAggregator.getInstance().getAggregatedTestReport();
-			persistenceFactory.getPersistence().save( testReportFile.toURI(), aggregatedTestReport );
+			if ( isAppendingAggregatedTestReport() ) {
+				appendAggregatedTestReport( suite, testReportFile );
+				return;
+			}
+			final TestReport aggregatedTestReport = snapshot( SuiteAggregator.getInstance().getAggregatedTestReport() );
+			persistenceFactory.getAsyncPersistence().save( testReportFile.toURI(), aggregatedTestReport );
 		} catch ( final IOException e ) {
 			throw new UncheckedIOException( "Could not save test report.", e );
 		}
 	}
+
+	/**
+	 * The aggregated report gets further suites and tests added while it might still be saved in the background.
+	 */
+	private static TestReport snapshot( final TestReport aggregatedTestReport ) {
+		final TestReport snapshot = TestReport.fromApi();
+		new ArrayList<>( aggregatedTestReport.getSuiteReplayResults() ).stream() //
+				.map( SuiteReplayResult::snapshot ) //
+				.forEach( snapshot::addSuite );
+		return snapshot;
+	}
+
+	private static boolean isAppendingAggregatedTestReport() {
+		final RecheckProperties properties = RecheckProperties.getInstance();
+		return properties.appendAggregatedReport() && properties.getReportOutputFormat() == FileOutputFormat.KRYO;
+	}
+
+	/**
+	 * Appends the tests of the suite captured since it was persisted last to the aggregated test report instead of
+	 * rewriting it with all suites so far. The report can be read after each append, thus needs not be completed when
+	 * all suites are done. As it is not rewritten, the suite is released from the {@link SuiteAggregator}.
+	 */
+	private static void appendAggregatedTestReport( final SuiteReplayResult suite, final File testReportFile )
+			throws IOException {
+		final SuiteReplayResult snapshot = suite.snapshot();
+		final Write append = () -> getAggregatedTestReportAppender( testReportFile ).append( snapshot );
+		if ( RecheckProperties.getInstance().asyncPersistence() ) {
+			BackgroundWriter.getInstance().submit( testReportFile.toURI(), append );
+		} else {
+			append.write();
+		}
+		SuiteAggregator.getInstance().release( suite );
+	}
+
+	private static synchronized ChunkedReportAppender getAggregatedTestReportAppender( final File testReportFile )
+			throws IOException {
+		ChunkedReportAppender appender = aggregatedTestReportAppenders.get( testReportFile );
+		if ( appender == null ) {
+			appender = ChunkedReportAppender.create( testReportFile.toPath(), TestReport.fromApi() );
+			aggregatedTestReportAppenders.put( testReportFile, appender );
+		}
+		return appender;
+	}
+
+	/**
+	 * Closes the appended aggregated test reports after their pending appends. Suites persisted afterwards start new
+	 * reports.
+	 */
+	static void closeAggregatedTestReports() {
+		for ( final File testReportFile : new ArrayList<>( aggregatedTestReportAppenders.keySet() ) ) {
+			// Without holding the lock of the appenders, which the pending appends need.
+			BackgroundWriter.getIfCreated().ifPresent( writer -> writer.await( testReportFile.toURI() ) );
+			try {
+				aggregatedTestReportAppenders.remove( testReportFile ).close();
+			} catch ( final IOException e ) {
+				logger.error( "Could not close aggregated test report '{}'.", testReportFile, e );
+			}
+		}
+	}
 }
@@ -0,0 +1,175 @@
+package de.retest.recheck.persistence.bin;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.output.CountingOutputStream;
+
+import com.esotericsoftware.kryo.Kryo;
+
+import de.retest.recheck.report.SuiteReplayResult;
+import de.retest.recheck.report.TestReplayResult;
+import de.retest.recheck.report.TestReport;
+import de.retest.recheck.util.VersionProvider;
+
+/**
+ * Writes a report in the chunked format (see {@link ChunkedReportFormat}) suite by suite: Each appended suite is
+ * written to the end of the file right away and need not be kept in memory afterwards. Only the frame offsets are
+ * kept, which are written as new index after each append. Hence, the report is complete and can be read at any time,
+ * containing the suites appended so far.
+ *
+ * A suite can be appended several times, e.g. after each of its tests. Appending a suite with the UUID of an already
+ * appended suite only writes its further tests, which are merged into the appended suite when reading.
+ *
+ * The report is created as a temporary file next to the target file and moved into place right away, before any suite
+ * is appended. Hence, several JVMs (e.g. forked test executions) writing the same report never interleave, but the
+ * report created last wins.
+ */
+public class ChunkedReportAppender implements Closeable {
+
+	private final FileChannel channel;
+	private final CountingOutputStream counting;
+	private final DataOutputStream data;
+	private final long indexOffsetPosition;
+	private final long reportOffset;
+	private final List<AppendedSuite> suites = new ArrayList<>();
+	private final Map<String, AppendedSuite> suitesByUuid = new HashMap<>();
+
+	private boolean closed;
+
+	private static final class AppendedSuite {
+		private final long offset;
+		private final List<Long> testOffsets = new ArrayList<>();
+
+		private AppendedSuite( final long offset ) {
+			this.offset = offset;
+		}
+	}
+
+	private ChunkedReportAppender( final Path path, final TestReport report ) throws IOException {
+		final Path temp = Files.createTempFile( path.toAbsolutePath().getParent(), path.getFileName().toString(),
+				".tmp" );
+		channel = FileChannel.open( temp, StandardOpenOption.WRITE );
+		try {
+			counting = new CountingOutputStream( new BufferedOutputStream( Channels.newOutputStream( channel ) ) );
+			data = new DataOutputStream( counting );
+			ChunkedReportFormat.writeHeader( data, VersionProvider.RECHECK_VERSION );
+			indexOffsetPosition = counting.getByteCount() - ChunkedReportFormat.INDEX_OFFSET_LENGTH;
+			reportOffset = write( kryo -> ChunkedReportFormat.writeFrame( kryo, data, counting,
+					ChunkedReportFormat.REPORT, report ) );
+			commit();
+			move( temp, path );
+		} catch ( final IOException | RuntimeException e ) {
+			channel.close();
+			Files.deleteIfExists( temp );
+			throw e;
+		}
+	}
+
+	/**
+	 * @param path
+	 *            the file to write, which is replaced right away if it exists
+	 * @param report
+	 *            the report to write, without its suites
+	 * @return an appender, which should be closed when done
+	 */
+	public static ChunkedReportAppender create( final Path path, final TestReport report ) throws IOException {
+		Files.createDirectories( path.toAbsolutePath().getParent() );
+		return new ChunkedReportAppender( path, report );
+	}
+
+	/**
+	 * @param suite
+	 *            the suite to write to the end of the report, with all its tests not appended before
+	 */
+	public synchronized void append( final SuiteReplayResult suite ) throws IOException {
+		if ( closed ) {
+			throw new IllegalStateException( "Cannot append suite '" + suite.getName() + "' to closed report." );
+		}
+		final AppendedSuite appended = suite.getSuiteUuid() == null ? null : suitesByUuid.get( suite.getSuiteUuid() );
+		final List<TestReplayResult> tests = suite.getTestReplayResults();
+		final int appendedTests = appended == null ? 0 : appended.testOffsets.size();
+		if ( appended != null && appendedTests >= tests.size() ) {
+			return;
+		}
+		final AppendedSuite written = write( kryo -> {
+			final long suiteOffset =
+					ChunkedReportFormat.writeFrame( kryo, data, counting, ChunkedReportFormat.SUITE, suite );
+			final AppendedSuite target = appended == null ? new AppendedSuite( suiteOffset ) : appended;
+			for ( final long testOffset : ChunkedReportFormat.writeTests( kryo, data, counting,
+					tests.subList( appendedTests, tests.size() ) ) ) {
+				target.testOffsets.add( testOffset );
+			}
+			return target;
+		} );
+		if ( appended == null ) {
+			suites.add( written );
+			if ( suite.getSuiteUuid() != null ) {
+				suitesByUuid.put( suite.getSuiteUuid(), written );
+			}
+		}
+		commit();
+	}
+
+	/**
+	 * Writes the index of all frames written so far and only then points the header to it.
+	 */
+	private void commit() throws IOException {
+		final long[] suiteOffsets = suites.stream().mapToLong( suite -> suite.offset ).toArray();
+		final long[][] testOffsets = suites.stream()
+				.map( suite -> suite.testOffsets.stream().mapToLong( Long::longValue ).toArray() )
+				.toArray( long[][]::new );
+		final long indexOffset =
+				ChunkedReportFormat.writeIndex( data, counting, reportOffset, suiteOffsets, testOffsets );
+		data.flush();
+		final ByteBuffer buffer = ByteBuffer.allocate( ChunkedReportFormat.INDEX_OFFSET_LENGTH );
+		buffer.putLong( indexOffset ).flip();
+		while ( buffer.hasRemaining() ) {
+			channel.write( buffer, indexOffsetPosition + buffer.position() );
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if ( closed ) {
+			return;
+		}
+		closed = true;
+		data.close();
+	}
+
+	private static void move( final Path temp, final Path path ) throws IOException {
+		try {
+			Files.move( temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		} catch ( final AtomicMoveNotSupportedException e ) {
+			Files.move( temp, path, StandardCopyOption.REPLACE_EXISTING );
+		}
+	}
+
+	private interface KryoWrite<T> {
+		T write( Kryo kryo ) throws IOException;
+	}
+
+	private static <T> T write( final KryoWrite<T> write ) throws IOException {
+		final Kryo kryo = ChunkedReportFormat.kryoPool.borrow();
+		try {
+			return write.write( kryo );
+		} finally {
+			ChunkedReportFormat.kryoPool.release( kryo );
+		}
+	}
+}
@@ -0,0 +1,304 @@
+package de.retest.recheck.persistence.bin;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.pool.KryoPool;
+import com.esotericsoftware.kryo.serializers.FieldSerializer;
+
+import de.retest.recheck.report.SuiteReplayResult;
+import de.retest.recheck.report.TestReplayResult;
+import de.retest.recheck.report.TestReport;
+import lombok.Value;
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+/**
+ * Chunked binary format for {@link TestReport}s. Instead of serializing the whole report at once, the report, each of
+ * its {@link SuiteReplayResult}s and each of their {@link TestReplayResult}s are written as separately compressed
+ * frames, followed by an index of the frame offsets:
+ *
+ * <pre>
+ * magic | writer version | committed index offset | (frame* | end | index | index offset)+
+ * frame: kind | length | LZ4 compressed Kryo object
+ * index: report offset | suite count | (suite offset | test count | test offset*)*
+ * </pre>
+ *
+ * The report and suite frames contain the respective object without its suites or tests. Thus the format can be read
+ * sequentially (see {@link #readReport(DataInputStream, Header)}) as well as by seeking a single test via the index
+ * (see {@link ChunkedReportReader}).
+ *
+ * As the index comes last, suites can also be appended one after another (see {@link ChunkedReportAppender}): Each
+ * append writes its frames and a new index to the end and only then sets the committed index offset in the header to
+ * the new index. Readers only read up to the committed index, so the report is complete at any time. A suite may be
+ * appended several times, each time with further tests. Its frames are merged by the UUID of the suite when reading.
+ * Reports written at once leave the committed index offset at 0, their index is found via the offset at their end.
+ */
+final class ChunkedReportFormat {
+
+	private static final byte[] MAGIC = { 'R', 'C', 'K', 'C' };
+
+	static final byte END = 0;
+	static final byte REPORT = 1;
+	static final byte SUITE = 2;
+	static final byte TEST = 3;
+
+	static final int INDEX_OFFSET_LENGTH = Long.BYTES;
+
+	private ChunkedReportFormat() {}
+
+	@Value
+	static class Header {
+		/**
+		 * The version of recheck that wrote the report.
+		 */
+		String writerVersion;
+		/**
+		 * The offset of the index committed last, 0 if the index is found via the offset at the end.
+		 */
+		long indexOffset;
+		/**
+		 * The number of bytes of the header, i.e. the offset of the first frame.
+		 */
+		long length;
+	}
+
+	static final KryoPool kryoPool =
+			new KryoPool.Builder( ChunkedReportFormat::createKryo ).softReferences().build();
+
+	private static Kryo createKryo() {
+		final Kryo kryo = KryoPersistence.createKryo();
+		kryo.getRegistration( TestReport.class )
+				.setSerializer( withoutFields( kryo, TestReport.class, "suiteReplayResults" ) );
+		// The suite duration is accumulated again when adding the tests.
+		kryo.getRegistration( SuiteReplayResult.class )
+				.setSerializer( withoutFields( kryo, SuiteReplayResult.class, "testReplayResults", "suiteDuration" ) );
+		return kryo;
+	}
+
+	private static <T> FieldSerializer<T> withoutFields( final Kryo kryo, final Class<T> type,
+			final String... fields ) {
+		final FieldSerializer<T> serializer = new FieldSerializer<>( kryo, type );
+		for ( final String field : fields ) {
+			serializer.removeField( field );
+		}
+		return serializer;
+	}
+
+	static boolean isChunkedReport( final InputStream in ) throws IOException {
+		if ( !in.markSupported() ) {
+			return false;
+		}
+		in.mark( MAGIC.length );
+		try {
+			final byte[] magic = new byte[MAGIC.length];
+			final int read = in.read( magic );
+			return read == MAGIC.length && Arrays.equals( MAGIC, magic );
+		} finally {
+			in.reset();
+		}
+	}
+
+	static void write( final OutputStream out, final String version, final TestReport report ) throws IOException {
+		final Kryo kryo = kryoPool.borrow();
+		try {
+			write( kryo, out, version, report );
+		} finally {
+			kryoPool.release( kryo );
+		}
+	}
+
+	private static void write( final Kryo kryo, final OutputStream out, final String version,
+			final TestReport report ) throws IOException {
+		final CountingOutputStream counting = new CountingOutputStream( new BufferedOutputStream( out ) );
+		try ( DataOutputStream data = new DataOutputStream( counting ) ) {
+			writeHeader( data, version );
+
+			final long reportOffset = writeFrame( kryo, data, counting, REPORT, report );
+			final List<SuiteReplayResult> suites = report.getSuiteReplayResults();
+			final long[] suiteOffsets = new long[suites.size()];
+			final long[][] testOffsets = new long[suites.size()][];
+			for ( int suiteIdx = 0; suiteIdx < suites.size(); suiteIdx++ ) {
+				final SuiteReplayResult suite = suites.get( suiteIdx );
+				suiteOffsets[suiteIdx] = writeFrame( kryo, data, counting, SUITE, suite );
+				testOffsets[suiteIdx] = writeTests( kryo, data, counting, suite.getTestReplayResults() );
+			}
+			writeIndex( data, counting, reportOffset, suiteOffsets, testOffsets );
+		}
+	}
+
+	/**
+	 * Writes the header with a committed index offset of 0, which is the last {@link #INDEX_OFFSET_LENGTH} bytes of the
+	 * header.
+	 */
+	static void writeHeader( final DataOutputStream data, final String version ) throws IOException {
+		data.write( MAGIC );
+		data.writeUTF( version );
+		data.writeLong( 0 );
+	}
+
+	/**
+	 * @return the offsets of the written test frames
+	 */
+	static long[] writeTests( final Kryo kryo, final DataOutputStream data, final CountingOutputStream counting,
+			final List<TestReplayResult> tests ) throws IOException {
+		final long[] testOffsets = new long[tests.size()];
+		for ( int testIdx = 0; testIdx < tests.size(); testIdx++ ) {
+			testOffsets[testIdx] = writeFrame( kryo, data, counting, TEST, tests.get( testIdx ) );
+		}
+		return testOffsets;
+	}
+
+	/**
+	 * Ends the frames and writes the index.
+	 *
+	 * @return the offset of the written index
+	 */
+	static long writeIndex( final DataOutputStream data, final CountingOutputStream counting,
+			final long reportOffset, final long[] suiteOffsets, final long[][] testOffsets ) throws IOException {
+		data.writeByte( END );
+
+		final long indexOffset = counting.getByteCount();
+		data.writeLong( reportOffset );
+		data.writeInt( suiteOffsets.length );
+		for ( int suiteIdx = 0; suiteIdx < suiteOffsets.length; suiteIdx++ ) {
+			data.writeLong( suiteOffsets[suiteIdx] );
+			data.writeInt( testOffsets[suiteIdx].length );
+			for ( final long testOffset : testOffsets[suiteIdx] ) {
+				data.writeLong( testOffset );
+			}
+		}
+		data.writeLong( indexOffset );
+		return indexOffset;
+	}
+
+	static long writeFrame( final Kryo kryo, final DataOutputStream data, final CountingOutputStream counting,
+			final byte kind, final Object object ) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try ( Output output = new Output( new LZ4FrameOutputStream( bytes ) ) ) {
+			kryo.writeClassAndObject( output, object );
+		}
+		final long offset = counting.getByteCount();
+		data.writeByte( kind );
+		data.writeInt( bytes.size() );
+		bytes.writeTo( data );
+		return offset;
+	}
+
+	static Header readHeader( final DataInputStream data ) throws IOException {
+		final byte[] magic = new byte[MAGIC.length];
+		data.readFully( magic );
+		if ( !Arrays.equals( MAGIC, magic ) ) {
+			throw new IOException( "Not a chunked report." );
+		}
+		final String writerVersion = data.readUTF();
+		final long indexOffset = data.readLong();
+		final ByteArrayOutputStream version = new ByteArrayOutputStream();
+		new DataOutputStream( version ).writeUTF( writerVersion );
+		return new Header( writerVersion, indexOffset, MAGIC.length + version.size() + INDEX_OFFSET_LENGTH );
+	}
+
+	/**
+	 * Reads all frames following the header up to the committed index. A report without end and index is read up to
+	 * its last frame.
+	 */
+	static TestReport readReport( final DataInputStream data, final Header header ) throws IOException {
+		final Kryo kryo = kryoPool.borrow();
+		try {
+			return readReport( kryo, data, header );
+		} finally {
+			kryoPool.release( kryo );
+		}
+	}
+
+	private static TestReport readReport( final Kryo kryo, final DataInputStream data, final Header header )
+			throws IOException {
+		final CountingInputStream counting = new CountingInputStream( data );
+		final DataInputStream frames = new DataInputStream( counting );
+		final Map<String, SuiteReplayResult> suites = new HashMap<>();
+		TestReport report = null;
+		SuiteReplayResult suite = null;
+		for ( int kind = frames.read(); kind != -1; kind = frames.read() ) {
+			if ( kind == END ) {
+				final long indexOffset = header.getLength() + counting.getByteCount();
+				if ( header.getIndexOffset() == 0 || indexOffset >= header.getIndexOffset() ) {
+					break;
+				}
+				// Index of an earlier append, followed by further frames.
+				skipIndex( frames );
+				continue;
+			}
+			final Object object = readFrame( kryo, frames );
+			if ( kind == REPORT ) {
+				report = (TestReport) object;
+			} else if ( kind == SUITE && report != null ) {
+				suite = merge( report, suites, (SuiteReplayResult) object );
+			} else if ( kind == TEST && suite != null ) {
+				suite.addTest( (TestReplayResult) object );
+			} else {
+				throw new IOException( "Unexpected frame of kind " + kind + " in chunked report." );
+			}
+		}
+		if ( report == null ) {
+			throw new IOException( "Chunked report does not contain a report frame." );
+		}
+		return report;
+	}
+
+	/**
+	 * @return the already read suite with the same UUID as the given one, which was appended again, otherwise the given
+	 *         suite, which is added to the report
+	 */
+	private static SuiteReplayResult merge( final TestReport report, final Map<String, SuiteReplayResult> suites,
+			final SuiteReplayResult suite ) {
+		final SuiteReplayResult known = suite.getSuiteUuid() == null ? null : suites.get( suite.getSuiteUuid() );
+		if ( known != null ) {
+			return known;
+		}
+		if ( suite.getSuiteUuid() != null ) {
+			suites.put( suite.getSuiteUuid(), suite );
+		}
+		report.addSuite( suite );
+		return suite;
+	}
+
+	private static void skipIndex( final DataInputStream data ) throws IOException {
+		data.readLong();
+		final int suiteCount = data.readInt();
+		for ( int suiteIdx = 0; suiteIdx < suiteCount; suiteIdx++ ) {
+			data.readLong();
+			final int testCount = data.readInt();
+			for ( int testIdx = 0; testIdx < testCount; testIdx++ ) {
+				data.readLong();
+			}
+		}
+		data.readLong();
+	}
+
+	/**
+	 * Reads the frame following the already read kind.
+	 */
+	static Object readFrame( final Kryo kryo, final DataInputStream data ) throws IOException {
+		final byte[] bytes = new byte[data.readInt()];
+		data.readFully( bytes );
+		try ( Input input = new Input( new LZ4FrameInputStream( new ByteArrayInputStream( bytes ) ) ) ) {
+			return kryo.readClassAndObject( input );
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package de.retest.recheck.persistence.bin;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.esotericsoftware.kryo.Kryo;
+
+import de.retest.recheck.persistence.IncompatibleReportVersionException;
+import de.retest.recheck.report.SuiteReplayResult;
+import de.retest.recheck.report.TestReplayResult;
+import de.retest.recheck.report.TestReport;
+import de.retest.recheck.util.VersionProvider;
+
+/**
+ * Reads a report written in the chunked format (see {@link KryoPersistence#KryoPersistence(boolean)}) without loading
+ * it completely: Suites and tests are only read when requested, by seeking to their position in the file.
+ *
+ * Instances are not thread-safe.
+ */
+public class ChunkedReportReader implements Closeable {
+
+	private final Path path;
+	private final FileChannel channel;
+	private final DataInputStream data;
+	private final Kryo kryo = ChunkedReportFormat.kryoPool.borrow();
+
+	private final String writerVersion;
+	private final long reportOffset;
+	private final long[] suiteOffsets;
+	private final long[][] testOffsets;
+
+	private ChunkedReportReader( final Path path, final FileChannel channel ) throws IOException {
+		this.path = path;
+		this.channel = channel;
+		data = new DataInputStream( Channels.newInputStream( channel ) );
+
+		final ChunkedReportFormat.Header header = ChunkedReportFormat.readHeader( data );
+		writerVersion = header.getWriterVersion();
+
+		if ( header.getIndexOffset() != 0 ) {
+			// Appended, possibly further frames not yet committed.
+			channel.position( header.getIndexOffset() );
+		} else {
+			channel.position( channel.size() - ChunkedReportFormat.INDEX_OFFSET_LENGTH );
+			channel.position( data.readLong() );
+		}
+		reportOffset = data.readLong();
+		suiteOffsets = new long[data.readInt()];
+		testOffsets = new long[suiteOffsets.length][];
+		for ( int suiteIdx = 0; suiteIdx < suiteOffsets.length; suiteIdx++ ) {
+			suiteOffsets[suiteIdx] = data.readLong();
+			testOffsets[suiteIdx] = new long[data.readInt()];
+			for ( int testIdx = 0; testIdx < testOffsets[suiteIdx].length; testIdx++ ) {
+				testOffsets[suiteIdx][testIdx] = data.readLong();
+			}
+		}
+	}
+
+	/**
+	 * @param path
+	 *            the chunked report to read
+	 * @return a reader for the given report, which has to be closed
+	 * @throws IOException
+	 *             if the file is not a chunked report or cannot be read
+	 */
+	public static ChunkedReportReader open( final Path path ) throws IOException {
+		final FileChannel channel = FileChannel.open( path, StandardOpenOption.READ );
+		try {
+			final ChunkedReportReader reader = new ChunkedReportReader( path, channel );
+			reader.checkCompatibility();
+			return reader;
+		} catch ( final IOException | RuntimeException e ) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private void checkCompatibility() throws IOException {
+		final TestReport report;
+		try {
+			report = readReportWithoutSuites();
+		} catch ( final RuntimeException e ) {
+			throw new IncompatibleReportVersionException( writerVersion, VersionProvider.RECHECK_VERSION,
+					path.toUri(), e );
+		}
+		if ( report.version() < TestReport.PERSISTENCE_VERSION ) {
+			throw new IncompatibleReportVersionException( writerVersion, VersionProvider.RECHECK_VERSION,
+					path.toUri() );
+		}
+	}
+
+	public String getWriterVersion() {
+		return writerVersion;
+	}
+
+	public int getNumberOfSuites() {
+		return suiteOffsets.length;
+	}
+
+	public int getNumberOfTests( final int suiteIdx ) {
+		return testOffsets[suiteIdx].length;
+	}
+
+	/**
+	 * @return the report without any suites
+	 */
+	public TestReport readReportWithoutSuites() throws IOException {
+		return (TestReport) readFrame( reportOffset, ChunkedReportFormat.REPORT );
+	}
+
+	/**
+	 * @param suiteIdx
+	 *            index of the suite within the report
+	 * @return the suite without any tests
+	 */
+	public SuiteReplayResult readSuiteWithoutTests( final int suiteIdx ) throws IOException {
+		return (SuiteReplayResult) readFrame( suiteOffsets[suiteIdx], ChunkedReportFormat.SUITE );
+	}
+
+	/**
+	 * @param suiteIdx
+	 *            index of the suite within the report
+	 * @param testIdx
+	 *            index of the test within the suite
+	 * @return the test, without reading any other test
+	 */
+	public TestReplayResult readTest( final int suiteIdx, final int testIdx ) throws IOException {
+		return (TestReplayResult) readFrame( testOffsets[suiteIdx][testIdx], ChunkedReportFormat.TEST );
+	}
+
+	/**
+	 * @param suiteIdx
+	 *            index of the suite within the report
+	 * @return the tests of the suite, each read only when consumed
+	 */
+	public Stream<TestReplayResult> readTests( final int suiteIdx ) {
+		return IntStream.range( 0, getNumberOfTests( suiteIdx ) ).mapToObj( testIdx -> {
+			try {
+				return readTest( suiteIdx, testIdx );
+			} catch ( final IOException e ) {
+				throw new UncheckedIOException( e );
+			}
+		} );
+	}
+
+	/**
+	 * @return the complete report with all suites and tests
+	 */
+	public TestReport readReport() throws IOException {
+		final TestReport report = readReportWithoutSuites();
+		for ( int suiteIdx = 0; suiteIdx < suiteOffsets.length; suiteIdx++ ) {
+			final SuiteReplayResult suite = readSuiteWithoutTests( suiteIdx );
+			for ( int testIdx = 0; testIdx < testOffsets[suiteIdx].length; testIdx++ ) {
+				suite.addTest( readTest( suiteIdx, testIdx ) );
+			}
+			report.addSuite( suite );
+		}
+		return report;
+	}
+
+	private Object readFrame( final long offset, final byte expectedKind ) throws IOException {
+		channel.position( offset );
+		final byte kind = data.readByte();
+		if ( kind != expectedKind ) {
+			throw new IOException( "Expected frame of kind " + expectedKind + " at offset " + offset + ", but found "
+					+ kind + " in '" + path + "'." );
+		}
+		return ChunkedReportFormat.readFrame( kryo, data );
+	}
+
+	@Override
+	public void close() throws IOException {
+		ChunkedReportFormat.kryoPool.release( kryo );
+		channel.close();
+	}
+}
@@ -3,6 +3,8 @@ package de.retest.recheck.persistence.bin;
 import static java.nio.file.Files.newInputStream;
 import static java.nio.file.Files.newOutputStream;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -23,6 +25,7 @@ import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Registration;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.pool.KryoPool;
 import com.google.common.collect.TreeMultiset;
 
 import de.javakaffee.kryoserializers.UnmodifiableCollectionsSerializer;
@@ -52,11 +55,24 @@ public class KryoPersistence<T extends Persistable> implements Persistence<T> {
 		return map;
 	}
 
-	private final Kryo kryo;
+	private static final KryoPool kryoPool =
+			new KryoPool.Builder( KryoPersistence::createKryo ).softReferences().build();
+
+	private final KryoPool kryos;
 	private final String version;
+	private final boolean chunkedReports;
 
 	public KryoPersistence() {
-		this( createKryo(), VersionProvider.RECHECK_VERSION );
+		this( false );
+	}
+
+	/**
+	 * @param chunkedReports
+	 *            if {@link TestReport}s should be written in a chunked format, that allows to read single tests without
+	 *            loading the whole report (see {@link ChunkedReportReader}). Loading detects the format automatically.
+	 */
+	public KryoPersistence( final boolean chunkedReports ) {
+		this( kryoPool, VersionProvider.RECHECK_VERSION, chunkedReports );
 	}
 
 	/**
@@ -68,11 +84,16 @@ public class KryoPersistence<T extends Persistable> implements Persistence<T> {
 	 *            recheck version to use.
 	 */
 	KryoPersistence( final Kryo kryo, final String version ) {
-		this.kryo = kryo;
+		this( new KryoPool.Builder( () -> kryo ).build(), version, false );
+	}
+
+	private KryoPersistence( final KryoPool kryos, final String version, final boolean chunkedReports ) {
+		this.kryos = kryos;
 		this.version = version;
+		this.chunkedReports = chunkedReports;
 	}
 
-	private static Kryo createKryo() {
+	static Kryo createKryo() {
 		final Kryo kryo = new Kryo();
 
 		kryo.setInstantiatorStrategy( new Kryo.DefaultInstantiatorStrategy( new StdInstantiatorStrategy() ) );
@@ -82,6 +103,8 @@ public class KryoPersistence<T extends Persistable> implements Persistence<T> {
 
 		UnmodifiableCollectionsSerializer.registerSerializers( kryo );
 
+		KryoRegistration.register( kryo );
+
 		return kryo;
 	}
 
@@ -104,9 +127,16 @@ public class KryoPersistence<T extends Persistable> implements Persistence<T> {
 	}
 
 	public void save( final OutputStream outputStream, final T element ) throws IOException {
+		if ( chunkedReports && element instanceof TestReport ) {
+			ChunkedReportFormat.write( outputStream, version, (TestReport) element );
+			return;
+		}
+		final Kryo kryo = kryos.borrow();
 		try ( Output output = new Output( new LZ4FrameOutputStream( outputStream ) ) ) {
 			output.writeString( version );
 			kryo.writeClassAndObject( output, element );
+		} finally {
+			kryos.release( kryo );
 		}
 	}
 
@@ -118,10 +148,25 @@ public class KryoPersistence<T extends Persistable> implements Persistence<T> {
 
 	@SuppressWarnings( "unchecked" )
 	public T load( final InputStream in, final URI identifier ) throws IOException {
+		final InputStream buffered = new BufferedInputStream( in );
 		String writerVersion = null;
-		try ( Input input = new Input( new LZ4FrameInputStream( in ) ) ) {
-			writerVersion = input.readString();
-			final T persistable = (T) kryo.readClassAndObject( input );
+		try ( InputStream closeable = buffered ) {
+			final T persistable;
+			if ( ChunkedReportFormat.isChunkedReport( buffered ) ) {
+				final DataInputStream data = new DataInputStream( buffered );
+				final ChunkedReportFormat.Header header = ChunkedReportFormat.readHeader( data );
+				writerVersion = header.getWriterVersion();
+				persistable = (T) ChunkedReportFormat.readReport( data, header );
+			} else {
+				final Input input = new Input( new LZ4FrameInputStream( buffered ) );
+				writerVersion = input.readString();
+				final Kryo kryo = kryos.borrow();
+				try {
+					persistable = (T) kryo.readClassAndObject( input );
+				} finally {
+					kryos.release( kryo );
+				}
+			}
 			if ( !isCompatible( persistable ) ) {
 				throw new IncompatibleReportVersionException( writerVersion, version, identifier );
 			}
@@ -0,0 +1,141 @@
+package de.retest.recheck.persistence.bin;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.esotericsoftware.kryo.Kryo;
+
+import de.retest.recheck.report.ActionReplayResult;
+import de.retest.recheck.report.SuiteReplayResult;
+import de.retest.recheck.report.TestReplayResult;
+import de.retest.recheck.report.TestReport;
+import de.retest.recheck.ui.Path;
+import de.retest.recheck.ui.PathElement;
+import de.retest.recheck.ui.descriptors.AdditionalAttributeDifference;
+import de.retest.recheck.ui.descriptors.Attributes;
+import de.retest.recheck.ui.descriptors.CodeLocAttribute;
+import de.retest.recheck.ui.descriptors.ContextAttribute;
+import de.retest.recheck.ui.descriptors.DefaultAttribute;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.GroundState;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.OutlineAttribute;
+import de.retest.recheck.ui.descriptors.ParseStringAttributeDifference;
+import de.retest.recheck.ui.descriptors.PathAttribute;
+import de.retest.recheck.ui.descriptors.RootElement;
+import de.retest.recheck.ui.descriptors.ScreenshotAttributeDifference;
+import de.retest.recheck.ui.descriptors.StringAttribute;
+import de.retest.recheck.ui.descriptors.SuffixAttribute;
+import de.retest.recheck.ui.descriptors.SutState;
+import de.retest.recheck.ui.descriptors.TextAttribute;
+import de.retest.recheck.ui.descriptors.VariableNameAttributeDifference;
+import de.retest.recheck.ui.descriptors.WeightedTextAttribute;
+import de.retest.recheck.ui.diff.AttributeDifference;
+import de.retest.recheck.ui.diff.AttributesDifference;
+import de.retest.recheck.ui.diff.ElementDifference;
+import de.retest.recheck.ui.diff.ElementIdentificationWarning;
+import de.retest.recheck.ui.diff.IdentifyingAttributesDifference;
+import de.retest.recheck.ui.diff.InsertedDeletedElementDifference;
+import de.retest.recheck.ui.diff.RootElementDifference;
+import de.retest.recheck.ui.diff.StateDifference;
+import de.retest.recheck.ui.diff.meta.MetadataDifference;
+import de.retest.recheck.ui.diff.meta.MetadataElementDifference;
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.review.GoldenMasterSource;
+
+/**
+ * Registers the classes commonly contained in reports with fixed IDs, so that Kryo writes a small ID instead of the
+ * fully qualified class name for each object. Classes not registered here are still written by name.
+ *
+ * The IDs are part of the persisted format, so the table is versioned: Each version registers its classes in a method
+ * of its own, which must not be changed once released. To register further classes, add a method for the next
+ * {@link #VERSION} with new IDs, call it after the ones of the previous versions and increase
+ * {@link de.retest.recheck.report.TestReport#PERSISTENCE_VERSION}, so that older versions reject the reports by their
+ * version instead of failing on unknown IDs. Reports written with an older table can still be read, since their classes
+ * are either written by name or with an unchanged ID.
+ */
+final class KryoRegistration {
+
+	/**
+	 * Keeps clear of the IDs Kryo uses for primitives, strings and the serializers registered on top.
+	 */
+	private static final int FIRST_ID = 100;
+
+	/**
+	 * The current version of the table, introduced along with TestReport version 24.
+	 */
+	static final int VERSION = 1;
+
+	private KryoRegistration() {}
+
+	static void register( final Kryo kryo ) {
+		registerVersion1( kryo );
+	}
+
+	private static void registerVersion1( final Kryo kryo ) {
+		// Java classes
+		kryo.register( ArrayList.class, FIRST_ID );
+		kryo.register( HashMap.class, FIRST_ID + 1 );
+		kryo.register( HashSet.class, FIRST_ID + 2 );
+		kryo.register( LinkedHashMap.class, FIRST_ID + 3 );
+		kryo.register( LinkedHashSet.class, FIRST_ID + 4 );
+		kryo.register( TreeMap.class, FIRST_ID + 5 );
+		kryo.register( TreeSet.class, FIRST_ID + 6 );
+		kryo.register( Date.class, FIRST_ID + 7 );
+		kryo.register( Rectangle.class, FIRST_ID + 8 );
+		kryo.register( byte[].class, FIRST_ID + 9 );
+
+		// Report
+		kryo.register( TestReport.class, FIRST_ID + 20 );
+		kryo.register( SuiteReplayResult.class, FIRST_ID + 21 );
+		kryo.register( TestReplayResult.class, FIRST_ID + 22 );
+		kryo.register( ActionReplayResult.class, FIRST_ID + 23 );
+		kryo.register( GoldenMasterSource.class, FIRST_ID + 24 );
+		kryo.register( GroundState.class, FIRST_ID + 25 );
+		kryo.register( SutState.class, FIRST_ID + 26 );
+
+		// Elements
+		kryo.register( Element.class, FIRST_ID + 40 );
+		kryo.register( RootElement.class, FIRST_ID + 41 );
+		kryo.register( IdentifyingAttributes.class, FIRST_ID + 42 );
+		kryo.register( Attributes.class, FIRST_ID + 43 );
+		kryo.register( Path.class, FIRST_ID + 44 );
+		kryo.register( PathElement.class, FIRST_ID + 45 );
+		kryo.register( Screenshot.class, new ScreenshotSerializer( kryo ), FIRST_ID + 46 );
+		kryo.register( Screenshot.ImageType.class, FIRST_ID + 47 );
+
+		// Attributes
+		kryo.register( StringAttribute.class, FIRST_ID + 60 );
+		kryo.register( TextAttribute.class, FIRST_ID + 61 );
+		kryo.register( WeightedTextAttribute.class, FIRST_ID + 62 );
+		kryo.register( CodeLocAttribute.class, FIRST_ID + 63 );
+		kryo.register( ContextAttribute.class, FIRST_ID + 64 );
+		kryo.register( SuffixAttribute.class, FIRST_ID + 65 );
+		kryo.register( PathAttribute.class, FIRST_ID + 66 );
+		kryo.register( OutlineAttribute.class, FIRST_ID + 67 );
+		kryo.register( DefaultAttribute.class, FIRST_ID + 68 );
+
+		// Differences
+		kryo.register( StateDifference.class, FIRST_ID + 80 );
+		kryo.register( RootElementDifference.class, FIRST_ID + 81 );
+		kryo.register( ElementDifference.class, FIRST_ID + 82 );
+		kryo.register( AttributesDifference.class, FIRST_ID + 83 );
+		kryo.register( IdentifyingAttributesDifference.class, FIRST_ID + 84 );
+		kryo.register( InsertedDeletedElementDifference.class, FIRST_ID + 85 );
+		kryo.register( AttributeDifference.class, FIRST_ID + 86 );
+		kryo.register( AdditionalAttributeDifference.class, FIRST_ID + 87 );
+		kryo.register( ParseStringAttributeDifference.class, FIRST_ID + 88 );
+		kryo.register( ScreenshotAttributeDifference.class, FIRST_ID + 89 );
+		kryo.register( VariableNameAttributeDifference.class, FIRST_ID + 90 );
+		kryo.register( ElementIdentificationWarning.class, FIRST_ID + 91 );
+		kryo.register( MetadataDifference.class, FIRST_ID + 92 );
+		kryo.register( MetadataElementDifference.class, FIRST_ID + 93 );
+	}
+}
@@ -0,0 +1,28 @@
+package de.retest.recheck.persistence.bin;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.FieldSerializer;
+
+import de.retest.recheck.ui.image.Screenshot;
+
+/**
+ * Writes the same fields as the default {@link FieldSerializer}, but with the binary data of screenshots that are
+ * loaded on demand (see {@link Screenshot#setBinaryDataSource(Screenshot.BinaryDataSource, String)}).
+ */
+class ScreenshotSerializer extends FieldSerializer<Screenshot> {
+
+	ScreenshotSerializer( final Kryo kryo ) {
+		super( kryo, Screenshot.class );
+	}
+
+	@Override
+	public void write( final Kryo kryo, final Output output, final Screenshot screenshot ) {
+		final byte[] binaryData = screenshot.getBinaryData();
+		if ( binaryData == null || screenshot.getType() == null ) {
+			super.write( kryo, output, screenshot );
+			return;
+		}
+		super.write( kryo, output, new Screenshot( screenshot.getPersistenceId(), binaryData, screenshot.getType() ) );
+	}
+}
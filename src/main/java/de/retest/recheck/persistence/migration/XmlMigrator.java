@@ -1,6 +1,5 @@
 package de.retest.recheck.persistence.migration;
 
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
@@ -8,6 +7,7 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.persistence.xml.util.XmlVersionCheckResult;
 import de.retest.recheck.util.NamedBufferedInputStream;
 import de.retest.recheck.util.ThreadUtil;
@@ -22,17 +22,20 @@ public class XmlMigrator {
 			final NamedBufferedInputStream bin ) {
 
 		final XmlMigratorInstances migrator = XmlMigratorInstances.get( checkResult.oldDataType );
-		InputStream finalInputStream = bin;
-
 		if ( migrator != null ) {
 			if ( !ThreadUtil.stackTraceContainsClass( "de.retest.migration.TestMigrator" )
 					&& !ThreadUtil.stackTraceContainsClass( "de.retest.TestMigrator" ) ) {
 				logger.warn( "********************************************************************************" );
 				logger.warn( "ReTest detected an old version of the file '{}'.", bin.getName() );
-				logger.warn(
-						"ReTest migrates the file now, but will discard the results to avoid VCS file conflicts." );
-				logger.warn(
-						"It is very recommended to locally convert the file and commit it to speed up execution!" );
+				if ( RecheckProperties.getInstance().persistMigratedXml() ) {
+					logger.warn( "ReTest migrates the file now and persists the results." );
+					logger.warn( "Commit the migrated file to avoid VCS file conflicts." );
+				} else {
+					logger.warn(
+							"ReTest migrates the file now, but will discard the results to avoid VCS file conflicts." );
+					logger.warn(
+							"It is very recommended to locally convert the file and commit it to speed up execution!" );
+				}
 				logger.warn( "********************************************************************************" );
 			}
 
@@ -45,26 +48,14 @@ public class XmlMigrator {
 					Integer.toString( checkResult.newDataTypeInstance.version() ) ) );
 			transformers.addAll( migrator.getXmlTransformersFor( checkResult.oldVersion ) );
 
-			for ( int i = 0; i < transformers.size(); i++ ) {
-				final boolean notFinalInputStream = i < transformers.size() - 1;
-				final InputStream previousInputStream = finalInputStream;
-				finalInputStream = transformers.get( i ).transform( finalInputStream );
-
-				if ( notFinalInputStream ) {
-					try {
-						previousInputStream.close();
-					} catch ( final IOException e ) {
-						logger.error( "Error closing previous input stream during migration.", e );
-					}
-				}
-			}
+			final InputStream migratedInputStream = XmlTransformer.transform( bin, transformers );
 
 			logger.info( "Migrated file '{}' from version {} to version {}.", bin.getName(), checkResult.oldVersion,
 					checkResult.newDataTypeInstance.version() );
 			//			if debug is enabled, we still don't want an OutOfMemoryError...
 			//			inputStream = writeMigrationResultToLogfile( inputStream );
 
-			return new NamedBufferedInputStream( finalInputStream, bin.getName() );
+			return new NamedBufferedInputStream( migratedInputStream, bin.getName() );
 		}
 		return throwUnableToMigrateException( checkResult );
 	}
@@ -8,8 +8,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 
+import javax.xml.namespace.NamespaceContext;
 import javax.xml.namespace.QName;
 import javax.xml.stream.FactoryConfigurationError;
 import javax.xml.stream.XMLEventFactory;
@@ -37,6 +40,21 @@ public abstract class XmlTransformer {
 	protected final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
 
 	public final InputStream transform( final InputStream inputStream ) {
+		return transform( inputStream, Collections.singletonList( this ) );
+	}
+
+	/**
+	 * Transforms the given XML with all given transformers in a single pass: Each event is pushed through the
+	 * transformers in the given order, so the XML is only read and written once instead of once per transformer.
+	 *
+	 * @param inputStream
+	 *            the XML to transform
+	 * @param transformers
+	 *            the transformers to apply, in order
+	 * @return the transformed XML
+	 */
+	public static InputStream transform( final InputStream inputStream,
+			final List<? extends XmlTransformer> transformers ) {
 		try {
 			// Since these files can become pretty big, storing them in memory might lead to OutOfMemoryErrors.
 			final File tmpFile = File.createTempFile( "retest-migration-", ".xml.lz4" );
@@ -44,27 +62,30 @@ public abstract class XmlTransformer {
 			logger.debug( "Creating temporary file '{}' for XML migration. File will be deleted upon exit.",
 					canonicalPathQuietly( tmpFile ) );
 
-			convertAndWriteToFile( inputStream, tmpFile );
+			convertAndWriteToFile( inputStream, tmpFile, transformers );
 			return new LZ4BlockInputStream( new DeleteOnCloseFileInputStream( tmpFile ) );
 		} catch ( final IOException e ) {
 			throw new RuntimeException( e );
 		}
 	}
 
-	private void convertAndWriteToFile( final InputStream inputStream, final File tmpFile ) throws IOException {
+	private static void convertAndWriteToFile( final InputStream inputStream, final File tmpFile,
+			final List<? extends XmlTransformer> transformers ) throws IOException {
 		try ( final LZ4BlockOutputStream out = new LZ4BlockOutputStream( new FileOutputStream( tmpFile ) ) ) {
-			reset();
+			transformers.forEach( XmlTransformer::reset );
 
 			final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
 			inputFactory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE );
 			final XMLEventReader eventReader =
 					inputFactory.createXMLEventReader( inputStream, StandardCharsets.UTF_8.name() );
-			final XMLEventWriter eventWriter =
+			XMLEventWriter eventWriter =
 					XMLOutputFactory.newInstance().createXMLEventWriter( out, StandardCharsets.UTF_8.name() );
+			for ( int i = transformers.size() - 1; i >= 0; i-- ) {
+				eventWriter = new TransformingEventWriter( transformers.get( i ), eventWriter, i > 0 );
+			}
 
 			while ( eventReader.hasNext() ) {
-				final XMLEvent nextEvent = eventReader.nextEvent();
-				convert( nextEvent, eventWriter );
+				eventWriter.add( eventReader.nextEvent() );
 			}
 			eventReader.close();
 			eventWriter.flush();
@@ -75,6 +96,86 @@ public abstract class XmlTransformer {
 		}
 	}
 
+	/**
+	 * Passes each added event through a transformer into the next writer, which is either the writer of the next
+	 * transformer or the one writing the result.
+	 */
+	private static final class TransformingEventWriter implements XMLEventWriter {
+
+		private final XmlTransformer transformer;
+		private final XMLEventWriter next;
+		private final boolean skipWhitespaceOutsideOfRoot;
+
+		private int depth;
+
+		/**
+		 * @param skipWhitespaceOutsideOfRoot
+		 *            if whitespace before or after the root element (e.g. newlines added by the previous transformer)
+		 *            should be skipped, as it would when reading the output of the previous transformer again
+		 */
+		TransformingEventWriter( final XmlTransformer transformer, final XMLEventWriter next,
+				final boolean skipWhitespaceOutsideOfRoot ) {
+			this.transformer = transformer;
+			this.next = next;
+			this.skipWhitespaceOutsideOfRoot = skipWhitespaceOutsideOfRoot;
+		}
+
+		@Override
+		public void add( final XMLEvent event ) throws XMLStreamException {
+			if ( event.isStartElement() ) {
+				depth++;
+			} else if ( event.isEndElement() ) {
+				depth--;
+			} else if ( skipWhitespaceOutsideOfRoot && depth == 0 && event.isCharacters()
+					&& event.asCharacters().getData().trim().isEmpty() ) {
+				return;
+			}
+			transformer.convert( event, next );
+		}
+
+		@Override
+		public void add( final XMLEventReader reader ) throws XMLStreamException {
+			while ( reader.hasNext() ) {
+				add( reader.nextEvent() );
+			}
+		}
+
+		@Override
+		public void flush() throws XMLStreamException {
+			next.flush();
+		}
+
+		@Override
+		public void close() throws XMLStreamException {
+			next.close();
+		}
+
+		@Override
+		public String getPrefix( final String uri ) throws XMLStreamException {
+			return next.getPrefix( uri );
+		}
+
+		@Override
+		public void setPrefix( final String prefix, final String uri ) throws XMLStreamException {
+			next.setPrefix( prefix, uri );
+		}
+
+		@Override
+		public void setDefaultNamespace( final String uri ) throws XMLStreamException {
+			next.setDefaultNamespace( uri );
+		}
+
+		@Override
+		public void setNamespaceContext( final NamespaceContext context ) throws XMLStreamException {
+			next.setNamespaceContext( context );
+		}
+
+		@Override
+		public NamespaceContext getNamespaceContext() {
+			return next.getNamespaceContext();
+		}
+	}
+
 	protected abstract void reset();
 
 	public abstract void convert( final XMLEvent event, XMLEventWriter eventWriter ) throws XMLStreamException;
@@ -7,6 +7,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -66,17 +67,22 @@ public class XmlFolderPersistence<T extends Persistable> implements Persistence<
 
 		final File xmlFile = new File( baseFolder, xmlFileName );
 
+		final AtomicBoolean migrated = new AtomicBoolean();
 		final ReTestXmlDataContainer<T> container = readFromFile( xmlFile, new Reader<ReTestXmlDataContainer<T>>() {
 			@Override
 			public ReTestXmlDataContainer<T> read( final NamedBufferedInputStream in ) throws IOException {
 				return XmlPersistenceUtil.<T> migrateAndRead( xmlTransformer, in,
-						screenshotPersistence.getUnmarshallListener() );
+						screenshotPersistence.getUnmarshallListener(), () -> migrated.set( true ) );
 			}
 		} );
 
 		if ( container == null ) {
 			return null;
 		}
+		if ( migrated.get() && RecheckProperties.getInstance().persistMigratedXml() ) {
+			logger.info( "Persisting migrated file '{}'.", xmlFile );
+			save( identifier, container.data() );
+		}
 		return container.data();
 	}
 
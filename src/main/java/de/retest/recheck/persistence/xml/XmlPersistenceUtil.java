@@ -4,17 +4,25 @@ import java.io.IOException;
 
 import javax.xml.bind.Unmarshaller.Listener;
 
+import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.persistence.Persistable;
 import de.retest.recheck.persistence.migration.XmlMigrator;
 import de.retest.recheck.persistence.xml.util.XmlVersionCheckResult;
+import de.retest.recheck.ui.descriptors.StreamingSutStateReader;
+import de.retest.recheck.ui.descriptors.SutState;
 import de.retest.recheck.util.NamedBufferedInputStream;
 
 public class XmlPersistenceUtil {
 
 	private XmlPersistenceUtil() {}
 
+	/**
+	 * @param onMigrated
+	 *            called if the XML had to be migrated, e.g. to persist the migrated data
+	 */
 	static <T extends Persistable> ReTestXmlDataContainer<T> migrateAndRead( final XmlTransformer xml,
-			final NamedBufferedInputStream inputStream, final Listener unmarshallListener ) throws IOException {
+			final NamedBufferedInputStream inputStream, final Listener unmarshallListener, final Runnable onMigrated )
+			throws IOException {
 		NamedBufferedInputStream bin = inputStream;
 
 		final XmlVersionCheckResult checkResult = XmlVersionCheckResult.create( bin );
@@ -28,6 +36,14 @@ public class XmlPersistenceUtil {
 			if ( bin == null ) {
 				throw new RuntimeException( "Could not migrate XML." );
 			}
+			onMigrated.run();
+		}
+
+		if ( RecheckProperties.getInstance().streamingXmlReader()
+				&& checkResult.newDataTypeInstance instanceof SutState ) {
+			@SuppressWarnings( "unchecked" )
+			final T data = (T) StreamingSutStateReader.read( bin, unmarshallListener );
+			return new ReTestXmlDataContainer<>( data );
 		}
 
 		return xml.fromXML( bin, unmarshallListener );
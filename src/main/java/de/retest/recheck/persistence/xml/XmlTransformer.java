@@ -4,9 +4,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -24,6 +27,7 @@ import com.google.common.collect.ImmutableMap;
 import de.retest.recheck.persistence.xml.util.SessionLogDelegate;
 import de.retest.recheck.persistence.xml.util.StdXmlClassesProvider;
 import de.retest.recheck.persistence.xml.util.XmlUtil;
+import de.retest.recheck.ui.descriptors.RenderContainedElementsAdapter;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -33,7 +37,10 @@ public class XmlTransformer {
 			.of( "http://www.w3.org/2001/XMLSchema", "xsd", "http://www.w3.org/2001/XMLSchema-instance", "xsi" );
 
 	// TODO Try if this is possible with a marshaller delegate instead?
-	private static final Set<Marshaller> lightweightMarshallerSet = new HashSet<>();
+	// Marshalled concurrently when persisting in the background.
+	private static final Set<Marshaller> lightweightMarshallerSet = ConcurrentHashMap.newKeySet();
+
+	private static final Map<Set<Class<?>>, JAXBContext> contexts = new ConcurrentHashMap<>();
 
 	public static boolean isLightweightMarshaller( final Marshaller m ) {
 		return lightweightMarshallerSet.contains( m );
@@ -61,10 +68,12 @@ public class XmlTransformer {
 
 	public <T> T fromXML( final InputStream in, final Unmarshaller.Listener listener ) {
 		try {
-			final JAXBContext jc = createJAXBContext( additionalClazzes );
+			final JAXBContext jc = getJAXBContext( additionalClazzes );
 			final Unmarshaller unmarshaller = jc.createUnmarshaller();
 			unmarshaller.setEventHandler( new DefaultValidationEventHandler() );
 			unmarshaller.setListener( listener );
+			// The adapter remembers unmarshalled elements, so it must not be shared via the context.
+			unmarshaller.setAdapter( new RenderContainedElementsAdapter() );
 
 			@SuppressWarnings( "unchecked" )
 			final T result = (T) unmarshaller.unmarshal( in );
@@ -78,7 +87,7 @@ public class XmlTransformer {
 	public void toXML( final Object obj, final OutputStream out, final Marshaller.Listener listener ) {
 		Marshaller marshaller = null;
 		try {
-			final JAXBContext jc = createJAXBContext( additionalClazzes );
+			final JAXBContext jc = getJAXBContext( additionalClazzes );
 			marshaller = jc.createMarshaller();
 			marshaller.setProperty( Marshaller.JAXB_FORMATTED_OUTPUT, true );
 			marshaller.setProperty( MarshallerProperties.NAMESPACE_PREFIX_MAPPER,
@@ -128,18 +137,25 @@ public class XmlTransformer {
 	}
 
 	/**
-	 * Use a well-defined JAXB class context, so we don't interfere with some SUT-configured context. Although a context
-	 * <a href=https://stackoverflow.com/a/7400735>"should only be created once and reused"</a>, this fails the
-	 * corresponding test for this class.
+	 * Use a well-defined JAXB class context, so we don't interfere with some SUT-configured context. As a context
+	 * <a href=https://stackoverflow.com/a/7400735>"should only be created once and reused"</a>, it is cached per set of
+	 * bound classes. Stateful adapters must therefore be set per (un)marshaller, otherwise their state is shared between
+	 * different files (see the corresponding test for this class).
 	 *
 	 * @param additionalClazzes
 	 *            Classes to be bound.
-	 * @return A sparkling fresh {@code JAXBContext}.
+	 * @return A {@code JAXBContext} only used by this class.
 	 */
-	private JAXBContext createJAXBContext( final Class<?>... additionalClazzes ) {
+	static JAXBContext getJAXBContext( final Class<?>... additionalClazzes ) {
+		final Set<Class<?>> contextClasses =
+				new HashSet<>( Arrays.asList( StdXmlClassesProvider.getXmlDataClasses( additionalClazzes ) ) );
+		return contexts.computeIfAbsent( contextClasses, XmlTransformer::createJAXBContext );
+	}
+
+	private static JAXBContext createJAXBContext( final Set<Class<?>> contextClasses ) {
 		try {
-			final Class<?>[] contextClasses = StdXmlClassesProvider.getXmlDataClasses( additionalClazzes );
-			return JAXBContextFactory.createContext( contextClasses, Collections.emptyMap() );
+			return JAXBContextFactory.createContext( contextClasses.toArray( new Class<?>[contextClasses.size()] ),
+					Collections.emptyMap() );
 		} catch ( final JAXBException e ) {
 			throw new RuntimeException( e );
 		}
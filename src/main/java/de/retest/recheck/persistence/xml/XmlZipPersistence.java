@@ -8,6 +8,9 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
@@ -50,7 +53,10 @@ public class XmlZipPersistence<T extends Persistable> implements Persistence<T>
 		}
 		FileUtil.ensureFolder( file );
 
-		writeToFile( file, new Writer() {
+		// Lazily loaded screenshots might still be read from the file that is replaced.
+		final boolean lazyScreenshots = RecheckProperties.getInstance().lazyScreenshots();
+		final File target = lazyScreenshots ? new File( file.getPath() + ".tmp" ) : file;
+		writeToFile( target, new Writer() {
 			@Override
 			public void write( final FileOutputStream out ) throws IOException {
 				final ZipOutputStream zout = new ZipOutputStream( out );
@@ -63,6 +69,9 @@ public class XmlZipPersistence<T extends Persistable> implements Persistence<T>
 				zout.close();
 			}
 		} );
+		if ( lazyScreenshots ) {
+			Files.move( target.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+		}
 	}
 
 	@Override
@@ -71,12 +80,14 @@ public class XmlZipPersistence<T extends Persistable> implements Persistence<T>
 
 		final LazyScreenshotZipPersistence screenshotPersistence = new LazyScreenshotZipPersistence();
 
+		final AtomicBoolean migrated = new AtomicBoolean();
 		final ReTestXmlDataContainer<T> container = readFromZipFile( file, new ZipReader<ReTestXmlDataContainer<T>>() {
 			@Override
 			public ReTestXmlDataContainer<T> read( final ZipFile zipFile ) throws IOException {
 
 				final ReTestXmlDataContainer<T> result = XmlPersistenceUtil.migrateAndRead( xml,
-						getReTestXmlInStream( zipFile ), screenshotPersistence.getUnmarshallListener() );
+						getReTestXmlInStream( zipFile ), screenshotPersistence.getUnmarshallListener(),
+						() -> migrated.set( true ) );
 
 				logger.debug( "XML loaded from file '{}', now loading screenshots.", identifier );
 				screenshotPersistence.loadScreenshotsNow( zipFile );
@@ -88,6 +99,10 @@ public class XmlZipPersistence<T extends Persistable> implements Persistence<T>
 		if ( container == null ) {
 			return null;
 		}
+		if ( migrated.get() && RecheckProperties.getInstance().persistMigratedXml() ) {
+			logger.info( "Persisting migrated file '{}'.", file );
+			save( identifier, container.data() );
+		}
 		return container.data();
 	}
 
@@ -6,8 +6,9 @@ import static de.retest.recheck.RecheckProperties.ZIP_FOLDER_SEPARATOR;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -23,7 +24,9 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 
+import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.util.ChecksumCalculator;
 import de.retest.recheck.util.ReflectionUtilities;
 
 public class LazyScreenshotZipPersistence {
@@ -46,13 +49,12 @@ public class LazyScreenshotZipPersistence {
 	}
 
 	public void saveScreenshotsNow( final ZipOutputStream zout ) {
-		final List<String> beforePersistedIds = new ArrayList<>();
+		final Set<String> beforePersistedIds = new HashSet<>();
 		for ( final Screenshot screenshot : screenshots ) {
-			if ( beforePersistedIds.contains( screenshot.getPersistenceId() ) ) {
-				logger.debug( "Image already persisted (duplicate): {}", screenshot.getPersistenceId() );
-			} else {
+			if ( beforePersistedIds.add( screenshot.getPersistenceId() ) ) {
 				saveScreenshot( zout, screenshot );
-				beforePersistedIds.add( screenshot.getPersistenceId() );
+			} else {
+				logger.debug( "Image already persisted (duplicate): {}", screenshot.getPersistenceId() );
 			}
 		}
 	}
@@ -83,10 +85,17 @@ public class LazyScreenshotZipPersistence {
 	}
 
 	public void loadScreenshotsNow( final ZipFile zipFile ) throws IOException {
+		final boolean lazy = RecheckProperties.getInstance().lazyScreenshots();
+		final SharedZipFile sharedZipFile = lazy ? new SharedZipFile( new File( zipFile.getName() ) ) : null;
 		for ( final Screenshot screenshot : screenshots ) {
 			final String path = createFilePath( screenshot );
 			try {
 				final ZipEntry entry = zipFile.getEntry( path );
+				if ( lazy && entry != null ) {
+					final String sha256 = ChecksumCalculator.getInstance().sha256( zipFile.getInputStream( entry ) );
+					screenshot.setBinaryDataSource( () -> sharedZipFile.load( path ), sha256 );
+					continue;
+				}
 				final InputStream in = zipFile.getInputStream( entry );
 				screenshot.setBinaryData( IOUtils.toByteArray( in ) );
 			} catch ( final Exception exc ) {
@@ -98,6 +107,33 @@ public class LazyScreenshotZipPersistence {
 		}
 	}
 
+	/**
+	 * The zip file of a golden master, opened once for all of its screenshots loaded on demand. It is closed when it is
+	 * garbage collected along with the last of these screenshots.
+	 */
+	private static final class SharedZipFile {
+
+		private final File file;
+		private ZipFile zipFile;
+
+		SharedZipFile( final File file ) {
+			this.file = file;
+		}
+
+		synchronized byte[] load( final String path ) throws IOException {
+			if ( zipFile == null ) {
+				zipFile = new ZipFile( file );
+			}
+			final ZipEntry entry = zipFile.getEntry( path );
+			if ( entry == null ) {
+				throw new IOException( "Screenshot '" + path + "' not found in " + file + "." );
+			}
+			try ( InputStream in = zipFile.getInputStream( entry ) ) {
+				return IOUtils.toByteArray( in );
+			}
+		}
+	}
+
 	protected static String createFilePath( final Screenshot screenshot ) {
 		return SCREENSHOT_FOLDER_NAME + ZIP_FOLDER_SEPARATOR + new File( screenshot.getPersistenceId() ).getName() + "."
 				+ screenshot.getType().getFileExtension();
@@ -2,11 +2,10 @@ package de.retest.recheck.persistence.xml.util;
 
 import static de.retest.recheck.RecheckProperties.SCREENSHOT_FOLDER_NAME;
 import static de.retest.recheck.util.FileUtil.tryReadFromFile;
-import static de.retest.recheck.util.FileUtil.tryWriteToFile;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,15 +13,19 @@ import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 
 import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.ui.image.Screenshot;
 import de.retest.recheck.util.FileUtil.Reader;
-import de.retest.recheck.util.FileUtil.Writer;
 import de.retest.recheck.util.NamedBufferedInputStream;
 import de.retest.recheck.util.ReflectionUtilities;
 
 public class ScreenshotFolderPersistence {
 
+	private static final Logger logger = LoggerFactory.getLogger( ScreenshotFolderPersistence.class );
+
 	private final File screenshotFolder;
 	boolean prepared;
 
@@ -61,12 +64,11 @@ public class ScreenshotFolderPersistence {
 	private void saveScreenshot( final Screenshot screenshot ) {
 		final File file = new File( screenshotFolder, createFileName( screenshot ) );
 
-		tryWriteToFile( file, new Writer() {
-			@Override
-			public void write( final FileOutputStream out ) throws IOException {
-				out.write( screenshot.getBinaryData() );
-			}
-		} );
+		try {
+			ScreenshotStore.getInstance().save( file, screenshot );
+		} catch ( final IOException e ) {
+			logger.error( "Error writing to file '{}', ignoring: {}", file, e.getMessage() );
+		}
 	}
 
 	public Unmarshaller.Listener getUnmarshallListener() {
@@ -94,9 +96,28 @@ public class ScreenshotFolderPersistence {
 	private boolean loadScreenshot( final Screenshot screenshot ) {
 		final File file = new File( screenshotFolder, createFileName( screenshot ) );
 
+		if ( RecheckProperties.getInstance().lazyScreenshots() ) {
+			if ( !file.isFile() ) {
+				screenshot.setBinaryData( null );
+				return false;
+			}
+			try {
+				screenshot.setBinaryDataSource( () -> Files.readAllBytes( file.toPath() ),
+						ScreenshotStore.getInstance().sha256( file ) );
+				return true;
+			} catch ( final IOException e ) {
+				logger.warn( "Could not read screenshot '{}', ignoring: {}", file, e.getMessage() );
+				screenshot.setBinaryData( null );
+				return false;
+			}
+		}
+
 		final byte[] binaryData = tryReadFromFile( file, new ToByteArrayReader() );
 
 		screenshot.setBinaryData( binaryData );
+		if ( binaryData != null ) {
+			ScreenshotStore.getInstance().loaded( file, screenshot );
+		}
 		return binaryData != null;
 	}
 }
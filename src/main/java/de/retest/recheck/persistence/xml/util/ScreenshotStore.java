@@ -0,0 +1,214 @@
+package de.retest.recheck.persistence.xml.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.Striped;
+
+import de.retest.recheck.RecheckProperties;
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.util.ChecksumCalculator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content-addressed index of the screenshot files saved and loaded by this JVM, keyed by the SHA-256 of the
+ * screenshots. It is shared by all golden masters, so that saving a screenshot
+ *
+ * <ul>
+ * <li>is skipped if the file already has the same content,</li>
+ * <li>hard links the file to an identical screenshot of another golden master, if
+ * {@link RecheckProperties#hardLinkScreenshots()} is enabled.</li>
+ * </ul>
+ *
+ * The files referencing a SHA-256 are counted, so that a blob is available as long as any file still has its content.
+ * As hard linked files share their content, files are always replaced instead of overwritten.
+ *
+ * Only the most recently used files are remembered, forgotten files are compared with their content again. Saving
+ * locks the file only, so that different files are saved concurrently.
+ */
+@Slf4j
+public class ScreenshotStore {
+
+	private static final ScreenshotStore instance = new ScreenshotStore();
+
+	public static ScreenshotStore getInstance() {
+		return instance;
+	}
+
+	private static final long MAX_REMEMBERED_FILES = 10_000;
+
+	private final Striped<Lock> locks = Striped.lock( 64 );
+	private final Map<String, Set<Path>> references = new ConcurrentHashMap<>();
+	private final Cache<Path, String> contents;
+
+	ScreenshotStore() {
+		this( MAX_REMEMBERED_FILES );
+	}
+
+	ScreenshotStore( final long maximumSize ) {
+		contents = CacheBuilder.newBuilder() //
+				.maximumSize( maximumSize ) //
+				.removalListener( ( final RemovalNotification<Path, String> removed ) -> unreference(
+						removed.getKey(), removed.getValue() ) ) //
+				.build();
+	}
+
+	/**
+	 * @param file
+	 *            the file to save the screenshot to
+	 * @param screenshot
+	 *            the screenshot to save
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public void save( final File file, final Screenshot screenshot ) throws IOException {
+		final Path path = normalize( file );
+		final Lock lock = locks.get( path );
+		lock.lock();
+		try {
+			save( path, screenshot );
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void save( final Path path, final Screenshot screenshot ) throws IOException {
+		final String sha256 = screenshot.getSha256();
+		if ( isUnchanged( path, sha256, screenshot.getBinaryData() ) ) {
+			log.debug( "Screenshot '{}' is unchanged, skipping.", path );
+			reference( path, sha256 );
+			return;
+		}
+		Files.createDirectories( path.getParent() );
+		Files.deleteIfExists( path );
+		final Path blob = RecheckProperties.getInstance().hardLinkScreenshots() ? findBlob( sha256 ) : null;
+		if ( blob == null || !link( path, blob ) ) {
+			Files.write( path, screenshot.getBinaryData() );
+		}
+		reference( path, sha256 );
+	}
+
+	/**
+	 * Remembers the content of a screenshot file that was loaded, so that saving it again can be skipped.
+	 *
+	 * @param file
+	 *            the file the screenshot was loaded from
+	 * @param screenshot
+	 *            the loaded screenshot
+	 */
+	public void loaded( final File file, final Screenshot screenshot ) {
+		final Path path = normalize( file );
+		final Lock lock = locks.get( path );
+		lock.lock();
+		try {
+			reference( path, screenshot.getSha256() );
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the SHA-256 of a screenshot file to be loaded on demand, without keeping its content. The file is only
+	 * read if its content is not remembered already.
+	 *
+	 * @param file
+	 *            the file the screenshot is loaded from
+	 * @return the SHA-256 of the file
+	 * @throws IOException
+	 *             if the file cannot be read
+	 */
+	public String sha256( final File file ) throws IOException {
+		final Path path = normalize( file );
+		final Lock lock = locks.get( path );
+		lock.lock();
+		try {
+			final String content = contents.getIfPresent( path );
+			if ( content != null && Files.isRegularFile( path ) ) {
+				return content;
+			}
+			try ( InputStream in = Files.newInputStream( path ) ) {
+				final String sha256 = ChecksumCalculator.getInstance().sha256( in );
+				reference( path, sha256 );
+				return sha256;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of files with the content of the given SHA-256
+	 */
+	int getReferenceCount( final String sha256 ) {
+		final Set<Path> paths = references.get( sha256 );
+		return paths == null ? 0 : paths.size();
+	}
+
+	private boolean isUnchanged( final Path path, final String sha256, final byte[] binaryData ) throws IOException {
+		if ( !Files.isRegularFile( path ) ) {
+			return false;
+		}
+		final String content = contents.getIfPresent( path );
+		if ( content != null ) {
+			return sha256.equals( content );
+		}
+		// Written by an earlier run, comparing is cheaper than writing and keeps the file untouched.
+		return Files.size( path ) == binaryData.length && Arrays.equals( Files.readAllBytes( path ), binaryData );
+	}
+
+	private Path findBlob( final String sha256 ) {
+		final Set<Path> paths = references.getOrDefault( sha256, Collections.emptySet() );
+		for ( final Path path : new ArrayList<>( paths ) ) {
+			if ( Files.isRegularFile( path ) ) {
+				return path;
+			}
+			// Deleted meanwhile, e.g. when a golden master was removed.
+			contents.invalidate( path );
+		}
+		return null;
+	}
+
+	private static boolean link( final Path path, final Path blob ) {
+		try {
+			Files.createLink( path, blob );
+			return true;
+		} catch ( final IOException | UnsupportedOperationException e ) {
+			log.debug( "Could not link '{}' to '{}', writing it instead: {}", path, blob, e.getMessage() );
+			return false;
+		}
+	}
+
+	private void reference( final Path path, final String sha256 ) {
+		// Replacing the previous content unreferences it via the removal listener.
+		contents.put( path, sha256 );
+		references.compute( sha256, ( key, paths ) -> {
+			final Set<Path> referencing = paths == null ? ConcurrentHashMap.newKeySet() : paths;
+			referencing.add( path );
+			return referencing;
+		} );
+	}
+
+	private void unreference( final Path path, final String sha256 ) {
+		references.computeIfPresent( sha256, ( key, paths ) -> {
+			paths.remove( path );
+			return paths.isEmpty() ? null : paths;
+		} );
+	}
+
+	private static Path normalize( final File file ) {
+		return file.toPath().toAbsolutePath().normalize();
+	}
+}
@@ -88,6 +88,27 @@ public class SuiteReplayResult implements Serializable {
 		this.replaySutVersion = replaySutVersion;
 	}
 
+	private SuiteReplayResult( final SuiteReplayResult suite ) {
+		name = suite.name;
+		testSourceRoot = suite.testSourceRoot;
+		suiteNr = suite.suiteNr;
+		testReplayResults = new ArrayList<>( suite.testReplayResults );
+		suiteDuration = suite.suiteDuration;
+		execSuiteSutVersion = suite.execSuiteSutVersion;
+		suiteUuid = suite.suiteUuid;
+		replaySutVersion = suite.replaySutVersion;
+	}
+
+	/**
+	 * Copies the suite with the tests added so far, e.g. to save it in the background while further tests are added.
+	 * The tests themselves are not copied, as they are complete once added.
+	 *
+	 * @return a copy that is not affected by tests added later on
+	 */
+	public SuiteReplayResult snapshot() {
+		return new SuiteReplayResult( this );
+	}
+
 	public void addTest( final TestReplayResult newReplayResult ) {
 		suiteDuration += newReplayResult.getDuration();
 		testReplayResults.add( newReplayResult );
@@ -24,7 +24,7 @@ import de.retest.recheck.ui.review.GoldenMasterSource;
 public class TestReport extends Persistable {
 
 	private static final long serialVersionUID = 1L;
-	public static final int PERSISTENCE_VERSION = 23; // Last changed for 1.9.0
+	public static final int PERSISTENCE_VERSION = 24; // Last changed for 1.11.0 (Kryo registration table)
 
 	@XmlElement( name = "suite" )
 	private final List<SuiteReplayResult> suiteReplayResults = new ArrayList<>();
@@ -68,6 +68,10 @@ public class TestReport extends Persistable {
 		suiteReplayResults.add( newReplayResult );
 	}
 
+	public void removeSuite( final SuiteReplayResult replayResult ) {
+		suiteReplayResults.remove( replayResult );
+	}
+
 	public List<SuiteReplayResult> getSuiteReplayResults() {
 		return Collections.unmodifiableList( suiteReplayResults );
 	}
@@ -6,6 +6,7 @@ import static java.util.stream.Collectors.toList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import de.retest.recheck.NoGoldenMasterActionReplayResult;
 import de.retest.recheck.ignore.Filter;
@@ -13,6 +14,7 @@ import de.retest.recheck.ignore.Filter.ChangeType;
 import de.retest.recheck.report.action.ActionReplayData;
 import de.retest.recheck.report.action.DifferenceRetriever;
 import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.diff.AttributeDifference;
 import de.retest.recheck.ui.diff.AttributesDifference;
 import de.retest.recheck.ui.diff.ElementDifference;
 import de.retest.recheck.ui.diff.IdentifyingAttributesDifference;
@@ -129,8 +131,9 @@ public class TestReportFilter {
 	}
 
 	Optional<AttributesDifference> filter( final Element element, final AttributesDifference attributesDiff ) {
+		final Set<AttributeDifference> matching = filter.matching( element, attributesDiff.getDifferences() );
 		return attributesDiff.getDifferences().stream() //
-				.filter( diff -> !filter.matches( element, diff ) ) //
+				.filter( diff -> !matching.contains( diff ) ) //
 				.collect( collectingAndThen( toList(), newDiffs -> newDiffs.isEmpty() //
 						? Optional.empty() //
 						: Optional.of( new AttributesDifference( newDiffs ) ) ) );
@@ -138,8 +141,10 @@ public class TestReportFilter {
 
 	Optional<IdentifyingAttributesDifference> filter( final Element element,
 			final IdentifyingAttributesDifference identAttributesDiff ) {
+		final Set<AttributeDifference> matching =
+				filter.matching( element, identAttributesDiff.getAttributeDifferences() );
 		return identAttributesDiff.getAttributeDifferences().stream() //
-				.filter( diff -> !filter.matches( element, diff ) ) //
+				.filter( diff -> !matching.contains( diff ) ) //
 				.collect( collectingAndThen( toList(), newDiffs -> newDiffs.isEmpty() //
 						? Optional.empty() //
 						: Optional.of( new IdentifyingAttributesDifference( element.getIdentifyingAttributes(),
@@ -2,11 +2,16 @@ package de.retest.recheck.review;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Predicate;
 
+import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.ignore.AllMatchFilter;
+import de.retest.recheck.ignore.CompiledFilter;
+import de.retest.recheck.ignore.CompoundFilter;
 import de.retest.recheck.ignore.Filter;
 import de.retest.recheck.ignore.PersistentFilter;
 import de.retest.recheck.ignore.RecheckIgnoreLocator;
@@ -22,6 +27,10 @@ public class GlobalIgnoreApplier implements Filter {
 	private final Counter counter;
 	private final List<PersistentFilter> filtered = new ArrayList<>();
 	private final RecheckIgnoreLocator locator;
+	private final boolean compile = RecheckProperties.getInstance().compiledFilters();
+	// Compiled on demand, reset whenever the filters change.
+	// Compiled under the same lock as the filters are changed, so that no outdated filter is published.
+	private volatile CompiledFilter compiled;
 
 	private GlobalIgnoreApplier( final Counter counter, final List<PersistentFilter> filtered ) {
 		this( counter, filtered, new RecheckIgnoreLocator() );
@@ -49,9 +58,21 @@ public class GlobalIgnoreApplier implements Filter {
 
 	@Override
 	public boolean matches( final Element element, final AttributeDifference difference ) {
+		if ( compile ) {
+			return compiled().matches( element, difference );
+		}
 		return any( filter -> filter.matches( element, difference ) );
 	}
 
+	@Override
+	public Set<AttributeDifference> matching( final Element element,
+			final Collection<AttributeDifference> differences ) {
+		if ( compile ) {
+			return compiled().matching( element, differences );
+		}
+		return CompoundFilter.matchingAny( filtered, element, differences );
+	}
+
 	public void ignoreAttribute( final Element element, final AttributeDifference difference ) {
 		add( new AllMatchFilter( new MatcherFilter( new ElementRetestIdMatcher( element ) ),
 				new AttributeFilter( difference.getKey() ) ) );
@@ -63,11 +84,17 @@ public class GlobalIgnoreApplier implements Filter {
 
 	@Override
 	public boolean matches( final Element element ) {
+		if ( compile ) {
+			return compiled().matches( element );
+		}
 		return any( filter -> filter.matches( element ) );
 	}
 
 	@Override
 	public boolean matches( final Element element, final ChangeType change ) {
+		if ( compile ) {
+			return compiled().matches( element, change );
+		}
 		return any( filter -> filter.matches( element, change ) );
 	}
 
@@ -79,22 +106,37 @@ public class GlobalIgnoreApplier implements Filter {
 		remove( filter -> filter.matches( element ) );
 	}
 
-	private void add( final Filter filter ) {
+	private synchronized void add( final Filter filter ) {
 		// TODO Receive target path from GUI
 		final Path ignorePath = locator.getProjectIgnoreFile().orElse( locator.getUserIgnoreFile() );
 		filtered.add( new PersistentFilter( ignorePath, filter ) );
+		compiled = null;
 		counter.add();
 	}
 
-	public void addWithoutCounting( final PersistentFilter filter ) {
+	public synchronized void addWithoutCounting( final PersistentFilter filter ) {
 		filtered.add( filter );
+		compiled = null;
 	}
 
-	private void remove( final Predicate<Filter> filter ) {
+	private synchronized void remove( final Predicate<Filter> filter ) {
 		filtered.removeIf( filter );
+		compiled = null;
 		counter.remove();
 	}
 
+	private CompiledFilter compiled() {
+		final CompiledFilter result = compiled;
+		return result != null ? result : compile();
+	}
+
+	private synchronized CompiledFilter compile() {
+		if ( compiled == null ) {
+			compiled = CompiledFilter.compile( filtered );
+		}
+		return compiled;
+	}
+
 	private boolean any( final Predicate<Filter> filter ) {
 		return filtered.stream().anyMatch( filter );
 	}
@@ -16,10 +16,12 @@ import de.retest.recheck.review.ignore.io.InheritanceLoader;
 import de.retest.recheck.review.ignore.io.Loader;
 import de.retest.recheck.review.ignore.io.RegexLoader;
 import de.retest.recheck.ui.descriptors.Element;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 public class AttributeFilter implements Filter {
 
+	@Getter
 	private final String attribute;
 
 	public AttributeFilter( final String attribute ) {
@@ -9,9 +9,11 @@ import de.retest.recheck.ignore.AllMatchFilter.AllMatchFilterLoader;
 import de.retest.recheck.ignore.Filter;
 import de.retest.recheck.review.ignore.io.RegexLoader;
 import de.retest.recheck.ui.descriptors.Element;
+import lombok.Getter;
 
 public class AttributeRegexFilter implements Filter {
 
+	@Getter
 	private final Pattern attributePattern;
 
 	public AttributeRegexFilter( final String attributeRegex ) {
@@ -7,10 +7,12 @@ import java.util.regex.Pattern;
 import de.retest.recheck.review.ignore.io.RegexLoader;
 import de.retest.recheck.ui.Path;
 import de.retest.recheck.ui.descriptors.Element;
+import lombok.Getter;
 
 public class ElementXPathMatcher implements Matcher<Element> {
 
 	private final String givenXPath;
+	@Getter
 	private final String normalizedXPath;
 
 	public ElementXPathMatcher( final Element element ) {
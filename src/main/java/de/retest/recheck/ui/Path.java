@@ -1,14 +1,15 @@
 package de.retest.recheck.ui;
 
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlTransient;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
 @XmlAccessorType( XmlAccessType.FIELD )
 public class Path implements Serializable {
 
@@ -25,6 +26,9 @@ public class Path implements Serializable {
 	@XmlTransient
 	private String toStringCache;
 
+	@XmlTransient
+	private transient int hashCodeCache;
+
 	private Path() {
 		// for JAXB
 		parentPath = null;
@@ -59,11 +63,14 @@ public class Path implements Serializable {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + (element == null ? 0 : element.hashCode());
-		result = prime * result + (parentPath == null ? 0 : parentPath.hashCode());
-		return result;
+		if ( hashCodeCache == 0 ) {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + (element == null ? 0 : element.hashCode());
+			result = prime * result + (parentPath == null ? 0 : parentPath.hashCode());
+			hashCodeCache = result;
+		}
+		return hashCodeCache;
 	}
 
 	@Override
@@ -122,25 +129,16 @@ public class Path implements Serializable {
 		return Path.path( result, PathElement.fromString( path ) );
 	}
 
-	// Ensures that each path exists exactly once.
-	private static final Map<String, Path> paths = new HashMap<>();
+	// Ensures that each path in use exists exactly once, also when paths are created concurrently (e.g. during
+	// alignment). Paths are interned by their parent (which is interned itself) and element, paths no longer in use are
+	// garbage collected.
+	private static final Interner<Path> paths = Interners.newWeakInterner();
 
 	public static Path path( final PathElement element ) {
-		Path result = paths.get( element.toString() );
-		if ( result == null ) {
-			result = new Path( element );
-			paths.put( element.toString(), result );
-		}
-		return result;
+		return path( null, element );
 	}
 
 	public static Path path( final Path parentPath, final PathElement element ) {
-		final Path temp = new Path( parentPath, element );
-		Path result = paths.get( temp.toString() );
-		if ( result == null ) {
-			result = temp;
-			paths.put( temp.toString(), result );
-		}
-		return result;
+		return paths.intern( new Path( parentPath, element ) );
 	}
 }
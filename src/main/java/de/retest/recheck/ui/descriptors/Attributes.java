@@ -15,6 +15,9 @@ import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+
 import de.retest.recheck.ui.diff.AttributeDifference;
 import de.retest.recheck.ui.image.Screenshot;
 
@@ -54,6 +57,12 @@ public class Attributes implements Iterable<Map.Entry<String, Object>>, Serializ
 		}
 	}
 
+	// Only to be used when reading persisted attributes, which already contain the screenshot's persistence ID.
+	Attributes( final TreeMap<String, Object> attributes, final Screenshot screenshot ) {
+		this.attributes = attributes;
+		this.screenshot = screenshot;
+	}
+
 	public Object get( final String name ) {
 		if ( name.equals( SCREENSHOT ) ) {
 			return screenshot;
@@ -121,6 +130,22 @@ public class Attributes implements Iterable<Map.Entry<String, Object>>, Serializ
 		return result;
 	}
 
+	/**
+	 * Like {@link #getMap()}, but without copying the attributes.
+	 *
+	 * @return the attributes including the screenshot, ordered by their keys
+	 */
+	public Iterator<Map.Entry<String, Object>> entriesWithScreenshot() {
+		if ( screenshot == null ) {
+			return iterator();
+		}
+		if ( !attributes.containsKey( SCREENSHOT ) ) {
+			return Collections.<String, Object> unmodifiableMap( getMap() ).entrySet().iterator();
+		}
+		return Iterators.transform( iterator(),
+				entry -> entry.getKey().equals( SCREENSHOT ) ? Maps.immutableEntry( SCREENSHOT, screenshot ) : entry );
+	}
+
 	public int size() {
 		return attributes.size();
 	}
@@ -0,0 +1,76 @@
+package de.retest.recheck.ui.descriptors;
+
+import java.util.SortedMap;
+
+import de.retest.recheck.ignore.GloballyIgnoredAttributes;
+
+/**
+ * Array-backed representation of {@link IdentifyingAttributes} for matching. Keys, weights and whether an attribute is
+ * globally ignored are resolved once, so matching two elements neither allocates nor looks up anything.
+ */
+final class CompiledIdentifyingAttributes {
+
+	private final GloballyIgnoredAttributes globallyIgnoredAttributes;
+
+	/**
+	 * Sorted like the keys of {@link IdentifyingAttributes}, so two instances can be matched with a single merge.
+	 */
+	private final String[] keys;
+	private final Attribute[] attributes;
+	private final double[] weights;
+	private final boolean[] ignored;
+
+	CompiledIdentifyingAttributes( final SortedMap<String, Attribute> attributes,
+			final GloballyIgnoredAttributes globallyIgnoredAttributes ) {
+		this.globallyIgnoredAttributes = globallyIgnoredAttributes;
+		final int size = attributes.size();
+		keys = new String[size];
+		this.attributes = new Attribute[size];
+		weights = new double[size];
+		ignored = new boolean[size];
+		int i = 0;
+		for ( final Attribute attribute : attributes.values() ) {
+			keys[i] = attribute.getKey();
+			this.attributes[i] = attribute;
+			weights[i] = attribute.getWeight();
+			ignored[i] = globallyIgnoredAttributes.shouldIgnoreAttribute( attribute.getKey() );
+			i++;
+		}
+	}
+
+	boolean isCompiledFor( final GloballyIgnoredAttributes globallyIgnoredAttributes ) {
+		return this.globallyIgnoredAttributes == globallyIgnoredAttributes;
+	}
+
+	/**
+	 * @see IdentifyingAttributes#match(IdentifyingAttributes)
+	 */
+	double match( final CompiledIdentifyingAttributes other ) {
+		double result = 0.0;
+		double unifyingFactor = 0.0;
+		int otherIdx = 0;
+		for ( int idx = 0; idx < keys.length; idx++ ) {
+			// Attributes only contained in other are not ignored.
+			while ( otherIdx < other.keys.length && other.keys[otherIdx].compareTo( keys[idx] ) < 0 ) {
+				unifyingFactor += other.weights[otherIdx++];
+			}
+			final boolean contained = otherIdx < other.keys.length && other.keys[otherIdx].equals( keys[idx] );
+			if ( !ignored[idx] ) {
+				unifyingFactor += weights[idx];
+				if ( contained ) {
+					result += weights[idx] * attributes[idx].match( other.attributes[otherIdx] );
+				}
+			}
+			if ( contained ) {
+				otherIdx++;
+			}
+		}
+		while ( otherIdx < other.keys.length ) {
+			unifyingFactor += other.weights[otherIdx++];
+		}
+		if ( unifyingFactor == 0.0 ) {
+			throw new ArithmeticException( "Cannot divide with a unifying factor of 0.0" );
+		}
+		return result / unifyingFactor;
+	}
+}
@@ -21,6 +21,9 @@ import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 import org.apache.commons.lang3.ObjectUtils;
 import org.eclipse.persistence.oxm.annotations.XmlInverseReference;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 import de.retest.recheck.ui.Path;
 import de.retest.recheck.ui.diff.AttributeDifference;
 import de.retest.recheck.ui.image.Screenshot;
@@ -55,7 +58,7 @@ public class Element implements Serializable, Comparable<Element> {
 	protected Screenshot screenshot;
 
 	@XmlTransient
-	private transient Integer hashCodeCache;
+	private transient Long fingerprintCache;
 
 	// Warning: Only to be used by JAXB!
 	protected Element() {
@@ -77,6 +80,16 @@ public class Element implements Serializable, Comparable<Element> {
 		containedElements = new ArrayList<>();
 	}
 
+	// Only to be used when reading persisted elements, which are (like with JAXB) not validated again.
+	Element( final String retestId, final Element parent, final IdentifyingAttributes identifyingAttributes,
+			final Attributes attributes ) {
+		this.retestId = retestId;
+		this.parent = parent;
+		this.identifyingAttributes = identifyingAttributes;
+		this.attributes = attributes;
+		containedElements = new ArrayList<>();
+	}
+
 	public static Element create( final String retestId, final Element parent,
 			final IdentifyingAttributes identifyingAttributes, final Attributes attributes ) {
 		return create( retestId, parent, identifyingAttributes, attributes, null );
@@ -262,11 +275,40 @@ public class Element implements Serializable, Comparable<Element> {
 	}
 
 	public void addChildren( final Element... children ) {
-		containedElements.addAll( Arrays.asList( children ) );
+		addChildren( Arrays.asList( children ) );
 	}
 
 	public void addChildren( final List<Element> children ) {
 		containedElements.addAll( children );
+		for ( Element element = this; element != null; element = element.parent ) {
+			element.fingerprintCache = null;
+		}
+	}
+
+	/**
+	 * Returns a Merkle-style fingerprint of this element's subtree: It is computed once from the identifying attributes
+	 * and attributes of this element as well as the fingerprints of its contained elements. Equal elements have the same
+	 * fingerprint, elements with different fingerprints are not equal. As the fingerprint is based on the hash codes of
+	 * the attributes, equal fingerprints do not guarantee equal elements, which {@link #equals(Object)} then compares
+	 * as a whole. Adding contained elements resets the fingerprint of this element and its parents, but hash codes
+	 * used before are not updated.
+	 *
+	 * @return the fingerprint of this element and all of its contained elements
+	 */
+	public long getFingerprint() {
+		Long fingerprint = fingerprintCache;
+		if ( fingerprint == null ) {
+			final Hasher hasher = Hashing.murmur3_128().newHasher() //
+					.putInt( Objects.hashCode( identifyingAttributes ) ) //
+					.putInt( Objects.hashCode( attributes ) ) //
+					.putInt( containedElements.size() );
+			for ( final Element element : containedElements ) {
+				hasher.putLong( element.getFingerprint() );
+			}
+			fingerprint = hasher.hash().asLong();
+			fingerprintCache = fingerprint;
+		}
+		return fingerprint;
 	}
 
 	@Override
@@ -287,6 +329,9 @@ public class Element implements Serializable, Comparable<Element> {
 			return false;
 		}
 		final Element other = (Element) obj;
+		if ( getFingerprint() != other.getFingerprint() ) {
+			return false;
+		}
 		if ( !identifyingAttributes.equals( other.identifyingAttributes ) ) {
 			return false;
 		}
@@ -298,10 +343,7 @@ public class Element implements Serializable, Comparable<Element> {
 
 	@Override
 	public int hashCode() {
-		if ( hashCodeCache == null ) {
-			hashCodeCache = Objects.hash( identifyingAttributes, attributes, containedElements );
-		}
-		return hashCodeCache;
+		return Long.hashCode( getFingerprint() );
 	}
 
 	@Override
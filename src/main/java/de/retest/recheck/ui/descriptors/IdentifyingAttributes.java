@@ -7,7 +7,6 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -54,6 +53,8 @@ public class IdentifyingAttributes implements Serializable, Comparable<Identifyi
 
 	private transient String parentPathCache;
 
+	private transient CompiledIdentifyingAttributes compiledCache;
+
 	protected IdentifyingAttributes() {
 		// Only for JAXB
 	}
@@ -156,31 +157,21 @@ public class IdentifyingAttributes implements Serializable, Comparable<Identifyi
 	}
 
 	public double match( final IdentifyingAttributes other ) {
-		double result = 0.0;
-		double unifyingFactor = 0.0;
-		final Set<Attribute> otherAttributes = new HashSet<>( other.attributes.values() );
-		for ( final Attribute attribute : attributes.values() ) {
-			final Attribute otherAttribute = other.getAttribute( attribute.getKey() );
-			otherAttributes.remove( otherAttribute );
-			if ( GloballyIgnoredAttributes.getInstance().shouldIgnoreAttribute( attribute.getKey() ) ) {
-				continue;
-			}
-			unifyingFactor += attribute.getWeight();
-			if ( otherAttribute != null ) {
-				result += attribute.getWeight() * attribute.match( otherAttribute );
-			}
-		}
-		for ( final Attribute attribute : otherAttributes ) {
-			unifyingFactor += attribute.getWeight();
-		}
-		if ( unifyingFactor == 0.0 ) {
-			throw new ArithmeticException( "Cannot divide with a unifying factor of 0.0" );
-		}
-		result = result / unifyingFactor;
+		final GloballyIgnoredAttributes globallyIgnoredAttributes = GloballyIgnoredAttributes.getInstance();
+		final double result = compile( globallyIgnoredAttributes ).match( other.compile( globallyIgnoredAttributes ) );
 		assert result >= 0.0 && result <= 1.0 : "Match result " + result + " should be in [0,1].";
 		return result;
 	}
 
+	private CompiledIdentifyingAttributes compile( final GloballyIgnoredAttributes globallyIgnoredAttributes ) {
+		CompiledIdentifyingAttributes compiled = compiledCache;
+		if ( compiled == null || !compiled.isCompiledFor( globallyIgnoredAttributes ) ) {
+			compiled = new CompiledIdentifyingAttributes( attributes, globallyIgnoredAttributes );
+			compiledCache = compiled;
+		}
+		return compiled;
+	}
+
 	@Override
 	public String toString() {
 		final String type = getType();
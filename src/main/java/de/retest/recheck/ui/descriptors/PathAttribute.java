@@ -9,6 +9,7 @@ import javax.xml.bind.annotation.XmlValue;
 
 import de.retest.recheck.ui.Path;
 import de.retest.recheck.util.StringSimilarity;
+import de.retest.recheck.util.StringSimilarity.PreparedPath;
 
 @XmlRootElement
 public class PathAttribute extends ParameterizedAttribute {
@@ -32,6 +33,7 @@ public class PathAttribute extends ParameterizedAttribute {
 	private final String path;
 
 	private transient Path cachedPath;
+	private transient PreparedPath cachedParentPath;
 
 	// Used by JaxB
 	protected PathAttribute() {
@@ -49,6 +51,12 @@ public class PathAttribute extends ParameterizedAttribute {
 		this.path = path.toString();
 	}
 
+	// Only to be used when reading persisted paths, which are parsed lazily (like with JAXB).
+	PathAttribute( final String path, final String variableName ) {
+		super( PATH_KEY, variableName );
+		this.path = path;
+	}
+
 	@Override
 	public Path getValue() {
 		if ( cachedPath == null ) {
@@ -65,10 +73,15 @@ public class PathAttribute extends ParameterizedAttribute {
 		if ( !other.getKey().equals( PATH_KEY ) ) {
 			return NO_MATCH;
 		}
-		final String parentPath = getValue().getParentPath() == null ? "" : getValue().getParentPath().toString();
-		final Path otherPath = ((PathAttribute) other).getValue();
-		final String otherParentPath = otherPath.getParentPath() == null ? "" : otherPath.getParentPath().toString();
-		return StringSimilarity.pathSimilarity( parentPath, otherParentPath );
+		return StringSimilarity.pathSimilarity( getParentPath(), ((PathAttribute) other).getParentPath() );
+	}
+
+	private PreparedPath getParentPath() {
+		if ( cachedParentPath == null ) {
+			final Path parentPath = getValue().getParentPath();
+			cachedParentPath = PreparedPath.of( parentPath == null ? "" : parentPath.toString() );
+		}
+		return cachedParentPath;
 	}
 
 	@Override
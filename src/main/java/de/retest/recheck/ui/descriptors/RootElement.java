@@ -41,6 +41,15 @@ public class RootElement extends Element {
 		this.title = title;
 	}
 
+	// Only to be used when reading persisted elements, see Element.
+	RootElement( final String retestId, final IdentifyingAttributes identifyingAttributes,
+			final Attributes attributes, final String screen, final int screenId, final String title ) {
+		super( retestId, null, identifyingAttributes, attributes );
+		this.screen = screen;
+		this.screenId = screenId;
+		this.title = title;
+	}
+
 	public String getScreen() {
 		return screen;
 	}
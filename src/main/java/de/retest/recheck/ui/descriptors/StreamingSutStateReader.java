@@ -0,0 +1,497 @@
+package de.retest.recheck.ui.descriptors;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
+
+/**
+ * Reads a {@link SutState} as persisted by {@link de.retest.recheck.persistence.xml.XmlTransformer} in a single pass
+ * over the XML, creating the elements and attributes directly instead of via JAXB's reflection. Strings that occur
+ * repeatedly (such as attribute keys and types) are only kept once per read.
+ *
+ * The result is the same as with JAXB: Contained elements that are equal are replaced by the same instance (see
+ * {@link RenderContainedElementsAdapter}) and the given {@link Unmarshaller.Listener} is called for screenshots and
+ * their parents, so that screenshots can be loaded. Only the current persistence version of {@link SutState} and the
+ * attribute types of recheck are supported, any other content results in an {@link IOException}.
+ */
+public final class StreamingSutStateReader {
+
+	private static final XMLInputFactory FACTORY = createFactory();
+
+	private final XMLStreamReader reader;
+	private final Unmarshaller.Listener listener;
+
+	private final Map<String, String> strings = new HashMap<>();
+	private final Map<Element, Element> containedElements = new HashMap<>();
+
+	private StreamingSutStateReader( final XMLStreamReader reader, final Unmarshaller.Listener listener ) {
+		this.reader = reader;
+		this.listener = listener;
+	}
+
+	private static XMLInputFactory createFactory() {
+		final XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty( XMLInputFactory.SUPPORT_DTD, false );
+		factory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
+		return factory;
+	}
+
+	/**
+	 * @param in
+	 *            the XML, i.e. a {@code ReTestXmlDataContainer} containing a {@link SutState}
+	 * @param listener
+	 *            called after a screenshot or one of its parents has been read, may be {@code null}
+	 * @return the read {@link SutState}
+	 * @throws IOException
+	 *             if the XML is invalid or contains anything not supported by this reader
+	 */
+	public static SutState read( final InputStream in, final Unmarshaller.Listener listener ) throws IOException {
+		XMLStreamReader reader = null;
+		try {
+			reader = FACTORY.createXMLStreamReader( in );
+			return new StreamingSutStateReader( reader, listener ).readContainer();
+		} catch ( final XMLStreamException e ) {
+			throw new IOException( "Could not read SUT state: " + e.getMessage(), e );
+		} finally {
+			close( reader );
+		}
+	}
+
+	private static void close( final XMLStreamReader reader ) throws IOException {
+		if ( reader != null ) {
+			try {
+				reader.close();
+			} catch ( final XMLStreamException e ) {
+				throw new IOException( e );
+			}
+		}
+	}
+
+	private SutState readContainer() throws XMLStreamException {
+		reader.nextTag();
+		SutState result = null;
+		while ( nextChild() ) {
+			if ( "data".equals( reader.getLocalName() ) ) {
+				final String type = xsiType();
+				if ( !"sutState".equals( type ) ) {
+					throw unsupported( "data type", type );
+				}
+				result = readSutState();
+			} else {
+				skip();
+			}
+		}
+		if ( result == null ) {
+			throw new XMLStreamException( "XML does not contain a SUT state." );
+		}
+		return result;
+	}
+
+	private SutState readSutState() throws XMLStreamException {
+		final List<RootElement> descriptors = new ArrayList<>();
+		final Map<String, String> metadata = new HashMap<>();
+		while ( nextChild() ) {
+			switch ( reader.getLocalName() ) {
+				case "descriptors":
+					descriptors.add( readRootElement() );
+					break;
+				case "metadata":
+					readMetadata( metadata );
+					break;
+				default:
+					skip();
+			}
+		}
+		final SutState sutState = new SutState( descriptors, () -> metadata );
+		afterUnmarshal( sutState, null );
+		return sutState;
+	}
+
+	private void readMetadata( final Map<String, String> metadata ) throws XMLStreamException {
+		while ( nextChild() ) {
+			if ( "entry".equals( reader.getLocalName() ) ) {
+				String key = null;
+				String value = null;
+				while ( nextChild() ) {
+					switch ( reader.getLocalName() ) {
+						case "key":
+							key = intern( reader.getElementText() );
+							break;
+						case "value":
+							value = emptyToNull( reader.getElementText() );
+							break;
+						default:
+							skip();
+					}
+				}
+				metadata.put( key, value );
+			} else {
+				skip();
+			}
+		}
+	}
+
+	private RootElement readRootElement() throws XMLStreamException {
+		final String retestId = retestId();
+		final String screen = reader.getAttributeValue( null, "screen" );
+		final String screenId = reader.getAttributeValue( null, "screenId" );
+		final int parsedScreenId = screenId == null ? 0 : parseInt( screenId );
+		final String title = reader.getAttributeValue( null, "title" );
+		return (RootElement) readElement( null, ( identifyingAttributes, attributes ) -> new RootElement( retestId,
+				identifyingAttributes, attributes, screen, parsedScreenId, title ) );
+	}
+
+	private Element readContainedElement( final Element parent ) throws XMLStreamException {
+		final String retestId = retestId();
+		final Element element = readElement( parent,
+				( identifyingAttributes, attributes ) -> new Element( retestId, parent, identifyingAttributes,
+						attributes ) );
+		if ( element.identifyingAttributes == null ) {
+			return element;
+		}
+		final Element existing = containedElements.putIfAbsent( element, element );
+		return existing != null ? existing : element;
+	}
+
+	@FunctionalInterface
+	private interface ElementFactory {
+		Element create( IdentifyingAttributes identifyingAttributes, Attributes attributes );
+	}
+
+	private Element readElement( final Element parent, final ElementFactory factory ) throws XMLStreamException {
+		IdentifyingAttributes identifyingAttributes = null;
+		Attributes attributes = null;
+		// Created as soon as the children need their parent.
+		Element element = null;
+		while ( nextChild() ) {
+			final String name = reader.getLocalName();
+			switch ( name ) {
+				case "identifyingAttributes":
+					checkNotCreated( element, name );
+					identifyingAttributes = readIdentifyingAttributes();
+					break;
+				case "attributes":
+					checkNotCreated( element, name );
+					attributes = readAttributes();
+					break;
+				case "containedElements":
+					if ( element == null ) {
+						element = factory.create( identifyingAttributes, attributes );
+					}
+					element.addChildren( readContainedElement( element ) );
+					break;
+				case "screenshot":
+					if ( element == null ) {
+						element = factory.create( identifyingAttributes, attributes );
+					}
+					final Screenshot screenshot = readScreenshot();
+					element.setScreenshot( screenshot );
+					afterUnmarshal( screenshot, element );
+					break;
+				default:
+					skip();
+			}
+		}
+		if ( element == null ) {
+			element = factory.create( identifyingAttributes, attributes );
+		}
+		afterUnmarshal( element, parent );
+		return element;
+	}
+
+	private void checkNotCreated( final Element element, final String name ) throws XMLStreamException {
+		if ( element != null ) {
+			throw new XMLStreamException( "Unexpected '" + name + "' after contained elements or screenshot.",
+					reader.getLocation() );
+		}
+	}
+
+	private IdentifyingAttributes readIdentifyingAttributes() throws XMLStreamException {
+		final List<Attribute> attributes = new ArrayList<>();
+		while ( nextChild() ) {
+			if ( "attributes".equals( reader.getLocalName() ) ) {
+				while ( nextChild() ) {
+					if ( "attribute".equals( reader.getLocalName() ) ) {
+						attributes.add( readAttribute() );
+					} else {
+						skip();
+					}
+				}
+			} else {
+				skip();
+			}
+		}
+		return new IdentifyingAttributes( attributes );
+	}
+
+	@SuppressWarnings( "deprecation" )
+	private Attribute readAttribute() throws XMLStreamException {
+		final String key = intern( reader.getAttributeValue( null, "key" ) );
+		final String variableName = intern( reader.getAttributeValue( null, "variableName" ) );
+		final String type = xsiType();
+		if ( type == null ) {
+			throw unsupported( "attribute type", null );
+		}
+		switch ( type ) {
+			case "stringAttribute":
+				return new StringAttribute( key, intern( emptyToNull( reader.getElementText() ) ), variableName );
+			case "textAttribute":
+				return new TextAttribute( key, emptyToNull( reader.getElementText() ), variableName );
+			case "weightedTextAttribute":
+				return new WeightedTextAttribute( key, emptyToNull( reader.getElementText() ), variableName );
+			case "codeLocAttribute":
+				return new CodeLocAttribute( emptyToNull( reader.getElementText() ), variableName );
+			case "contextAttribute":
+				return new ContextAttribute( intern( emptyToNull( reader.getElementText() ) ), variableName );
+			case "suffixAttribute":
+				return new SuffixAttribute( intern( emptyToNull( reader.getElementText() ) ), variableName );
+			case "pathAttribute":
+				return new PathAttribute( reader.getElementText(), variableName );
+			case "outlineAttribute":
+				return readOutlineAttribute( key );
+			case "defaultAttribute":
+				return readDefaultAttribute( key, variableName );
+			default:
+				throw unsupported( "attribute type", type );
+		}
+	}
+
+	private Attribute readOutlineAttribute( final String key ) throws XMLStreamException {
+		int x = -1;
+		int y = -1;
+		int height = -1;
+		int width = -1;
+		while ( nextChild() ) {
+			switch ( reader.getLocalName() ) {
+				case "x":
+					x = parseInt( reader.getElementText() );
+					break;
+				case "y":
+					y = parseInt( reader.getElementText() );
+					break;
+				case "height":
+					height = parseInt( reader.getElementText() );
+					break;
+				case "width":
+					width = parseInt( reader.getElementText() );
+					break;
+				default:
+					skip();
+			}
+		}
+		final Rectangle outline = new Rectangle( x, y, width, height );
+		if ( OutlineAttribute.ABSOLUTE_OUTLINE.equals( key ) ) {
+			return OutlineAttribute.createAbsolute( outline );
+		}
+		if ( OutlineAttribute.RELATIVE_OUTLINE.equals( key ) ) {
+			return OutlineAttribute.create( outline );
+		}
+		throw unsupported( "outline key", key );
+	}
+
+	private Attribute readDefaultAttribute( final String key, final String variableName )
+			throws XMLStreamException {
+		// JAXB reads the value as string, regardless of its type.
+		String value = null;
+		while ( nextChild() ) {
+			if ( "value".equals( reader.getLocalName() ) ) {
+				value = reader.getElementText();
+			} else {
+				skip();
+			}
+		}
+		return new DefaultAttribute( key, value, variableName );
+	}
+
+	private Attributes readAttributes() throws XMLStreamException {
+		final TreeMap<String, Object> attributes = new TreeMap<>();
+		Screenshot screenshot = null;
+		while ( nextChild() ) {
+			switch ( reader.getLocalName() ) {
+				case "attributes":
+					readAttributesMap( attributes );
+					break;
+				case "screenshot":
+					screenshot = readScreenshot();
+					break;
+				default:
+					skip();
+			}
+		}
+		final Attributes result = new Attributes( attributes, screenshot );
+		if ( screenshot != null ) {
+			afterUnmarshal( screenshot, result );
+		}
+		afterUnmarshal( result, null );
+		return result;
+	}
+
+	private void readAttributesMap( final Map<String, Object> attributes ) throws XMLStreamException {
+		while ( nextChild() ) {
+			if ( "entry".equals( reader.getLocalName() ) ) {
+				String key = null;
+				Object value = null;
+				while ( nextChild() ) {
+					switch ( reader.getLocalName() ) {
+						case "key":
+							key = intern( reader.getElementText() );
+							break;
+						case "value":
+							value = readValue();
+							break;
+						default:
+							skip();
+					}
+				}
+				attributes.put( key, value );
+			} else {
+				skip();
+			}
+		}
+	}
+
+	private Object readValue() throws XMLStreamException {
+		final String type = xsiType();
+		if ( type == null ) {
+			throw unsupported( "value type", null );
+		}
+		final String text = reader.getElementText();
+		try {
+			switch ( type ) {
+				case "string":
+					return intern( text );
+				case "boolean":
+					return Boolean.valueOf( text.trim() );
+				case "int":
+					return Integer.valueOf( text.trim() );
+				case "long":
+					return Long.valueOf( text.trim() );
+				case "double":
+					return Double.valueOf( text.trim() );
+				case "float":
+					return Float.valueOf( text.trim() );
+				case "short":
+					return Short.valueOf( text.trim() );
+				case "byte":
+					return Byte.valueOf( text.trim() );
+				default:
+					throw unsupported( "value type", type );
+			}
+		} catch ( final NumberFormatException e ) {
+			throw new XMLStreamException( "Invalid value '" + text + "' of type '" + type + "'.",
+					reader.getLocation(), e );
+		}
+	}
+
+	private Screenshot readScreenshot() throws XMLStreamException {
+		String persistenceId = null;
+		ImageType type = null;
+		while ( nextChild() ) {
+			switch ( reader.getLocalName() ) {
+				case "persistenceId":
+					persistenceId = reader.getElementText();
+					break;
+				case "type":
+					type = ImageType.valueOf( reader.getElementText().trim() );
+					break;
+				default:
+					skip();
+			}
+		}
+		// The binary data is set when the listener loads the screenshot.
+		return new Screenshot( persistenceId, new byte[0], type );
+	}
+
+	private void afterUnmarshal( final Object target, final Object parent ) {
+		if ( listener != null ) {
+			listener.afterUnmarshal( target, parent );
+		}
+	}
+
+	/**
+	 * Moves to the start of the next child of the current element.
+	 *
+	 * @return {@code false} if there is no further child, i.e. the current element ended
+	 */
+	private boolean nextChild() throws XMLStreamException {
+		while ( reader.hasNext() ) {
+			final int event = reader.next();
+			if ( event == XMLStreamConstants.START_ELEMENT ) {
+				return true;
+			}
+			if ( event == XMLStreamConstants.END_ELEMENT ) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	private void skip() throws XMLStreamException {
+		int depth = 1;
+		while ( depth > 0 ) {
+			final int event = reader.next();
+			if ( event == XMLStreamConstants.START_ELEMENT ) {
+				depth++;
+			} else if ( event == XMLStreamConstants.END_ELEMENT ) {
+				depth--;
+			}
+		}
+	}
+
+	private String retestId() {
+		// Same default as with JAXB.
+		final String retestId = reader.getAttributeValue( null, "retestId" );
+		return retestId == null ? "" : retestId;
+	}
+
+	/**
+	 * @return the local part of the xsi:type of the current element, or {@code null} if it has none
+	 */
+	private String xsiType() {
+		final String type = reader.getAttributeValue( XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "type" );
+		if ( type == null ) {
+			return null;
+		}
+		return intern( type.substring( type.indexOf( ':' ) + 1 ) );
+	}
+
+	private int parseInt( final String value ) throws XMLStreamException {
+		try {
+			return Integer.parseInt( value.trim() );
+		} catch ( final NumberFormatException e ) {
+			throw new XMLStreamException( "Invalid number '" + value + "'.", reader.getLocation(), e );
+		}
+	}
+
+	private XMLStreamException unsupported( final String what, final String value ) {
+		return new XMLStreamException( "Unsupported " + what + " '" + value + "' in '" + reader.getLocalName()
+				+ "', only the types of recheck can be read without JAXB.", reader.getLocation() );
+	}
+
+	private String intern( final String value ) {
+		if ( value == null ) {
+			return null;
+		}
+		final String existing = strings.putIfAbsent( value, value );
+		return existing != null ? existing : value;
+	}
+
+	private static String emptyToNull( final String value ) {
+		return value.isEmpty() ? null : value;
+	}
+}
@@ -5,12 +5,15 @@ import java.io.Serializable;
 import javax.xml.bind.annotation.XmlRootElement;
 
 import de.retest.recheck.util.StringSimilarity;
+import de.retest.recheck.util.StringSimilarity.PreparedText;
 
 @XmlRootElement
 public class TextAttribute extends StringAttribute {
 
 	private static final long serialVersionUID = 1L;
 
+	private transient PreparedText preparedText;
+
 	// Used by JaxB
 	protected TextAttribute() {}
 
@@ -28,7 +31,14 @@ public class TextAttribute extends StringAttribute {
 			return NO_MATCH;
 		}
 		assert other.getKey().equals( getKey() );
-		return StringSimilarity.textSimilarity( getValue(), ((StringAttribute) other).getValue() );
+		return StringSimilarity.textSimilarity( getPreparedText(), ((TextAttribute) other).getPreparedText() );
+	}
+
+	private PreparedText getPreparedText() {
+		if ( preparedText == null ) {
+			preparedText = PreparedText.of( getValue() );
+		}
+		return preparedText;
 	}
 
 	@Override
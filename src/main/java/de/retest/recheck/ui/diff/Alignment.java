@@ -1,19 +1,30 @@
 package de.retest.recheck.ui.diff;
 
+import static de.retest.recheck.ui.descriptors.ElementUtil.flattenAllElements;
 import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toConcurrentMap;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
+import java.util.Set;
+import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.tuple.Pair;
 
 import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.ui.descriptors.Element;
@@ -23,6 +34,9 @@ import lombok.extern.slf4j.Slf4j;
 public final class Alignment {
 
 	private static final double ELEMENT_MATCH_THRESHOLD = RecheckProperties.getInstance().elementMatchThreshold();
+	private static final int ELEMENT_MATCH_CANDIDATES = RecheckProperties.getInstance().elementMatchCandidates();
+	private static final boolean ELEMENT_MATCH_EXHAUSTIVE_FALLBACK =
+			RecheckProperties.getInstance().elementMatchExhaustiveFallback();
 
 	/**
 	 * A mapping from each child element (key) to its parent (value), based on the <em>expected</em> elements.
@@ -33,22 +47,126 @@ public final class Alignment {
 	 */
 	private final Map<Element, Element> actualChildParentMapping = new HashMap<>();
 
+	/**
+	 * Maximum number of candidates scored per element, {@code 0} to score all elements.
+	 */
+	private final int candidateLimit;
+	/**
+	 * Whether to score all elements if none of the candidates is above the threshold.
+	 */
+	private final boolean exhaustiveFallback;
+	/**
+	 * Whether to score the matches of the individual elements in parallel.
+	 */
+	private final boolean parallel;
+
 	private final Map<Element, Element> alignment;
 
 	public static Alignment createAlignment( final Element expected, final Element actual ) {
-		return new Alignment( expected, actual );
+		return new Alignment( expected, actual, ELEMENT_MATCH_CANDIDATES, ELEMENT_MATCH_EXHAUSTIVE_FALLBACK, false );
+	}
+
+	/**
+	 * Creates the same alignment as {@link #createAlignment(Element, Element)}, but scores the matches of the
+	 * individual elements in parallel using the common {@link java.util.concurrent.ForkJoinPool}. The resulting matches
+	 * are still assigned sequentially, so the alignment is deterministic.
+	 *
+	 * @param expected
+	 *            expected element
+	 * @param actual
+	 *            actual element
+	 * @return alignment of the contained elements
+	 */
+	public static Alignment createParallelAlignment( final Element expected, final Element actual ) {
+		return new Alignment( expected, actual, ELEMENT_MATCH_CANDIDATES, ELEMENT_MATCH_EXHAUSTIVE_FALLBACK, true );
+	}
+
+	static Alignment createAlignment( final Element expected, final Element actual, final int candidateLimit,
+			final boolean exhaustiveFallback, final boolean parallel ) {
+		return new Alignment( expected, actual, candidateLimit, exhaustiveFallback, parallel );
 	}
 
-	private Alignment( final Element expected, final Element actual ) {
+	/**
+	 * Creates an alignment top-down, i.e. the contained elements of two aligned elements are only aligned with each
+	 * other (e.g. a cell can only be aligned with a cell of the aligned row). This drastically reduces the number of
+	 * elements to compare, especially for deeply nested structures such as tables. Elements that can't be aligned
+	 * within their parent are considered as moved and aligned with the remaining elements afterwards.
+	 *
+	 * In contrast to {@link #createAlignment(Element, Element)}, changes to intermediate elements (e.g. an inserted
+	 * wrapper) may lead to a different alignment.
+	 *
+	 * @param expected
+	 *            expected element
+	 * @param actual
+	 *            actual element
+	 * @return alignment of the contained elements
+	 */
+	public static Alignment createHierarchicalAlignment( final Element expected, final Element actual ) {
+		final Map<Element, Element> alignment = new HashMap<>();
+		final List<Element> movedExpected = new ArrayList<>();
+		final List<Element> movedActual = new ArrayList<>();
+		alignContainedElements( expected, actual, alignment, movedExpected, movedActual );
+		alignMovedElements( movedExpected, movedActual, alignment );
+		return new Alignment( alignment );
+	}
+
+	private Alignment( final Map<Element, Element> alignment ) {
+		candidateLimit = 0;
+		exhaustiveFallback = false;
+		parallel = false;
+		this.alignment = alignment;
+	}
+
+	private Alignment( final Element expected, final Element actual, final int candidateLimit,
+			final boolean exhaustiveFallback, final boolean parallel ) {
+		this.candidateLimit = candidateLimit;
+		this.exhaustiveFallback = exhaustiveFallback;
+		this.parallel = parallel;
 		final List<Element> expectedElements = flattenLeafElements( expected, expectedChildParentMapping );
 		final List<Element> actualElements = flattenLeafElements( actual, actualChildParentMapping );
 		log.debug(
 				"Creating assignment of old to new elements, trying to find differences. We are comparing {} with {} elements.",
 				expectedElements.size(), actualElements.size() );
-		alignment = createAlignment( expectedElements, toIdentityMapping( actualElements ) );
+		final Map<Element, Element> actualMapping = toIdentityMapping( actualElements );
+		if ( candidateLimit > 0 && actualElements.size() > candidateLimit ) {
+			final CandidateIndex index = new CandidateIndex( getUnmatchedElements( expectedElements, actualElements ) );
+			alignment = createAlignment( expectedElements, scoreMatches( expectedElements,
+					element -> getBestCandidateMatches( element, actualMapping, index ) ) );
+		} else {
+			alignment = createAlignment( expectedElements,
+					scoreMatches( expectedElements, element -> getBestMatches( element, actualMapping ) ) );
+		}
 		addParentAlignment();
 	}
 
+	/**
+	 * If enabled, scores the best matches of all given elements upfront and in parallel. Otherwise, each element is
+	 * scored lazily when it is aligned.
+	 */
+	private Function<Element, NavigableSet<Match>> scoreMatches( final List<Element> expectedElements,
+			final Function<Element, NavigableSet<Match>> bestMatchesFinder ) {
+		if ( !parallel ) {
+			return bestMatchesFinder;
+		}
+		final Map<Element, NavigableSet<Match>> bestMatches = expectedElements.parallelStream() //
+				.distinct() //
+				.collect( toConcurrentMap( Function.identity(), bestMatchesFinder ) );
+		// Elements can be aligned multiple times and the alignment consumes the matches, so hand out a copy.
+		return expected -> new TreeSet<>( (SortedSet<Match>) bestMatches.get( expected ) );
+	}
+
+	/**
+	 * Actual elements equal to an expected element are always aligned to that one, so they don't need to be considered
+	 * as candidates for other elements.
+	 */
+	private static List<Element> getUnmatchedElements( final List<Element> expectedElements,
+			final List<Element> actualElements ) {
+		final Set<Element> expected = new HashSet<>( expectedElements );
+		return actualElements.stream() //
+				.filter( actual -> !expected.contains( actual ) ) //
+				.collect( toList() );
+	}
+
 	private static List<Element> flattenLeafElements( final Element element,
 			final Map<Element, Element> childParentMapping ) {
 		final List<Element> flattened = new ArrayList<>();
@@ -65,8 +183,13 @@ public final class Alignment {
 		return flattened;
 	}
 
-	private Map<Element, Element> createAlignment( final List<Element> expectedElements,
+	private static Map<Element, Element> createAlignment( final List<Element> expectedElements,
 			final Map<Element, Element> actualElements ) {
+		return createAlignment( expectedElements, expected -> getBestMatches( expected, actualElements ) );
+	}
+
+	private static Map<Element, Element> createAlignment( final List<Element> expectedElements,
+			final Function<Element, NavigableSet<Match>> bestMatchesFinder ) {
 		final Deque<Element> elementsToAlign = toReverseDeque( expectedElements );
 		final Map<Element, Match> matches = new HashMap<>();
 		final Map<Element, Element> alignment = new HashMap<>();
@@ -74,7 +197,7 @@ public final class Alignment {
 		while ( !elementsToAlign.isEmpty() ) {
 			// Align elements from expected with best match.
 			final Element expected = elementsToAlign.pollLast();
-			final NavigableSet<Match> bestMatches = getBestMatches( expected, actualElements );
+			final NavigableSet<Match> bestMatches = bestMatchesFinder.apply( expected );
 			Match bestMatch = bestMatches.pollFirst();
 
 			while ( bestMatch != null ) {
@@ -117,6 +240,42 @@ public final class Alignment {
 		return alignment;
 	}
 
+	private static void alignContainedElements( final Element expected, final Element actual,
+			final Map<Element, Element> alignment, final List<Element> movedExpected,
+			final List<Element> movedActual ) {
+		final List<Element> expectedElements = expected.getContainedElements();
+		final List<Element> actualElements = actual.getContainedElements();
+		final Map<Element, Element> containedAlignment =
+				createAlignment( expectedElements, toIdentityMapping( actualElements ) );
+		final Set<Element> alignedActual = Collections.newSetFromMap( new IdentityHashMap<>() );
+
+		for ( final Element expectedElement : expectedElements ) {
+			final Element actualElement = containedAlignment.get( expectedElement );
+			if ( actualElement == null ) {
+				movedExpected.add( expectedElement );
+				continue;
+			}
+			alignment.put( expectedElement, actualElement );
+			alignedActual.add( actualElement );
+			alignContainedElements( expectedElement, actualElement, alignment, movedExpected, movedActual );
+		}
+
+		for ( final Element actualElement : actualElements ) {
+			if ( !alignedActual.contains( actualElement ) ) {
+				movedActual.add( actualElement );
+			}
+		}
+	}
+
+	private static void alignMovedElements( final List<Element> movedExpected, final List<Element> movedActual,
+			final Map<Element, Element> alignment ) {
+		final List<Element> expectedElements = flattenAllElements( movedExpected );
+		final List<Element> actualElements = flattenAllElements( movedActual );
+		log.debug( "Aligning {} with {} elements that could not be aligned within their parent.",
+				expectedElements.size(), actualElements.size() );
+		alignment.putAll( createAlignment( expectedElements, toIdentityMapping( actualElements ) ) );
+	}
+
 	static Deque<Element> toReverseDeque( final List<Element> expectedElements ) {
 		return expectedElements.stream().collect( collectingAndThen( toCollection( LinkedList::new ), deque -> {
 			Collections.reverse( deque );
@@ -133,9 +292,34 @@ public final class Alignment {
 			return new TreeSet<>( Collections.singleton( bestMatch ) );
 		}
 
+		return scoreMatches( expected, actualElements.keySet() );
+	}
+
+	/**
+	 * Like {@link #getBestMatches(Element, Map)}, but only scores the candidates found in the given index. If enabled
+	 * and none of the candidates is above the threshold, falls back to score all elements.
+	 */
+	private NavigableSet<Match> getBestCandidateMatches( final Element expected,
+			final Map<Element, Element> actualElements, final CandidateIndex index ) {
+		if ( actualElements.containsKey( expected ) ) {
+			return getBestMatches( expected, actualElements );
+		}
+
+		final NavigableSet<Match> bestMatches =
+				scoreMatches( expected, index.getCandidates( expected, candidateLimit ) );
+		if ( exhaustiveFallback
+				&& (bestMatches.isEmpty() || bestMatches.first().similarity < ELEMENT_MATCH_THRESHOLD) ) {
+			log.debug( "No candidate for {} is above threshold, falling back to score all elements.", expected );
+			return scoreMatches( expected, actualElements.keySet() );
+		}
+		return bestMatches;
+	}
+
+	private static NavigableSet<Match> scoreMatches( final Element expected,
+			final Collection<Element> actualElements ) {
 		final NavigableSet<Match> bestMatches = new TreeSet<>();
 
-		for ( final Element actual : actualElements.keySet() ) {
+		for ( final Element actual : actualElements ) {
 			final double similarity = match( expected, actual );
 			if ( similarity == 1.0 ) {
 				bestMatches.add( Match.ofEqual( actual ) );
@@ -148,12 +332,22 @@ public final class Alignment {
 	}
 
 	private void addParentAlignment() {
-		final Map<Element, Element> alignmentCopy = new HashMap<>( alignment );
-		for ( final Map.Entry<Element, Element> alignmentPair : alignmentCopy.entrySet() ) {
-			final List<Element> expectedParents = getParents( alignmentPair.getKey(), expectedChildParentMapping );
-			final List<Element> actualParents = getParents( alignmentPair.getValue(), actualChildParentMapping );
-			final Map<Element, Element> parentAlignment =
-					createAlignment( expectedParents, toIdentityMapping( actualParents ) );
+		final List<Map.Entry<Element, Element>> alignmentCopy = new ArrayList<>();
+		// Elements with the same parents result in the same parent alignment, so only create that once.
+		final Set<Pair<Element, Element>> parents = new HashSet<>();
+		for ( final Map.Entry<Element, Element> alignmentPair : new HashMap<>( alignment ).entrySet() ) {
+			if ( parents.add( Pair.of( expectedChildParentMapping.get( alignmentPair.getKey() ),
+					actualChildParentMapping.get( alignmentPair.getValue() ) ) ) ) {
+				alignmentCopy.add( alignmentPair );
+			}
+		}
+		final Stream<Map.Entry<Element, Element>> alignmentPairs =
+				parallel ? alignmentCopy.parallelStream() : alignmentCopy.stream();
+		// Parent alignments are independent of each other, but need to be merged in order.
+		final List<Map<Element, Element>> parentAlignments = alignmentPairs //
+				.map( this::createParentAlignment ) //
+				.collect( toList() );
+		for ( final Map<Element, Element> parentAlignment : parentAlignments ) {
 			for ( final Map.Entry<Element, Element> parentAlignmentPair : parentAlignment.entrySet() ) {
 				final Element aligned = alignment.get( parentAlignmentPair.getKey() );
 				if ( aligned == null ) {
@@ -171,6 +365,12 @@ public final class Alignment {
 		}
 	}
 
+	private Map<Element, Element> createParentAlignment( final Map.Entry<Element, Element> alignmentPair ) {
+		final List<Element> expectedParents = getParents( alignmentPair.getKey(), expectedChildParentMapping );
+		final List<Element> actualParents = getParents( alignmentPair.getValue(), actualChildParentMapping );
+		return createAlignment( expectedParents, toIdentityMapping( actualParents ) );
+	}
+
 	private List<Element> getParents( final Element element, final Map<Element, Element> childParentMapping ) {
 		final List<Element> parents = new ArrayList<>();
 		Element parent = childParentMapping.get( element );
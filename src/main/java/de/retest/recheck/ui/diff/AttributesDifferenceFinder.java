@@ -2,6 +2,7 @@ package de.retest.recheck.ui.diff;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -16,7 +17,6 @@ import de.retest.recheck.ui.descriptors.Element;
 import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
 import de.retest.recheck.ui.descriptors.ScreenshotAttributeDifference;
 import de.retest.recheck.ui.image.Screenshot;
-import de.retest.recheck.util.ListMap;
 
 public class AttributesDifferenceFinder {
 
@@ -28,32 +28,58 @@ public class AttributesDifferenceFinder {
 		this.defaultValueFinder = defaultValueFinder;
 	}
 
+	/**
+	 * Merges the attributes of both elements, which are ordered by their keys. Differences of expected attributes are
+	 * followed by differences of attributes only present in the actual element.
+	 */
 	public AttributesDifference differenceFor( final Element expected, final Element actual ) {
 		final IdentifyingAttributes identAttributes = expected.getIdentifyingAttributes();
 		final Attributes expectedCrit = expected.getAttributes();
 		final Attributes actualCrit = actual.getAttributes();
 		final List<AttributeDifference> differences = new ArrayList<>();
-		final Map<String, Serializable> unshownRightMap = new ListMap<>( actualCrit.getMap() );
-		for ( final Map.Entry<String, ? extends Serializable> leftEntry : expectedCrit.getMap().entrySet() ) {
-			final AttributeDifference attributeDifference =
-					differenceFor( identAttributes, (Serializable) leftEntry.getValue(),
-							(Serializable) actualCrit.get( leftEntry.getKey() ), leftEntry.getKey() );
-			if ( attributeDifference != null ) {
-				differences.add( attributeDifference );
+		List<AttributeDifference> additionalDifferences = null;
+		final Iterator<Map.Entry<String, Object>> expectedEntries = expectedCrit.entriesWithScreenshot();
+		final Iterator<Map.Entry<String, Object>> actualEntries = actualCrit.entriesWithScreenshot();
+		Map.Entry<String, Object> expectedEntry = next( expectedEntries );
+		Map.Entry<String, Object> actualEntry = next( actualEntries );
+		while ( expectedEntry != null || actualEntry != null ) {
+			final int order = expectedEntry == null ? 1
+					: actualEntry == null ? -1 : expectedEntry.getKey().compareTo( actualEntry.getKey() );
+			if ( order <= 0 ) {
+				final String key = expectedEntry.getKey();
+				final Object actualValue = order < 0 ? null
+						: key.equals( Attributes.SCREENSHOT ) ? actualCrit.get( key ) : actualEntry.getValue();
+				final AttributeDifference attributeDifference = differenceFor( identAttributes,
+						(Serializable) expectedEntry.getValue(), (Serializable) actualValue, key );
+				if ( attributeDifference != null ) {
+					differences.add( attributeDifference );
+				}
+				if ( order == 0 ) {
+					actualEntry = next( actualEntries );
+				}
+				expectedEntry = next( expectedEntries );
+			} else {
+				final AttributeDifference additionalDifference = differenceFor( identAttributes, null,
+						(Serializable) actualEntry.getValue(), actualEntry.getKey() );
+				if ( additionalDifference != null ) {
+					if ( additionalDifferences == null ) {
+						additionalDifferences = new ArrayList<>();
+					}
+					additionalDifferences.add( additionalDifference );
+				}
+				actualEntry = next( actualEntries );
 			}
-			unshownRightMap.remove( leftEntry.getKey() );
 		}
-		for ( final Map.Entry<String, Serializable> rightEntry : unshownRightMap.entrySet() ) {
-			final AttributeDifference optionalDifference =
-					differenceFor( identAttributes, (Serializable) expectedCrit.get( rightEntry.getKey() ),
-							rightEntry.getValue(), rightEntry.getKey() );
-			if ( optionalDifference != null ) {
-				differences.add( optionalDifference );
-			}
+		if ( additionalDifferences != null ) {
+			differences.addAll( additionalDifferences );
 		}
 		return differences.isEmpty() ? null : new AttributesDifference( differences );
 	}
 
+	private static <T> T next( final Iterator<T> iterator ) {
+		return iterator.hasNext() ? iterator.next() : null;
+	}
+
 	private AttributeDifference differenceFor( final IdentifyingAttributes identAttributes, final Serializable expected,
 			final Serializable actual, final String key ) {
 		if ( GloballyIgnoredAttributes.getInstance().shouldIgnoreAttribute( key ) ) {
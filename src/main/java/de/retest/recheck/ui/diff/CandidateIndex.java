@@ -0,0 +1,127 @@
+package de.retest.recheck.ui.diff;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import de.retest.recheck.ui.descriptors.Attribute;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+
+/**
+ * Buckets elements by cheap, exact keys (retest ID, path, type combined with text, parent path or coarse position), so
+ * that {@link Alignment} only has to score a few promising candidates per element instead of all of them.
+ *
+ * The buckets are queried in the order of their expressiveness, i.e. elements sharing the retest ID come first,
+ * elements only sharing the type and rough position come last. Buckets holding more elements than requested are not
+ * expressive at all and therefore skipped.
+ */
+final class CandidateIndex {
+
+	/**
+	 * Size in pixels of the grid cells used to bucket elements by their position.
+	 */
+	private static final int OUTLINE_GRID_SIZE = 50;
+
+	private static final String KEY_SEPARATOR = "#";
+
+	private final Map<String, List<Element>> byRetestId = new HashMap<>();
+	private final Map<String, List<Element>> byPath = new HashMap<>();
+	private final Map<String, List<Element>> byTypeAndText = new HashMap<>();
+	private final Map<String, List<Element>> byTypeAndParentPath = new HashMap<>();
+	private final Map<String, List<Element>> byTypeAndOutline = new HashMap<>();
+
+	CandidateIndex( final Collection<Element> elements ) {
+		for ( final Element element : elements ) {
+			add( byRetestId, retestIdKey( element ), element );
+			add( byPath, pathKey( element ), element );
+			add( byTypeAndText, typeAndTextKey( element ), element );
+			add( byTypeAndParentPath, typeAndParentPathKey( element ), element );
+			add( byTypeAndOutline, typeAndOutlineKey( element ), element );
+		}
+	}
+
+	private static void add( final Map<String, List<Element>> bucket, final String key, final Element element ) {
+		if ( key != null ) {
+			bucket.computeIfAbsent( key, k -> new ArrayList<>() ).add( element );
+		}
+	}
+
+	/**
+	 * @param element
+	 *            element to find candidates for
+	 * @param limit
+	 *            maximum number of candidates to return
+	 * @return up to {@code limit} distinct candidates, most promising first
+	 */
+	List<Element> getCandidates( final Element element, final int limit ) {
+		final List<Element> candidates = new ArrayList<>( limit );
+		final Set<Element> seen = Collections.newSetFromMap( new IdentityHashMap<>() );
+		collect( byRetestId, retestIdKey( element ), candidates, seen, limit );
+		collect( byPath, pathKey( element ), candidates, seen, limit );
+		collect( byTypeAndText, typeAndTextKey( element ), candidates, seen, limit );
+		collect( byTypeAndParentPath, typeAndParentPathKey( element ), candidates, seen, limit );
+		collect( byTypeAndOutline, typeAndOutlineKey( element ), candidates, seen, limit );
+		return candidates;
+	}
+
+	private static void collect( final Map<String, List<Element>> bucket, final String key,
+			final List<Element> candidates, final Set<Element> seen, final int limit ) {
+		if ( key == null ) {
+			return;
+		}
+		final List<Element> elements = bucket.getOrDefault( key, Collections.emptyList() );
+		if ( elements.size() > limit ) {
+			return;
+		}
+		for ( final Element candidate : elements ) {
+			if ( candidates.size() >= limit ) {
+				return;
+			}
+			if ( seen.add( candidate ) ) {
+				candidates.add( candidate );
+			}
+		}
+	}
+
+	private static String retestIdKey( final Element element ) {
+		return StringUtils.defaultIfEmpty( element.getRetestId(), null );
+	}
+
+	private static String pathKey( final Element element ) {
+		return element.getIdentifyingAttributes().getPath();
+	}
+
+	private static String typeAndTextKey( final Element element ) {
+		final Attribute text = element.getIdentifyingAttributes().getAttribute( "text" );
+		if ( text == null || text.getValue() == null ) {
+			return null;
+		}
+		return typeKey( element ) + KEY_SEPARATOR + text.getValue();
+	}
+
+	private static String typeAndParentPathKey( final Element element ) {
+		return typeKey( element ) + KEY_SEPARATOR + element.getIdentifyingAttributes().getParentPath();
+	}
+
+	private static String typeAndOutlineKey( final Element element ) {
+		final Rectangle outline = element.getIdentifyingAttributes().getOutlineRectangle();
+		if ( outline == null ) {
+			return null;
+		}
+		return typeKey( element ) + KEY_SEPARATOR + outline.x / OUTLINE_GRID_SIZE + KEY_SEPARATOR
+				+ outline.y / OUTLINE_GRID_SIZE;
+	}
+
+	private static String typeKey( final Element element ) {
+		return element.getIdentifyingAttributes().get( IdentifyingAttributes.TYPE_ATTRIBUTE_KEY );
+	}
+}
@@ -5,12 +5,32 @@ import static de.retest.recheck.ui.descriptors.ElementUtil.flattenChildElements;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.ui.DefaultValueFinder;
+import de.retest.recheck.ui.descriptors.Attributes;
 import de.retest.recheck.ui.descriptors.Element;
 
 public class ElementDifferenceFinder {
 
+	private static final Logger logger = LoggerFactory.getLogger( ElementDifferenceFinder.class );
+
+	private static final boolean ELEMENT_MATCH_PARALLEL = RecheckProperties.getInstance().elementMatchParallel();
+	private static final boolean ELEMENT_MATCH_HIERARCHICAL =
+			RecheckProperties.getInstance().elementMatchHierarchical();
+
+	static {
+		if ( ELEMENT_MATCH_HIERARCHICAL && ELEMENT_MATCH_PARALLEL ) {
+			logger.warn( "Both '{}' and '{}' are set, but they are exclusive. Using the hierarchical alignment only.",
+					RecheckProperties.ELEMENT_MATCH_HIERARCHICAL_PROPERTY_KEY,
+					RecheckProperties.ELEMENT_MATCH_PARALLEL_PROPERTY_KEY );
+		}
+	}
+
 	private final IdentifyingAttributesDifferenceFinder identAttrDiffFinder;
 	private final AttributesDifferenceFinder attributesDifferenceFinder;
 
@@ -19,10 +39,9 @@ public class ElementDifferenceFinder {
 		attributesDifferenceFinder = new AttributesDifferenceFinder( defaultValueFinder );
 	}
 
-	// TODO We can have more performance optimization: a cell can only life in a row, a row only in a table etc.
 	public Collection<ElementDifference> findChildDifferences( final Element expectedComponent,
 			final Element actualComponent ) {
-		final Alignment alignment = Alignment.createAlignment( expectedComponent, actualComponent );
+		final Alignment alignment = createAlignment( expectedComponent, actualComponent );
 		// Recreate original structure for difference, so we can skip if there are too many child differences per comp.
 		final List<Element> remainingActual = new ArrayList<>( flattenChildElements( actualComponent ) );
 		final Collection<ElementDifference> result =
@@ -37,11 +56,26 @@ public class ElementDifferenceFinder {
 		return result;
 	}
 
+	private static Alignment createAlignment( final Element expectedComponent, final Element actualComponent ) {
+		if ( ELEMENT_MATCH_HIERARCHICAL ) {
+			// A cell can only live in a row, a row only in a table etc.
+			return Alignment.createHierarchicalAlignment( expectedComponent, actualComponent );
+		}
+		if ( ELEMENT_MATCH_PARALLEL ) {
+			return Alignment.createParallelAlignment( expectedComponent, actualComponent );
+		}
+		return Alignment.createAlignment( expectedComponent, actualComponent );
+	}
+
 	private Collection<ElementDifference> createHierarchicalStructure( final List<Element> expected,
 			final List<Element> remainingActual, final Alignment alignment ) {
 		final Collection<ElementDifference> result = new ArrayList<>();
 		for ( final Element childComp : expected ) {
 			final Element actualChild = alignment.getActual( childComp );
+			if ( isUnchanged( childComp, actualChild, alignment ) ) {
+				removeAligned( childComp, remainingActual, alignment );
+				continue;
+			}
 			final ElementDifference difference = differenceFor( childComp, actualChild, remainingActual, alignment );
 			if ( difference != null ) {
 				result.add( difference );
@@ -51,6 +85,57 @@ public class ElementDifferenceFinder {
 		return result;
 	}
 
+	/**
+	 * An unchanged subtree, i.e. one with identical elements aligned position by position, has no differences and is
+	 * skipped without comparing any of its attributes. Different subtrees are mostly told apart by their fingerprints,
+	 * equal fingerprints are confirmed by a single walk over the subtree, as they may collide.
+	 *
+	 * @param alignment
+	 *            the alignment the actual elements must match, <code>null</code> to only compare the subtrees
+	 */
+	private static boolean isUnchanged( final Element expected, final Element actual, final Alignment alignment ) {
+		return actual != null && expected.getFingerprint() == actual.getFingerprint()
+				&& isSameSubtree( expected, actual, alignment );
+	}
+
+	private static boolean isSameSubtree( final Element expected, final Element actual, final Alignment alignment ) {
+		if ( !expected.getIdentifyingAttributes().equals( actual.getIdentifyingAttributes() )
+				|| !expected.getAttributes().equals( actual.getAttributes() ) ) {
+			return false;
+		}
+		// Attributes only contain the persistence ID of a screenshot, but differences also consider its content.
+		if ( !Objects.equals( expected.getAttributes().get( Attributes.SCREENSHOT ),
+				actual.getAttributes().get( Attributes.SCREENSHOT ) ) ) {
+			return false;
+		}
+		final List<Element> expectedChildren = expected.getContainedElements();
+		final List<Element> actualChildren = actual.getContainedElements();
+		if ( expectedChildren.size() != actualChildren.size() ) {
+			return false;
+		}
+		for ( int i = 0; i < expectedChildren.size(); i++ ) {
+			final Element expectedChild = expectedChildren.get( i );
+			final Element actualChild = actualChildren.get( i );
+			if ( alignment != null && alignment.getActual( expectedChild ) != actualChild
+					|| !isSameSubtree( expectedChild, actualChild, alignment ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the actual elements aligned to the given subtree in the same order as
+	 * {@link #createHierarchicalStructure(List, List, Alignment)} does.
+	 */
+	private static void removeAligned( final Element expected, final List<Element> remainingActual,
+			final Alignment alignment ) {
+		for ( final Element child : expected.getContainedElements() ) {
+			removeAligned( child, remainingActual, alignment );
+		}
+		remainingActual.remove( alignment.getActual( expected ) );
+	}
+
 	private ElementDifference differenceFor( final Element expected, final Element actual,
 			final List<Element> remainingActual, final Alignment alignment ) {
 		AttributesDifference attributesDifference = null;
@@ -79,6 +164,9 @@ public class ElementDifferenceFinder {
 	}
 
 	public ElementDifference differenceFor( final Element expected, final Element actual ) {
+		if ( expected != null && isUnchanged( expected, actual, null ) ) {
+			return null;
+		}
 		AttributesDifference attributesDifference = null;
 		LeafDifference identifyingAttributesDifference = null;
 		final Collection<ElementDifference> childDifferences = new ArrayList<>();
@@ -1,6 +1,10 @@
 package de.retest.recheck.ui.image;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
@@ -14,6 +18,10 @@ import de.retest.recheck.util.ChecksumCalculator;
  * We use this class that simply wraps a byte array instead of the Java internal format
  * {@link java.awt.image.BufferedImage}, because a screenshot is a small PNG of a few KB size, but a huuuuge
  * BufferedImage that very quickly fills up our working memory...
+ *
+ * The binary data can also be loaded on demand from a {@link BinaryDataSource}. Then it is only kept softly reachable,
+ * so it can be garbage collected under memory pressure and is loaded again when needed. Its SHA-256 is given along with
+ * the source, so that {@link #equals(Object)} and {@link #hashCode()} never load the binary data.
  */
 @XmlRootElement
 @XmlAccessorType( XmlAccessType.FIELD )
@@ -29,12 +37,26 @@ public class Screenshot implements Serializable {
 		}
 	}
 
+	/**
+	 * Loads the binary data of a screenshot, e.g. from the file of a golden master.
+	 */
+	@FunctionalInterface
+	public interface BinaryDataSource {
+		byte[] load() throws IOException;
+	}
+
 	@XmlElement
 	private final String persistenceId;
 
 	@XmlTransient
 	private byte[] binaryData;
 
+	@XmlTransient
+	private transient BinaryDataSource binaryDataSource;
+
+	@XmlTransient
+	private transient SoftReference<byte[]> loadedBinaryData;
+
 	@XmlTransient
 	private transient String sha256;
 
@@ -59,17 +81,50 @@ public class Screenshot implements Serializable {
 		this.binaryData = binaryData;
 		this.type = type;
 		this.persistenceId = persistenceId;
-		ensureSha();
 	}
 
+	/**
+	 * @return the binary data, loaded from the {@link BinaryDataSource} if necessary
+	 * @throws UncheckedIOException
+	 *             if the binary data cannot be loaded
+	 */
 	public byte[] getBinaryData() {
-		return binaryData;
+		if ( binaryData != null || binaryDataSource == null ) {
+			return binaryData;
+		}
+		byte[] loaded = loadedBinaryData == null ? null : loadedBinaryData.get();
+		if ( loaded == null ) {
+			try {
+				loaded = binaryDataSource.load();
+			} catch ( final IOException e ) {
+				throw new UncheckedIOException( "Could not load binary data of " + this + ".", e );
+			}
+			loadedBinaryData = new SoftReference<>( loaded );
+		}
+		return loaded;
 	}
 
 	public void setBinaryData( final byte[] binaryData ) {
 		this.binaryData = binaryData;
+		binaryDataSource = null;
+		loadedBinaryData = null;
 		sha256 = null;
-		ensureSha();
+	}
+
+	/**
+	 * @param binaryDataSource
+	 *            the source to load the binary data from, not before it is needed
+	 * @param sha256
+	 *            the SHA-256 of the binary data the source loads
+	 */
+	public void setBinaryDataSource( final BinaryDataSource binaryDataSource, final String sha256 ) {
+		if ( sha256 == null ) {
+			throw new NullPointerException( "sha256 must not be null." );
+		}
+		binaryData = null;
+		this.binaryDataSource = binaryDataSource;
+		loadedBinaryData = null;
+		this.sha256 = sha256;
 	}
 
 	public ImageType getType() {
@@ -80,10 +135,20 @@ public class Screenshot implements Serializable {
 		return persistenceId;
 	}
 
+	/**
+	 * @return the SHA-256 of the binary data, the empty string if there is none
+	 */
+	public String getSha256() {
+		if ( sha256 == null ) {
+			ensureSha();
+		}
+		return sha256;
+	}
+
 	@Override
 	public int hashCode() {
-		ensureSha();
-		return type.hashCode() + (persistenceId.hashCode() * 31 + sha256.hashCode()) * 31;
+		// Without the SHA-256, so that it does not change along with the binary data.
+		return type.hashCode() + persistenceId.hashCode() * 31;
 	}
 
 	@Override
@@ -106,12 +171,11 @@ public class Screenshot implements Serializable {
 		}
 
 		// most expensive, should be last
-		ensureSha();
-		other.ensureSha();
-		return sha256.equals( other.sha256 );
+		return getSha256().equals( other.getSha256() );
 	}
 
 	private void ensureSha() {
+		// The SHA-256 of binary data loaded on demand is always given along with its source.
 		if ( binaryData != null ) {
 			sha256 = ChecksumCalculator.getInstance().sha256( binaryData );
 		} else {
@@ -119,6 +183,15 @@ public class Screenshot implements Serializable {
 		}
 	}
 
+	private void writeObject( final ObjectOutputStream out ) throws IOException {
+		// Writes the binary data loaded on demand without keeping it strongly reachable.
+		final ObjectOutputStream.PutField fields = out.putFields();
+		fields.put( "persistenceId", persistenceId );
+		fields.put( "binaryData", getBinaryData() );
+		fields.put( "type", type );
+		out.writeFields();
+	}
+
 	@Override
 	public String toString() {
 		return "Screenshot of " + persistenceId;
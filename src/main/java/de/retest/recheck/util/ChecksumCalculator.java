@@ -1,6 +1,9 @@
 package de.retest.recheck.util;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -25,6 +28,24 @@ public class ChecksumCalculator {
 		return getDigest( "SHA-256", input );
 	}
 
+	/**
+	 * @param input
+	 *            stream to hash, read until its end without keeping its content
+	 * @return hashed input stream
+	 * @throws IOException
+	 *             if the stream cannot be read
+	 */
+	public String sha256( final InputStream input ) throws IOException {
+		final MessageDigest digest = getMessageDigest( "SHA-256" );
+		final byte[] buffer = new byte[8192];
+		try ( DigestInputStream in = new DigestInputStream( input, digest ) ) {
+			while ( in.read( buffer ) != -1 ) {
+				// Only digest.
+			}
+		}
+		return bytesToHex( digest.digest() );
+	}
+
 	/**
 	 * @param input
 	 *            string to hash
@@ -48,10 +69,13 @@ public class ChecksumCalculator {
 	}
 
 	private String getDigest( final String algorithm, final byte[] input ) {
+		final byte[] hash = getMessageDigest( algorithm ).digest( input );
+		return bytesToHex( hash );
+	}
+
+	private static MessageDigest getMessageDigest( final String algorithm ) {
 		try {
-			final MessageDigest digest = MessageDigest.getInstance( algorithm );
-			final byte[] hash = digest.digest( input );
-			return bytesToHex( hash );
+			return MessageDigest.getInstance( algorithm );
 		} catch ( final NoSuchAlgorithmException e ) {
 			throw new RuntimeException( e );
 		}
@@ -4,13 +4,12 @@ import java.util.Locale;
 import java.util.Objects;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.text.similarity.FuzzyScore;
 
 public class StringSimilarity {
 
 	private StringSimilarity() {}
 
-	private static final FuzzyScore fuzzyScore = new FuzzyScore( Locale.GERMAN );
+	private static final Locale LOCALE = Locale.GERMAN;
 
 	public static double textSimilarity( final String text0, final String text1 ) {
 		if ( text0 == null || text1 == null ) {
@@ -21,21 +20,76 @@ public class StringSimilarity {
 			return 1.0;
 		}
 
-		final double fuzzyDistance = fuzzyScore.fuzzyScore( text0, text1 );
+		return textSimilarity( PreparedText.of( text0 ), PreparedText.of( text1 ) );
+	}
+
+	/**
+	 * Same as {@link #textSimilarity(String, String)}, but for texts that are compared repeatedly.
+	 *
+	 * @param text0
+	 *            the first text
+	 * @param text1
+	 *            the second text
+	 * @return similarity in [0,1]
+	 */
+	public static double textSimilarity( final PreparedText text0, final PreparedText text1 ) {
+		if ( text0.value == null || text1.value == null ) {
+			return simpleSimilarity( text0.value, text1.value );
+		}
+
+		if ( text0.value.equals( text1.value ) ) {
+			return 1.0;
+		}
+
+		// Without any common character, there can't be any fuzzy score.
+		if ( (text0.characterMask & text1.characterMask) == 0L ) {
+			return 0.0;
+		}
+
+		final double fuzzyDistance = fuzzyScore( text0.lowerCase, text1.lowerCase );
 
 		if ( fuzzyDistance == 0.0 ) {
 			return 0.0;
 		}
 
-		final double maxLength = Math.max( text0.length(), text1.length() );
+		final double maxLength = Math.max( text0.value.length(), text1.value.length() );
 		final double similarity = fuzzyDistance / (maxLength * 4.0);
 
-		assert similarity >= 0.0 && similarity <= 1.0 : "text0 is: '" + text0 + "' - text1 is: '" + text1
+		assert similarity >= 0.0 && similarity <= 1.0 : "text0 is: '" + text0.value + "' - text1 is: '" + text1.value
 				+ "', result is:" + similarity;
 
 		return similarity;
 	}
 
+	/**
+	 * Same algorithm as {@link org.apache.commons.text.similarity.FuzzyScore}, but on already lower-cased strings: Each
+	 * character of the query found in the term (in order) scores one point, plus two bonus points if it immediately
+	 * follows the previous match.
+	 */
+	private static int fuzzyScore( final String term, final String query ) {
+		int score = 0;
+		int termIndex = 0;
+		int previousMatchingCharacterIndex = Integer.MIN_VALUE;
+
+		for ( int queryIndex = 0; queryIndex < query.length() && termIndex < term.length(); queryIndex++ ) {
+			final char queryChar = query.charAt( queryIndex );
+			while ( termIndex < term.length() ) {
+				final char termChar = term.charAt( termIndex );
+				if ( queryChar == termChar ) {
+					score++;
+					if ( previousMatchingCharacterIndex + 1 == termIndex ) {
+						score += 2;
+					}
+					previousMatchingCharacterIndex = termIndex++;
+					break;
+				}
+				termIndex++;
+			}
+		}
+
+		return score;
+	}
+
 	public static double pathSimilarity( final String path0, final String path1 ) {
 		if ( path0 == null || path1 == null ) {
 			return simpleSimilarity( path0, path1 );
@@ -45,14 +99,35 @@ public class StringSimilarity {
 			return 1.0;
 		}
 
-		final String cleanPath0 = removeBrackets( path0 );
-		final String cleanPath1 = removeBrackets( path1 );
+		return pathSimilarity( PreparedPath.of( path0 ), PreparedPath.of( path1 ) );
+	}
+
+	/**
+	 * Same as {@link #pathSimilarity(String, String)}, but for paths that are compared repeatedly.
+	 *
+	 * @param path0
+	 *            the first path
+	 * @param path1
+	 *            the second path
+	 * @return similarity in [0,1]
+	 */
+	public static double pathSimilarity( final PreparedPath path0, final PreparedPath path1 ) {
+		if ( path0.value == null || path1.value == null ) {
+			return simpleSimilarity( path0.value, path1.value );
+		}
+
+		if ( path0.value.equals( path1.value ) ) {
+			return 1.0;
+		}
+
+		final String cleanPath0 = path0.withoutBrackets;
+		final String cleanPath1 = path1.withoutBrackets;
 
 		if ( cleanPath0.isEmpty() || cleanPath1.isEmpty() ) {
 			return 0.0;
 		}
 
-		final int commonPrefixLength = StringUtils.getCommonPrefix( cleanPath0, cleanPath1 ).length();
+		final int commonPrefixLength = getCommonPrefixLength( cleanPath0, cleanPath1 );
 		final int commonSuffixLength = getCommonSuffixStartingAt( cleanPath0, cleanPath1, commonPrefixLength );
 		final int minLength = Math.min( cleanPath0.length(), cleanPath1.length() );
 		final int maxLength = Math.max( cleanPath0.length(), cleanPath1.length() );
@@ -62,12 +137,17 @@ public class StringSimilarity {
 		double similarity = (maxLength - difference) / (double) maxLength;
 		similarity = similarity * similarity;
 
-		assert similarity >= 0.0 && similarity <= 1.0 : "path0 is: '" + path0 + "' - path1 is: '" + path1
+		assert similarity >= 0.0 && similarity <= 1.0 : "path0 is: '" + path0.value + "' - path1 is: '" + path1.value
 				+ "', result is:" + similarity;
 
 		return similarity;
 	}
 
+	private static int getCommonPrefixLength( final String path0, final String path1 ) {
+		final int length = StringUtils.indexOfDifference( path0, path1 );
+		return length == StringUtils.INDEX_NOT_FOUND ? path0.length() : length;
+	}
+
 	private static int getCommonSuffixStartingAt( final String path0, final String path1, final int start ) {
 		int commonSuffixLength = 0;
 		for ( int idxP0 = path0.length() - 1, idxP1 = path1.length() - 1; idxP0 >= start
@@ -88,7 +168,65 @@ public class StringSimilarity {
 	}
 
 	private static String removeBrackets( final String path ) {
-		return path.replaceAll( "[\\[\\]]", "" );
+		final StringBuilder result = new StringBuilder( path.length() );
+		for ( int i = 0; i < path.length(); i++ ) {
+			final char c = path.charAt( i );
+			if ( c != '[' && c != ']' ) {
+				result.append( c );
+			}
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Each character sets one of 64 bits (its value modulo 64), so two strings without a common character have disjoint masks.
+	 */
+	private static long characterMask( final String text ) {
+		long mask = 0L;
+		for ( int i = 0; i < text.length(); i++ ) {
+			mask |= 1L << text.charAt( i );
+		}
+		return mask;
+	}
+
+	/**
+	 * A text together with its lower-cased form and character mask, as needed by
+	 * {@link StringSimilarity#textSimilarity(PreparedText, PreparedText)}.
+	 */
+	public static final class PreparedText {
+
+		private final String value;
+		private final String lowerCase;
+		private final long characterMask;
+
+		private PreparedText( final String value ) {
+			this.value = value;
+			lowerCase = value == null ? null : value.toLowerCase( LOCALE );
+			characterMask = lowerCase == null ? 0L : characterMask( lowerCase );
+		}
+
+		public static PreparedText of( final String value ) {
+			return new PreparedText( value );
+		}
+	}
+
+	/**
+	 * A path together with its form without brackets, as needed by
+	 * {@link StringSimilarity#pathSimilarity(PreparedPath, PreparedPath)}.
+	 */
+	public static final class PreparedPath {
+
+		private final String value;
+		private final String withoutBrackets;
+
+		private PreparedPath( final String value ) {
+			this.value = value;
+			withoutBrackets = value == null ? null : removeBrackets( value );
+		}
+
+		public static PreparedPath of( final String value ) {
+			return new PreparedPath( value );
+		}
 	}
 
 }
@@ -52,6 +52,18 @@ class SuiteAggregatorTest {
 		assertThat( aggregatedTestReport.getSuiteReplayResults() ).containsExactly( currentSuite, nextSuite );
 	}
 
+	@Test
+	void released_suite_should_be_removed_from_aggregated_test_report_but_still_returned() throws Exception {
+		final String suiteName = "de.retest.foo";
+		final SuiteAggregator cut = SuiteAggregator.getTestInstance();
+		final SuiteReplayResult currentSuite = cut.getSuite( suiteName );
+
+		cut.release( currentSuite );
+
+		assertThat( cut.getAggregatedTestReport().getSuiteReplayResults() ).isEmpty();
+		assertThat( cut.getSuite( suiteName ) ).isSameAs( currentSuite );
+	}
+
 	@Test
 	void getSuite_with_test_source_root_should_properly_return_path( @TempDir final Path path ) {
 		final SuiteAggregator cut = SuiteAggregator.getTestInstance();
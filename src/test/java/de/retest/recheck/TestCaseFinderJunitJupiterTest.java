@@ -3,6 +3,7 @@ package de.retest.recheck;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -42,6 +43,17 @@ class TestCaseFinderJunitJupiterTest {
 		assertAll( expectedClassName, expectedMethodName, expectedType, expectedInvocationCount );
 	}
 
+	@Test
+	void test_case_of_other_thread_should_be_found() throws Exception {
+		final AtomicReference<Optional<String>> methodName = new AtomicReference<>();
+		final Thread thread = new Thread(
+				() -> methodName.set( TestCaseFinder.getInstance().findTestCaseMethodNameInStack() ) );
+		thread.start();
+		thread.join();
+
+		assertThat( methodName.get() ).hasValue( "test_case_of_other_thread_should_be_found" );
+	}
+
 	@BeforeEach
 	void junit_jupiter_before_each_annotation_should_be_found() throws Exception {
 		final String expectedClassName = getClass().getName();
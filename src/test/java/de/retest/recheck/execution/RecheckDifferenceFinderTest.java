@@ -98,4 +98,18 @@ class RecheckDifferenceFinderTest {
 		assertThat( differences.hasDifferences() ).isFalse();
 		assertThat( differences.getMetadataDifference() ).isNotEmpty();
 	}
+
+	@Test
+	void find_no_differences_should_create_result_with_metadata_differences_only() {
+		final SutState expected = new SutState( Collections.emptySet(), () -> Collections.singletonMap( "os", "linux" ) );
+		final SutState actual = new SutState( Collections.emptySet(), () -> Collections.singletonMap( "os", "mac" ) );
+
+		final RecheckDifferenceFinder cut = new RecheckDifferenceFinder( null, "foo", "" );
+
+		final ActionReplayResult differences = cut.findNoDifferences( expected, actual );
+
+		assertThat( differences.hasDifferences() ).isFalse();
+		assertThat( differences.getMetadataDifference() ).isNotEmpty();
+		assertThat( cut.findNoDifferences( actual, actual ).getMetadataDifference().isEmpty() ).isTrue();
+	}
 }
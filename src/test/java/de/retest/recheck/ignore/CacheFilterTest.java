@@ -1,13 +1,30 @@
 package de.retest.recheck.ignore;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
+import de.retest.recheck.ignore.Filter.ChangeType;
+import de.retest.recheck.ui.Path;
 import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.MutableAttributes;
+import de.retest.recheck.ui.descriptors.RootElement;
 import de.retest.recheck.ui.diff.AttributeDifference;
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
 
 class CacheFilterTest {
 
@@ -54,4 +71,149 @@ class CacheFilterTest {
 		verify( base ).matches( element, attributeKey );
 		verifyNoMoreInteractions( base );
 	}
+
+	@Test
+	void matches_change_type_should_not_share_cache_with_other_change_types() {
+		final Element element = mock( Element.class );
+		final Filter base = mock( Filter.class );
+		when( base.matches( element, ChangeType.INSERTED ) ).thenReturn( true );
+
+		final CacheFilter cut = new CacheFilter( base );
+
+		assertThat( cut.matches( element ) ).isFalse();
+		assertThat( cut.matches( element, ChangeType.INSERTED ) ).isTrue();
+		assertThat( cut.matches( element, ChangeType.DELETED ) ).isFalse();
+		assertThat( cut.matches( element, ChangeType.INSERTED ) ).isTrue();
+
+		verify( base ).matches( element );
+		verify( base ).matches( element, ChangeType.INSERTED );
+		verify( base ).matches( element, ChangeType.DELETED );
+		verifyNoMoreInteractions( base );
+	}
+
+	@Test
+	void matches_should_distinguish_elements_with_different_attributes() {
+		final Filter base = mock( Filter.class );
+		final Element red = createElement( "foo", "red" );
+		final Element blue = createElement( "foo", "blue" );
+		when( base.matches( red ) ).thenReturn( true );
+
+		final CacheFilter cut = new CacheFilter( base );
+
+		assertThat( cut.matches( red ) ).isTrue();
+		assertThat( cut.matches( blue ) ).isFalse();
+		assertThat( cut.matches( createElement( "foo", "red" ) ) ).isTrue();
+
+		verify( base ).matches( red );
+		verify( base ).matches( blue );
+		verifyNoMoreInteractions( base );
+	}
+
+	@Test
+	void matches_should_distinguish_elements_with_colliding_hash_codes() {
+		final Filter base = mock( Filter.class );
+		final Element aa = createElement( "foo", "Aa" );
+		final Element bb = createElement( "foo", "BB" );
+		assertThat( aa.getAttributes().hashCode() ).isEqualTo( bb.getAttributes().hashCode() );
+		when( base.matches( aa ) ).thenReturn( true );
+
+		final CacheFilter cut = new CacheFilter( base );
+
+		assertThat( cut.matches( aa ) ).isTrue();
+		assertThat( cut.matches( bb ) ).isFalse();
+	}
+
+	@Test
+	void matches_should_neither_load_nor_compare_screenshots() {
+		final Filter base = mock( Filter.class );
+		final MutableAttributes attributes = new MutableAttributes();
+		final Screenshot screenshot = new Screenshot( "shot", new byte[0], ImageType.PNG );
+		screenshot.setBinaryDataSource( () -> {
+			throw new IOException( "must not be loaded" );
+		}, "sha" );
+		attributes.put( screenshot );
+		final Element element = Element.create( "id",
+				new RootElement( "html", IdentifyingAttributes.create( Path.fromString( "/html[1]" ), "html" ),
+						new MutableAttributes().immutable(), null, "screen", -1, "title" ),
+				IdentifyingAttributes.create( Path.fromString( "/html[1]/div[1]" ), "div" ), attributes.immutable() );
+
+		final CacheFilter cut = new CacheFilter( base );
+		cut.matches( element );
+		cut.matches( element );
+
+		verify( base, times( 1 ) ).matches( element );
+	}
+
+	@Test
+	void cache_should_be_bounded_and_record_evictions() {
+		final Filter base = mock( Filter.class );
+
+		final CacheFilter cut = new CacheFilter( base, 10 );
+
+		IntStream.range( 0, 100 ).forEach( i -> cut.matches( createElement( "id" + i, "red" ) ) );
+		cut.matches( createElement( "id99", "red" ) );
+
+		assertThat( cut.size() ).isLessThanOrEqualTo( 10 );
+		assertThat( cut.getStats().missCount() ).isEqualTo( 100 );
+		assertThat( cut.getStats().hitCount() ).isEqualTo( 1 );
+		assertThat( cut.getStats().evictionCount() ).isGreaterThanOrEqualTo( 90 );
+	}
+
+	@Test
+	void matches_should_be_thread_safe() {
+		final Filter base = mock( Filter.class );
+		when( base.matches( any( Element.class ), any( String.class ) ) ).thenReturn( true );
+		final Element[] elements =
+				IntStream.range( 0, 50 ).mapToObj( i -> createElement( "id" + i, "red" ) ).toArray( Element[]::new );
+
+		final CacheFilter cut = new CacheFilter( base );
+
+		assertThat( IntStream.range( 0, 10_000 ).parallel()
+				.allMatch( i -> cut.matches( elements[i % elements.length], "key" + i % 20 ) ) ).isTrue();
+		assertThat( cut.size() ).isEqualTo( 100 );
+		verify( base, times( 100 ) ).matches( any( Element.class ), any( String.class ) );
+	}
+
+	@Test
+	void matches_should_rethrow_exceptions_of_base() {
+		final Element element = mock( Element.class );
+		final Filter base = mock( Filter.class );
+		when( base.matches( element ) ).thenThrow( new IllegalArgumentException( "broken filter" ) );
+
+		final CacheFilter cut = new CacheFilter( base );
+
+		assertThatThrownBy( () -> cut.matches( element ) ).isInstanceOf( IllegalArgumentException.class )
+				.hasMessage( "broken filter" );
+	}
+
+	@Test
+	void matching_should_only_pass_uncached_differences_to_base() {
+		final Element element = mock( Element.class );
+		final AttributeDifference outline = new AttributeDifference( "outline", "1", "2" );
+		final AttributeDifference color = new AttributeDifference( "color", "red", "blue" );
+		final Filter base = mock( Filter.class );
+		when( base.matches( element, outline ) ).thenReturn( true );
+		when( base.matching( element, Arrays.asList( color ) ) ).thenReturn( Collections.singleton( color ) );
+
+		final CacheFilter cut = new CacheFilter( base );
+
+		assertThat( cut.matches( element, outline ) ).isTrue();
+		assertThat( cut.matching( element, Arrays.asList( outline, color ) ) ).containsOnly( outline, color );
+		assertThat( cut.matching( element, Arrays.asList( outline, color ) ) ).containsOnly( outline, color );
+
+		verify( base ).matches( element, outline );
+		verify( base ).matching( element, Arrays.asList( color ) );
+		verifyNoMoreInteractions( base );
+	}
+
+	private static Element createElement( final String retestId, final String color ) {
+		final MutableAttributes attributes = new MutableAttributes();
+		attributes.put( "color", color );
+		final IdentifyingAttributes identifying =
+				IdentifyingAttributes.create( Path.fromString( "/html[1]/div[1]" ), "div" );
+		return Element.create( retestId,
+				new RootElement( "html", IdentifyingAttributes.create( Path.fromString( "/html[1]" ), "html" ),
+						new MutableAttributes().immutable(), null, "screen", -1, "title" ),
+				identifying, attributes.immutable() );
+	}
 }
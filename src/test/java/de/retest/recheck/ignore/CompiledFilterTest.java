@@ -0,0 +1,173 @@
+package de.retest.recheck.ignore;
+
+import static de.retest.recheck.RecheckProperties.COMPILED_FILTERS_PROPERTY_KEY;
+import static de.retest.recheck.review.counter.NopCounter.getInstance;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junitpioneer.jupiter.SetSystemProperty;
+
+import de.retest.recheck.ignore.Filter.ChangeType;
+import de.retest.recheck.review.GlobalIgnoreApplier;
+import de.retest.recheck.ui.Path;
+import de.retest.recheck.ui.descriptors.Attribute;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.MutableAttributes;
+import de.retest.recheck.ui.descriptors.RootElement;
+import de.retest.recheck.ui.descriptors.StringAttribute;
+import de.retest.recheck.ui.diff.AttributeDifference;
+
+class CompiledFilterTest {
+
+	private static final List<String> LINES = Arrays.asList( //
+			"matcher: retestid=body", //
+			"matcher: retestid=div-[0-9]", //
+			"matcher: xpath=/html[1]/body[1]/footer[1]", //
+			"matcher: xpath=html/body/nav", //
+			"attribute=outline", //
+			"attribute-regex=font-.*", //
+			"attribute-regex=border-(top|bottom)", //
+			"attribute-regex=(a)\\1", //
+			"matcher: id=main, attribute=color", //
+			"matcher: retestid=span, attribute=text", //
+			"matcher: xpath=/html[1]/body[1]/nav[1], attribute-regex=margin-.*", //
+			"matcher: type=p", //
+			"change: inserted", //
+			"value-regex=[0-9]+px" );
+
+	private static final List<String> KEYS = Arrays.asList( "outline", "font-size", "border-top", "border-left", "aa",
+			"color", "text", "margin-top", "padding" );
+
+	private List<Element> elements;
+
+	@BeforeEach
+	void setUp() {
+		final Element html = new RootElement( "html", IdentifyingAttributes.create( Path.fromString( "/html[1]" ), "html" ),
+				new MutableAttributes().immutable(), null, "screen", -1, "title" );
+		final Element body = element( "body", html, "/html[1]/body[1]", "body", null );
+		final Element div = element( "div-1", body, "/html[1]/body[1]/div[1]", "div", "main" );
+		final Element span = element( "span", div, "/html[1]/body[1]/div[1]/span[1]", "span", null );
+		final Element nav = element( "nav", html, "/html[1]/nav[1]", "nav", null );
+		final Element link = element( "link", nav, "/html[1]/nav[1]/a[1]", "a", "main" );
+		final Element footer = element( "footer", html, "/html[1]/body[1]/footer[1]", "footer", null );
+		final Element p = element( "p", nav, "/html[1]/nav[1]/p[1]", "p", null );
+		elements = Arrays.asList( html, body, div, span, nav, link, footer, p );
+	}
+
+	private static Element element( final String retestId, final Element parent, final String path,
+			final String type, final String id ) {
+		final List<Attribute> identifying = IdentifyingAttributes.createList( Path.fromString( path ), type );
+		if ( id != null ) {
+			identifying.add( new StringAttribute( "id", id ) );
+		}
+		return Element.create( retestId, parent, new IdentifyingAttributes( identifying ),
+				new MutableAttributes().immutable() );
+	}
+
+	@Test
+	void should_match_same_as_compound_filter() {
+		final List<Filter> filters = LINES.stream().map( Filters::parse ).collect( Collectors.toList() );
+		final Filter expected = new CompoundFilter( filters );
+		final Filter cut = CompiledFilter.compile( filters );
+
+		for ( final Element element : elements ) {
+			assertThat( cut.matches( element ) ).as( element.toString() ).isEqualTo( expected.matches( element ) );
+			for ( final ChangeType change : ChangeType.values() ) {
+				assertThat( cut.matches( element, change ) ).as( element + " " + change )
+						.isEqualTo( expected.matches( element, change ) );
+			}
+			for ( final String key : KEYS ) {
+				assertThat( cut.matches( element, key ) ).as( element + " " + key )
+						.isEqualTo( expected.matches( element, key ) );
+				for ( final String value : Arrays.asList( "12px", "red" ) ) {
+					final AttributeDifference difference = new AttributeDifference( key, "expected", value );
+					assertThat( cut.matches( element, difference ) ).as( element + " " + difference )
+							.isEqualTo( expected.matches( element, difference ) );
+				}
+			}
+		}
+	}
+
+	@Test
+	void should_match_each_filter_same_as_compound_filter() {
+		for ( final String line : LINES ) {
+			final Filter filter = Filters.parse( line );
+			final Filter cut = CompiledFilter.compile( Arrays.asList( filter ) );
+
+			for ( final Element element : elements ) {
+				assertThat( cut.matches( element ) ).as( line + " " + element ).isEqualTo( filter.matches( element ) );
+				for ( final String key : KEYS ) {
+					assertThat( cut.matches( element, key ) ).as( line + " " + element + " " + key )
+							.isEqualTo( filter.matches( element, key ) );
+				}
+			}
+		}
+	}
+
+	@Test
+	void should_match_parents() {
+		final Filter cut = CompiledFilter.compile( Arrays.asList( Filters.parse( "matcher: retestid=nav" ) ) );
+
+		assertThat( cut.matches( elements.get( 5 ) ) ).isTrue();
+		assertThat( cut.matches( elements.get( 5 ), "any" ) ).isTrue();
+		assertThat( cut.matches( elements.get( 2 ) ) ).isFalse();
+	}
+
+	@Test
+	void should_flatten_compound_and_persistent_filters() {
+		final Filter cut = CompiledFilter.compile( Arrays.asList( Filter.NEVER_MATCH,
+				new CompoundFilter( Arrays.asList( Filters.parse( "attribute=outline" ),
+						new PersistentFilter( Paths.get( "recheck.ignore" ),
+								Filters.parse( "matcher: retestid=body" ) ) ) ) ) );
+
+		assertThat( cut.toString() ).contains( "retestIds=1", "attributes=1", "others=[]" );
+		assertThat( cut.matches( elements.get( 0 ), "outline" ) ).isTrue();
+		assertThat( cut.matches( elements.get( 2 ) ) ).isTrue();
+		assertThat( cut.matches( elements.get( 0 ) ) ).isFalse();
+	}
+
+	@Test
+	void should_not_combine_back_references() {
+		final Filter cut = CompiledFilter.compile( Arrays.asList( Filters.parse( "attribute-regex=(a)\\1" ),
+				Filters.parse( "attribute-regex=font-.*" ), Filters.parse( "attribute-regex=(b)\\1" ) ) );
+
+		assertThat( cut.toString() ).contains( "attributePatterns=3" );
+		assertThat( cut.matches( elements.get( 0 ), "aa" ) ).isTrue();
+		assertThat( cut.matches( elements.get( 0 ), "bb" ) ).isTrue();
+		assertThat( cut.matches( elements.get( 0 ), "ab" ) ).isFalse();
+		assertThat( cut.matches( elements.get( 0 ), "font-size" ) ).isTrue();
+	}
+
+	@Test
+	@SetSystemProperty( key = COMPILED_FILTERS_PROPERTY_KEY, value = "true" )
+	void global_ignore_applier_should_compile_again_after_changes() {
+		final GlobalIgnoreApplier cut = GlobalIgnoreApplier.create( getInstance() );
+		final Element div = elements.get( 2 );
+
+		assertThat( cut.matches( div ) ).isFalse();
+		cut.ignoreElement( div );
+		assertThat( cut.matches( div ) ).isTrue();
+		assertThat( cut.matches( elements.get( 3 ) ) ).isTrue();
+		cut.unignoreElement( div );
+		assertThat( cut.matches( div ) ).isFalse();
+	}
+
+	@Test
+	@SetSystemProperty( key = COMPILED_FILTERS_PROPERTY_KEY, value = "true" )
+	void compound_filter_should_use_compiled_filter() {
+		final List<Filter> filters = LINES.stream().map( Filters::parse ).collect( Collectors.toList() );
+		final Filter cut = new CompoundFilter( filters );
+
+		assertThat( cut.matches( elements.get( 1 ) ) ).isTrue();
+		assertThat( cut.matches( elements.get( 0 ), "font-weight" ) ).isTrue();
+		assertThat( cut.matches( elements.get( 0 ), "color" ) ).isFalse();
+		assertThat( cut.matches( elements.get( 5 ), "color" ) ).isTrue();
+	}
+}
@@ -0,0 +1,71 @@
+package de.retest.recheck.ignore;
+
+import static de.retest.recheck.RecheckProperties.COMPILED_JS_FILTERS_PROPERTY_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junitpioneer.jupiter.SetSystemProperty;
+
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.diff.AttributeDifference;
+
+/**
+ * Runs all tests of {@link JSFilterImplTest} with compiled functions.
+ */
+@SetSystemProperty( key = COMPILED_JS_FILTERS_PROPERTY_KEY, value = "true" )
+class CompiledJSFilterImplTest extends JSFilterImplTest {
+
+	@Test
+	void matching_should_return_matching_differences() {
+		final JSFilterImpl cut = new JSFilterImpl( ctorArg ) {
+			@Override
+			Reader readScriptFile( final Path path ) {
+				return new StringReader( "function matches(element, diff) { return diff.key == 'outline'; }\n"
+						+ "function shouldIgnoreAttributeDifference(element, diff) { return diff.key == 'color'; }" );
+			}
+		};
+		final AttributeDifference outline = new AttributeDifference( "outline", "1", "2" );
+		final AttributeDifference color = new AttributeDifference( "color", "red", "blue" );
+		final AttributeDifference text = new AttributeDifference( "text", "a", "b" );
+		final List<AttributeDifference> differences = Arrays.asList( outline, color, text );
+
+		assertThat( cut.matching( mock( Element.class ), differences ) ).containsOnly( outline, color );
+		assertThat( Filter.NEVER_MATCH.matching( mock( Element.class ), differences ) ).isEmpty();
+	}
+
+	@Test
+	void legacy_functions_should_only_be_called_if_defined() {
+		final JSFilterImpl cut = new JSFilterImpl( ctorArg ) {
+			@Override
+			Reader readScriptFile( final Path path ) {
+				return new StringReader( "function shouldIgnoreElement(element) { return true; }" );
+			}
+		};
+
+		assertThat( cut.matches( mock( Element.class ) ) ).isTrue();
+		assertThat( cut.getTimings() ).containsOnlyKeys( "shouldIgnoreElement" );
+	}
+
+	@Test
+	void timings_should_be_kept_per_function() {
+		final JSFilterImpl cut = new JSFilterImpl( ctorArg ) {
+			@Override
+			Reader readScriptFile( final Path path ) {
+				return new StringReader( "function matches(element) { return false; }" );
+			}
+		};
+
+		cut.matches( mock( Element.class ) );
+		cut.matches( mock( Element.class ), new AttributeDifference( "outline", "1", "2" ) );
+
+		assertThat( cut.getTimings() ).containsOnlyKeys( "matches" );
+		assertThat( cut.getTimings().get( "matches" ) ).isPositive();
+	}
+}
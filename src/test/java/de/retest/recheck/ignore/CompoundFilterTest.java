@@ -4,6 +4,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -55,4 +58,16 @@ class CompoundFilterTest {
 		when( attributeDifference.getKey() ).thenReturn( "tag" );
 		assertThat( filter.matches( element, attributeDifference ) ).isFalse();
 	}
+
+	@Test
+	void matching_should_only_pass_unmatched_differences_to_next_filter() {
+		final AttributeDifference outline = new AttributeDifference( "outline", "1", "2" );
+		final AttributeDifference color = new AttributeDifference( "color", "red", "blue" );
+		final AttributeDifference text = new AttributeDifference( "text", "a", "b" );
+		final Filter second = mock( Filter.class );
+		when( second.matching( element, Arrays.asList( color, text ) ) ).thenReturn( Collections.singleton( text ) );
+		final CompoundFilter cut = new CompoundFilter( Arrays.asList( new AttributeFilter( "outline" ), second ) );
+
+		assertThat( cut.matching( element, Arrays.asList( outline, color, text ) ) ).containsOnly( outline, text );
+	}
 }
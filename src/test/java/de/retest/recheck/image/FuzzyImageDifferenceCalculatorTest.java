@@ -5,6 +5,8 @@ import static de.retest.recheck.ui.image.ImageUtils.image2Screenshot;
 import static de.retest.recheck.ui.image.ImageUtils.readImage;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
@@ -97,6 +99,79 @@ public class FuzzyImageDifferenceCalculatorTest {
 				.isEqualTo( new File( "src/test/resources/de/retest/image/natural1_small.png" ) );
 	}
 
+	@Test
+	public void overridden_average_brightness_should_be_used() throws Exception {
+		final FuzzyImageDifferenceCalculator constant = new FuzzyImageDifferenceCalculator() {
+			@Override
+			protected int getAverageBrightness( final BufferedImage img ) {
+				return 0;
+			}
+		};
+
+		final ImageDifference imgDiff = constant.compare( "src/test/resources/de/retest/image/natural1.png",
+				"src/test/resources/de/retest/image/natural2.png" );
+
+		assertThat( imgDiff.getMatch() ).isEqualTo( 1.0 );
+	}
+
+	@Test
+	public void overridden_average_brightness_should_compare_like_default() throws Exception {
+		final FuzzyImageDifferenceCalculator delegating = new FuzzyImageDifferenceCalculator() {
+			@Override
+			protected int getAverageBrightness( final BufferedImage img ) {
+				return super.getAverageBrightness( img );
+			}
+		};
+
+		final ImageDifference imgDiff = delegating.compare( "src/test/resources/de/retest/image/painted1.png",
+				"src/test/resources/de/retest/image/painted2.png" );
+
+		assertThat( imgDiff.getMatch() ).isEqualTo( imgDiffCalc
+				.compare( "src/test/resources/de/retest/image/painted1.png",
+						"src/test/resources/de/retest/image/painted2.png" )
+				.getMatch() );
+	}
+
+	@Test
+	public void gray_values_should_not_depend_on_image_type() throws IOException {
+		final BufferedImage img = readImage( new File( "src/test/resources/de/retest/image/natural1.png" ) );
+		final int[] expected = FuzzyImageDifferenceCalculator.toGray( convert( img, BufferedImage.TYPE_INT_ARGB ) );
+
+		assertThat( FuzzyImageDifferenceCalculator.toGray( convert( img, BufferedImage.TYPE_INT_RGB ) ) )
+				.isEqualTo( expected );
+		assertThat( FuzzyImageDifferenceCalculator.toGray( convert( img, BufferedImage.TYPE_3BYTE_BGR ) ) )
+				.isEqualTo( expected );
+		assertThat( FuzzyImageDifferenceCalculator.toGray( convert( img, BufferedImage.TYPE_4BYTE_ABGR ) ) )
+				.isEqualTo( expected );
+		assertThat( FuzzyImageDifferenceCalculator.toGray( convert( img, BufferedImage.TYPE_USHORT_565_RGB ) ) )
+				.hasSameSizeAs( expected );
+	}
+
+	@Test
+	public void gray_values_of_sub_image_should_be_read_from_its_bounds() throws IOException {
+		final BufferedImage img = convert( readImage( new File( "src/test/resources/de/retest/image/natural1.png" ) ),
+				BufferedImage.TYPE_3BYTE_BGR );
+		final BufferedImage sub = img.getSubimage( 10, 20, 30, 40 );
+
+		assertThat( FuzzyImageDifferenceCalculator.toGray( sub ) )
+				.isEqualTo( FuzzyImageDifferenceCalculator.toGray( convert( sub, BufferedImage.TYPE_INT_ARGB ) ) );
+	}
+
+	@Test
+	public void compare_large_images_should_find_differences() throws Exception {
+		final BufferedImage img1 = new BufferedImage( 800, 600, BufferedImage.TYPE_INT_RGB );
+		final BufferedImage img2 = new BufferedImage( 800, 600, BufferedImage.TYPE_INT_RGB );
+		final Graphics2D graphics = img2.createGraphics();
+		graphics.setColor( Color.WHITE );
+		graphics.fillRect( 100, 100, 100, 100 );
+		graphics.dispose();
+
+		final ImageDifference imgDiff = imgDiffCalc.compare( img1, img2 );
+
+		// 10 x 10 of 80 x 60 blocks
+		assertThat( imgDiff.getMatch() ).isEqualTo( (4800 - 100) / 4800.0 );
+	}
+
 	@Test
 	public void two_nulls_should_be_equal() throws Exception {
 		assertThat( imgDiffCalc.compare( (Screenshot) null, (Screenshot) null ).isEqual() ).isTrue();
@@ -111,4 +186,12 @@ public class FuzzyImageDifferenceCalculatorTest {
 		assertThat( imgDiffCalc.compare( (Screenshot) null, image2Screenshot( "renderer", img ) ).isEqual() ).isFalse();
 		assertThat( imgDiffCalc.compare( (BufferedImage) null, img ).isEqual() ).isFalse();
 	}
+
+	private static BufferedImage convert( final BufferedImage img, final int type ) {
+		final BufferedImage converted = new BufferedImage( img.getWidth(), img.getHeight(), type );
+		final Graphics2D graphics = converted.createGraphics();
+		graphics.drawImage( img, 0, 0, null );
+		graphics.dispose();
+		return converted;
+	}
 }
@@ -0,0 +1,138 @@
+package de.retest.recheck.image;
+
+import static de.retest.recheck.ui.image.ImageUtils.image2Screenshot;
+import static de.retest.recheck.ui.image.ImageUtils.readImage;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import de.retest.recheck.ui.image.Screenshot;
+
+public class PerceptualImageDifferenceCalculatorTest {
+
+	final PerceptualImageDifferenceCalculator imgDiffCalc = new PerceptualImageDifferenceCalculator();
+
+	@Test
+	public void compare_same_image_should_have_no_differences() throws IOException {
+		final ImageDifference imgDiff = imgDiffCalc.compare( "src/test/resources/de/retest/image/natural1.png",
+				"src/test/resources/de/retest/image/natural1.png" );
+
+		assertThat( imgDiff.getMatch() ).isEqualTo( 1.0 );
+	}
+
+	@Test
+	public void compare_natural_images_should_find_differences() throws IOException {
+		final ImageDifference imgDiff = imgDiffCalc.compare( "src/test/resources/de/retest/image/natural1.png",
+				"src/test/resources/de/retest/image/natural2.png" );
+
+		assertThat( imgDiff.getMatch() ).isLessThan( 1.0 );
+		assertThat( imgDiff.getMatch() ).isGreaterThan( 0.0 );
+		assertThat( imgDiff.getDifferenceImage() ).isNotNull();
+	}
+
+	@Test
+	public void compare_same_screenshots_should_have_no_differences() throws IOException {
+		final BufferedImage img = readImage( new File( "src/test/resources/de/retest/image/natural1.png" ) );
+		final Screenshot expected = image2Screenshot( "expected", img );
+
+		// The second comparison uses the cached hashes.
+		assertThat( imgDiffCalc.compare( expected, image2Screenshot( "actual", img ) ).isEqual() ).isTrue();
+		final ImageDifference imgDiff = imgDiffCalc.compare( expected, image2Screenshot( "actual", img ) );
+
+		assertThat( imgDiff.isEqual() ).isTrue();
+		assertThat( imgDiff.getStrategyName() ).isEqualTo( PerceptualImageDifferenceCalculator.class.getName() );
+	}
+
+	@Test
+	public void antialiasing_should_be_tolerated() {
+		final BufferedImage img = createImage( Color.BLUE );
+		final BufferedImage antialiased = new BufferedImage( 200, 200, BufferedImage.TYPE_INT_RGB );
+		final Graphics2D graphics = antialiased.createGraphics();
+		graphics.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+		paint( graphics, Color.BLUE );
+		graphics.dispose();
+
+		assertThat( imgDiffCalc.compare( img, antialiased ).isEqual() ).isTrue();
+	}
+
+	@Test
+	public void changed_shape_should_cause_difference() {
+		final BufferedImage img = createImage( Color.BLUE );
+		final BufferedImage changed = createImage( Color.BLUE );
+		final Graphics2D graphics = changed.createGraphics();
+		graphics.setColor( Color.BLACK );
+		graphics.drawLine( 0, 0, 199, 199 );
+		graphics.dispose();
+
+		final ImageDifference imgDiff = imgDiffCalc.compare( img, changed );
+
+		assertThat( imgDiff.getMatch() ).isLessThan( 1.0 );
+		assertThat( imgDiff.getMatch() ).isGreaterThan( 0.5 );
+	}
+
+	@Test
+	public void changed_flat_color_should_cause_difference() {
+		final ImageDifference imgDiff = imgDiffCalc.compare( createImage( Color.WHITE ), createImage( Color.GRAY ) );
+
+		assertThat( imgDiff.isEqual() ).isFalse();
+	}
+
+	@Test
+	public void changed_hue_of_same_brightness_should_cause_difference() {
+		final ImageDifference imgDiff =
+				imgDiffCalc.compare( createImage( new Color( 200, 100, 100 ) ), createImage( new Color( 100, 143, 100 ) ) );
+
+		assertThat( imgDiff.isEqual() ).isFalse();
+	}
+
+	@Test
+	public void different_sizes_should_be_compared() throws IOException {
+		final ImageDifference imgDiff = imgDiffCalc.compare( "src/test/resources/de/retest/image/natural1.png",
+				"src/test/resources/de/retest/image/natural1_small.png" );
+
+		assertThat( imgDiff.isEqual() ).isTrue();
+	}
+
+	@Test
+	public void tiny_images_should_be_compared() {
+		final BufferedImage img = new BufferedImage( 3, 2, BufferedImage.TYPE_INT_RGB );
+		final BufferedImage changed = new BufferedImage( 3, 2, BufferedImage.TYPE_INT_RGB );
+		changed.setRGB( 1, 1, Color.WHITE.getRGB() );
+
+		assertThat( imgDiffCalc.compare( img, img ).isEqual() ).isTrue();
+		assertThat( imgDiffCalc.compare( img, changed ).isEqual() ).isFalse();
+	}
+
+	@Test
+	public void null_values_should_be_handled() {
+		final BufferedImage img = createImage( Color.BLUE );
+
+		assertThat( imgDiffCalc.compare( (Screenshot) null, (Screenshot) null ).isEqual() ).isTrue();
+		assertThat( imgDiffCalc.compare( image2Screenshot( "img", img ), (Screenshot) null ).isEqual() ).isFalse();
+		assertThat( imgDiffCalc.compare( (BufferedImage) null, img ).isEqual() ).isFalse();
+	}
+
+	private static BufferedImage createImage( final Color color ) {
+		final BufferedImage image = new BufferedImage( 200, 200, BufferedImage.TYPE_INT_RGB );
+		final Graphics2D graphics = image.createGraphics();
+		paint( graphics, color );
+		graphics.dispose();
+		return image;
+	}
+
+	private static void paint( final Graphics2D graphics, final Color color ) {
+		graphics.setColor( Color.WHITE );
+		graphics.fillRect( 0, 0, 200, 200 );
+		graphics.setColor( color );
+		graphics.fillOval( 40, 40, 120, 80 );
+		graphics.drawString( "Some text", 20, 30 );
+		graphics.fillRect( 0, 150, 200, 50 );
+	}
+}
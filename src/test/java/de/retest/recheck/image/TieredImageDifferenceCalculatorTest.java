@@ -0,0 +1,97 @@
+package de.retest.recheck.image;
+
+import static de.retest.recheck.ui.image.ImageUtils.image2Screenshot;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.Test;
+
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
+
+public class TieredImageDifferenceCalculatorTest {
+
+	final ImageDifferenceCalculator delegate = spy( new ExactImageDifferenceCalculator() );
+	final TieredImageDifferenceCalculator imgDiffCalc = new TieredImageDifferenceCalculator( delegate );
+
+	@Test
+	public void same_content_should_be_equal_without_decoding() {
+		// Not a valid PNG, so decoding would fail.
+		final Screenshot expected = new Screenshot( "expected", new byte[] { 1, 2, 3 }, ImageType.PNG );
+		final Screenshot actual = new Screenshot( "actual", new byte[] { 1, 2, 3 }, ImageType.PNG );
+
+		final ImageDifference imgDiff = imgDiffCalc.compare( expected, actual );
+
+		assertThat( imgDiff.isEqual() ).isTrue();
+		assertThat( imgDiff.getDifferenceImage() ).isNull();
+		assertThat( imgDiff.getStrategyName() ).isEqualTo( delegate.getClass().getName() );
+		verify( delegate, never() ).compare( any( Screenshot.class ), any( Screenshot.class ) );
+		verify( delegate, never() ).compare( any( BufferedImage.class ), any( BufferedImage.class ) );
+	}
+
+	@Test
+	public void same_pixels_in_different_encoding_should_be_equal_without_delegate() {
+		final BufferedImage rgb = createImage( BufferedImage.TYPE_INT_RGB, Color.RED );
+		final BufferedImage argb = createImage( BufferedImage.TYPE_INT_ARGB, Color.RED );
+		final Screenshot expected = image2Screenshot( "expected", rgb );
+		final Screenshot actual = image2Screenshot( "actual", argb );
+		assertThat( expected.getSha256() ).isNotEqualTo( actual.getSha256() );
+
+		final ImageDifference imgDiff = imgDiffCalc.compare( expected, actual );
+
+		assertThat( imgDiff.isEqual() ).isTrue();
+		verify( delegate, never() ).compare( any( BufferedImage.class ), any( BufferedImage.class ) );
+	}
+
+	@Test
+	public void different_pixels_should_be_compared_by_delegate() {
+		final Screenshot expected =
+				image2Screenshot( "expected", createImage( BufferedImage.TYPE_INT_RGB, Color.RED ) );
+		final Screenshot actual = image2Screenshot( "actual", createImage( BufferedImage.TYPE_INT_RGB, Color.BLUE ) );
+
+		final ImageDifference imgDiff = imgDiffCalc.compare( expected, actual );
+
+		assertThat( imgDiff.isEqual() ).isFalse();
+		verify( delegate ).compare( any( BufferedImage.class ), any( BufferedImage.class ) );
+	}
+
+	@Test
+	public void different_dimensions_should_be_compared_by_delegate() {
+		final BufferedImage small = new BufferedImage( 5, 5, BufferedImage.TYPE_INT_RGB );
+
+		final ImageDifference imgDiff =
+				imgDiffCalc.compare( small, createImage( BufferedImage.TYPE_INT_RGB, Color.RED ) );
+
+		assertThat( imgDiff.isEqual() ).isFalse();
+		verify( delegate ).compare( any( BufferedImage.class ), any( BufferedImage.class ) );
+	}
+
+	@Test
+	public void missing_screenshot_should_be_compared_by_delegate() {
+		final ImageDifferenceCalculator delegate = mock( ImageDifferenceCalculator.class );
+		final Screenshot actual = new Screenshot( "actual", new byte[] { 1, 2, 3 }, ImageType.PNG );
+
+		new TieredImageDifferenceCalculator( delegate ).compare( null, actual );
+
+		verify( delegate ).compare( null, actual );
+	}
+
+	private static BufferedImage createImage( final int type, final Color color ) {
+		final BufferedImage image = new BufferedImage( 10, 10, type );
+		final Graphics2D graphics = image.createGraphics();
+		graphics.setColor( Color.WHITE );
+		graphics.fillRect( 0, 0, 10, 10 );
+		graphics.setColor( color );
+		graphics.fillRect( 2, 2, 6, 6 );
+		graphics.dispose();
+		return image;
+	}
+}
@@ -0,0 +1,143 @@
+package de.retest.recheck.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BackgroundWriterTest {
+
+	BackgroundWriter cut;
+
+	@BeforeEach
+	void setUp() {
+		cut = new BackgroundWriter();
+	}
+
+	@Test
+	void writes_to_same_identifier_should_be_executed_in_order( @TempDir final Path temp ) {
+		final URI identifier = temp.resolve( "file" ).toUri();
+		final List<Integer> executed = new CopyOnWriteArrayList<>();
+
+		IntStream.range( 0, 100 ).forEach( i -> cut.submit( identifier, () -> executed.add( i ) ) );
+		cut.flush();
+
+		assertThat( executed ).isEqualTo( IntStream.range( 0, 100 ).boxed().collect( Collectors.toList() ) );
+	}
+
+	@Test
+	void await_should_wait_for_pending_write( @TempDir final Path temp ) throws Exception {
+		final File file = temp.resolve( "file" ).toFile();
+		final CountDownLatch started = new CountDownLatch( 1 );
+
+		cut.submit( file.toURI(), () -> {
+			started.countDown();
+			sleep();
+			Files.write( file.toPath(), "written".getBytes( StandardCharsets.UTF_8 ) );
+		} );
+		started.await();
+		cut.await( file.toURI() );
+
+		assertThat( file ).hasContent( "written" );
+	}
+
+	@Test
+	void await_should_match_directory_with_trailing_slash( @TempDir final Path temp ) throws Exception {
+		final File folder = temp.resolve( "folder" ).toFile();
+		final URI withoutSlash = folder.toURI();
+		final CountDownLatch done = new CountDownLatch( 1 );
+
+		cut.submit( withoutSlash, () -> {
+			folder.mkdirs();
+			sleep();
+			done.countDown();
+		} );
+		while ( !folder.exists() ) {
+			Thread.yield();
+		}
+		cut.await( folder.toURI() );
+
+		assertThat( folder.toURI().toString() ).endsWith( "/" );
+		assertThat( done.getCount() ).isZero();
+	}
+
+	@Test
+	void flush_should_report_failed_writes( @TempDir final Path temp ) {
+		cut.submit( temp.resolve( "first" ).toUri(), () -> {
+			throw new IOException( "first failed" );
+		} );
+		cut.submit( temp.resolve( "second" ).toUri(), () -> {
+			throw new IOException( "second failed" );
+		} );
+
+		assertThatThrownBy( cut::flush ) //
+				.isInstanceOf( UncheckedIOException.class ) //
+				.satisfies( e -> assertThat( e.getSuppressed() ).hasSize( 1 ) );
+		// Failures are only reported once.
+		cut.flush();
+	}
+
+	@Test
+	void flush_of_identifiers_should_only_report_their_failed_writes( @TempDir final Path temp ) {
+		final URI own = temp.resolve( "own" ).toUri();
+		final URI other = temp.resolve( "other" ).toUri();
+		final CountDownLatch blocked = new CountDownLatch( 1 );
+		cut.submit( own, () -> {
+			throw new IOException( "own failed" );
+		} );
+		cut.submit( other, () -> {
+			throw new IOException( "other failed" );
+		} );
+		cut.submit( temp.resolve( "blocked" ).toUri(), () -> {
+			try {
+				blocked.await();
+			} catch ( final InterruptedException e ) {
+				Thread.currentThread().interrupt();
+			}
+		} );
+
+		assertThatThrownBy( () -> cut.flush( Collections.singleton( own ) ) ) //
+				.isInstanceOf( UncheckedIOException.class ) //
+				.hasMessageContaining( "own" ) //
+				.satisfies( e -> assertThat( e.getSuppressed() ).isEmpty() );
+		blocked.countDown();
+		assertThatThrownBy( cut::flush ).hasMessageContaining( "other" );
+	}
+
+	@Test
+	void failed_write_should_not_prevent_following_writes( @TempDir final Path temp ) {
+		final File file = temp.resolve( "file" ).toFile();
+
+		cut.submit( file.toURI(), () -> {
+			throw new IOException( "failed" );
+		} );
+		cut.submit( file.toURI(), () -> Files.write( file.toPath(), "written".getBytes( StandardCharsets.UTF_8 ) ) );
+
+		assertThatThrownBy( cut::flush ).isInstanceOf( UncheckedIOException.class );
+		assertThat( file ).hasContent( "written" );
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep( 100 );
+		} catch ( final InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
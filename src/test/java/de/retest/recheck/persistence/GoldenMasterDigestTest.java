@@ -0,0 +1,231 @@
+package de.retest.recheck.persistence;
+
+import static de.retest.recheck.RecheckProperties.ELEMENT_MATCH_THRESHOLD_PROPERTY_KEY;
+import static de.retest.recheck.RecheckProperties.IGNORE_ATTRIBUTES_PROPERTY_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.retest.recheck.RecheckProperties;
+import de.retest.recheck.ui.DefaultValueFinder;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.MutableAttributes;
+import de.retest.recheck.ui.descriptors.RootElement;
+import de.retest.recheck.ui.descriptors.SutState;
+
+class GoldenMasterDigestTest {
+
+	File cacheFolder;
+	File goldenMaster;
+
+	@BeforeEach
+	void setUp( @TempDir final Path temp ) throws IOException {
+		cacheFolder = temp.resolve( "target/digests" ).toFile();
+		goldenMaster = temp.resolve( "check.recheck" ).toFile();
+		Files.createDirectories( goldenMaster.toPath().resolve( "screenshot" ) );
+		Files.write( goldenMaster.toPath().resolve( RecheckProperties.DEFAULT_XML_FILE_NAME ), new byte[] { 1, 2 } );
+		Files.write( goldenMaster.toPath().resolve( "screenshot/a.png" ), new byte[] { 3, 4 } );
+	}
+
+	@Test
+	void equal_states_should_have_same_digest() {
+		assertThat( digest( state( "red", "html" ) ) ).isEqualTo( digest( state( "red", "html" ) ) );
+	}
+
+	@Test
+	void different_states_should_have_different_digests() {
+		final String digest = digest( state( "red", "html" ) );
+
+		assertThat( digest( state( "blue", "html" ) ) ).isNotEqualTo( digest );
+		assertThat( digest( state( "red", "body" ) ) ).isNotEqualTo( digest );
+	}
+
+	@Test
+	void digest_should_not_depend_on_order_of_root_elements() {
+		final RootElement first = rootElement( "first", "red", "html" );
+		final RootElement second = rootElement( "second", "blue", "html" );
+
+		assertThat( digest( new SutState( Arrays.asList( first, second ) ) ) )
+				.isEqualTo( digest( new SutState( Arrays.asList( second, first ) ) ) );
+	}
+
+	@Test
+	void digest_should_depend_on_globally_ignored_attributes() {
+		final String digest = digest( state( "red", "html" ) );
+
+		System.setProperty( IGNORE_ATTRIBUTES_PROPERTY_KEY, "color" );
+		try {
+			assertThat( digest( state( "red", "html" ) ) ).isNotEqualTo( digest );
+		} finally {
+			System.clearProperty( IGNORE_ATTRIBUTES_PROPERTY_KEY );
+		}
+	}
+
+	@Test
+	void digest_should_depend_on_element_matching() {
+		final String digest = digest( state( "red", "html" ) );
+
+		System.setProperty( ELEMENT_MATCH_THRESHOLD_PROPERTY_KEY, "0.5" );
+		try {
+			assertThat( digest( state( "red", "html" ) ) ).isNotEqualTo( digest );
+		} finally {
+			System.clearProperty( ELEMENT_MATCH_THRESHOLD_PROPERTY_KEY );
+		}
+	}
+
+	@Test
+	void digest_should_depend_on_image_difference_calculation() {
+		final String digest = digest( state( "red", "html" ) );
+
+		System.setProperty( "de.retest.recheck.image.similarityThreshold", "0.5" );
+		try {
+			assertThat( digest( state( "red", "html" ) ) ).isNotEqualTo( digest );
+		} finally {
+			System.clearProperty( "de.retest.recheck.image.similarityThreshold" );
+		}
+	}
+
+	@Test
+	void digest_should_depend_on_default_value_finder() {
+		final DefaultValueFinder defaultValueFinder = ( identifyingAttributes, attributeKey, attributeValue ) -> false;
+
+		assertThat( GoldenMasterDigest.of( state( "red", "html" ), defaultValueFinder ) )
+				.isNotEqualTo( digest( state( "red", "html" ) ) );
+	}
+
+	@Test
+	void saved_digest_should_match() {
+		final String digest = digest( state( "red", "html" ) );
+
+		GoldenMasterDigest.save( cacheFolder, goldenMaster, state( "red", "html" ), digest );
+
+		assertThat( GoldenMasterDigest.loadUnchanged( cacheFolder, goldenMaster, digest ) ).isPresent();
+		assertThat( GoldenMasterDigest.loadUnchanged( cacheFolder, goldenMaster, digest( state( "blue", "html" ) ) ) )
+				.isEmpty();
+	}
+
+	@Test
+	void saved_digest_should_keep_metadata_of_golden_master() {
+		final String digest = digest( state( "red", "html" ) );
+		final Map<String, String> metadata = new HashMap<>();
+		metadata.put( "os.name", "linux" );
+		metadata.put( "time", "12:00 = noon" );
+
+		GoldenMasterDigest.save( cacheFolder, goldenMaster, new SutState( Collections.emptySet(), () -> metadata ),
+				digest );
+
+		assertThat( GoldenMasterDigest.loadUnchanged( cacheFolder, goldenMaster, digest ) )
+				.hasValueSatisfying( expected -> assertThat( expected.getMetadata() ).isEqualTo( metadata ) );
+	}
+
+	@Test
+	void digest_should_not_match_without_saved_digest() {
+		assertThat( GoldenMasterDigest.loadUnchanged( cacheFolder, goldenMaster, digest( state( "red", "html" ) ) ) )
+				.isEmpty();
+		assertThat( GoldenMasterDigest.loadUnchanged( cacheFolder, new File( goldenMaster, "missing" ), "digest" ) )
+				.isEmpty();
+	}
+
+	@Test
+	void digest_should_not_match_other_golden_master() throws IOException {
+		final String digest = digest( state( "red", "html" ) );
+		final File other = new File( goldenMaster.getParentFile(), "other.recheck" );
+		Files.createDirectories( other.toPath() );
+
+		GoldenMasterDigest.save( cacheFolder, goldenMaster, state( "red", "html" ), digest );
+
+		assertThat( GoldenMasterDigest.loadUnchanged( cacheFolder, other, digest ) ).isEmpty();
+	}
+
+	@Test
+	void digest_should_not_match_after_golden_master_changed() throws IOException {
+		final String digest = digest( state( "red", "html" ) );
+		GoldenMasterDigest.save( cacheFolder, goldenMaster, state( "red", "html" ), digest );
+
+		final Path screenshot = goldenMaster.toPath().resolve( "screenshot/a.png" );
+		final FileTime modified = Files.getLastModifiedTime( screenshot );
+		Files.write( screenshot, new byte[] { 3, 5 } );
+		Files.setLastModifiedTime( screenshot, FileTime.fromMillis( modified.toMillis() + 1000 ) );
+
+		assertThat( GoldenMasterDigest.loadUnchanged( cacheFolder, goldenMaster, digest ) ).isEmpty();
+	}
+
+	@Test
+	void digest_should_not_match_after_size_of_golden_master_changed() throws IOException {
+		final String digest = digest( state( "red", "html" ) );
+		GoldenMasterDigest.save( cacheFolder, goldenMaster, state( "red", "html" ), digest );
+
+		final Path screenshot = goldenMaster.toPath().resolve( "screenshot/a.png" );
+		final FileTime modified = Files.getLastModifiedTime( screenshot );
+		Files.write( screenshot, new byte[] { 3, 4, 5 } );
+		Files.setLastModifiedTime( screenshot, modified );
+
+		assertThat( GoldenMasterDigest.loadUnchanged( cacheFolder, goldenMaster, digest ) ).isEmpty();
+	}
+
+	@Test
+	void digest_should_not_read_contents_of_golden_master() throws IOException {
+		final String digest = digest( state( "red", "html" ) );
+		GoldenMasterDigest.save( cacheFolder, goldenMaster, state( "red", "html" ), digest );
+
+		final Path screenshot = goldenMaster.toPath().resolve( "screenshot/a.png" );
+		assertThat( screenshot.toFile().setReadable( false ) ).isTrue();
+		try {
+			assertThat( GoldenMasterDigest.loadUnchanged( cacheFolder, goldenMaster, digest ) ).isPresent();
+		} finally {
+			screenshot.toFile().setReadable( true );
+		}
+	}
+
+	@Test
+	void saving_digest_should_not_touch_golden_master() throws IOException {
+		final List<Path> files;
+		try ( final Stream<Path> paths = Files.walk( goldenMaster.toPath() ) ) {
+			files = paths.collect( Collectors.toList() );
+		}
+
+		GoldenMasterDigest.save( cacheFolder, goldenMaster, state( "red", "html" ), digest( state( "red", "html" ) ) );
+
+		try ( final Stream<Path> paths = Files.walk( goldenMaster.toPath() ) ) {
+			assertThat( paths ).containsExactlyInAnyOrderElementsOf( files );
+		}
+		assertThat( GoldenMasterDigest.digestFile( cacheFolder, goldenMaster ) ).isFile();
+	}
+
+	private static String digest( final SutState state ) {
+		return GoldenMasterDigest.of( state, null );
+	}
+
+	private static SutState state( final String color, final String childType ) {
+		return new SutState( new HashSet<>( Arrays.asList( rootElement( "root", color, childType ) ) ) );
+	}
+
+	private static RootElement rootElement( final String retestId, final String color, final String childType ) {
+		final MutableAttributes attributes = new MutableAttributes();
+		attributes.put( "color", color );
+		final RootElement root = new RootElement( retestId,
+				IdentifyingAttributes.create( de.retest.recheck.ui.Path.fromString( "window[1]" ), "window" ),
+				attributes.immutable(), null, "screen", 1, "title" );
+		root.addChildren( Element.create( "child", root,
+				IdentifyingAttributes.create( de.retest.recheck.ui.Path.fromString( "window[1]/child[1]" ), childType ),
+				attributes.immutable() ) );
+		return root;
+	}
+}
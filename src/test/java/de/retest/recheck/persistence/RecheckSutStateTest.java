@@ -1,5 +1,6 @@
 package de.retest.recheck.persistence;
 
+import static de.retest.recheck.RecheckProperties.ASYNC_PERSISTENCE_PROPERTY_KEY;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
@@ -15,8 +16,11 @@ import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.junitpioneer.jupiter.SetSystemProperty;
 
 import de.retest.recheck.RecheckAdapter;
+import de.retest.recheck.ui.descriptors.Attributes;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
 import de.retest.recheck.ui.descriptors.RootElement;
 import de.retest.recheck.ui.descriptors.SutState;
 
@@ -38,6 +42,19 @@ class RecheckSutStateTest {
 		assertThat( RecheckSutState.loadExpected( notExistingFile ) ).isNull();
 	}
 
+	@Test
+	@SetSystemProperty( key = ASYNC_PERSISTENCE_PROPERTY_KEY, value = "true" )
+	void loadExpected_should_load_golden_master_created_in_background( @TempDir final Path temp ) {
+		final File file = temp.resolve( "folder" ).toFile();
+		final SutState state = new SutState( Collections.singleton( new RootElement( "retestId",
+				IdentifyingAttributes.create( de.retest.recheck.ui.Path.fromString( "html[1]" ), "html" ),
+				new Attributes(), null, "screen", 1, "title" ) ) );
+
+		RecheckSutState.createNew( file, state );
+
+		assertThat( RecheckSutState.loadExpected( file ) ).isEqualTo( state );
+	}
+
 	@Test
 	void convert_should_throw_exception_if_adapter_returns_null() {
 		final Object convert = mock( Object.class );
@@ -1,6 +1,7 @@
 package de.retest.recheck.persistence;
 
 import static de.retest.recheck.RecheckProperties.AGGREGATED_TEST_REPORT_FILE_NAME;
+import static de.retest.recheck.RecheckProperties.APPEND_AGGREGATED_REPORT_PROPERTY_KEY;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -11,8 +12,14 @@ import java.nio.file.Path;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.junitpioneer.jupiter.SetSystemProperty;
 
+import de.retest.recheck.SuiteAggregator;
+import de.retest.recheck.persistence.bin.ChunkedReportReader;
+import de.retest.recheck.persistence.bin.KryoPersistence;
 import de.retest.recheck.report.SuiteReplayResult;
+import de.retest.recheck.report.TestReplayResult;
+import de.retest.recheck.report.TestReport;
 
 class RecheckTestReportUtilTest {
 
@@ -64,4 +71,82 @@ class RecheckTestReportUtilTest {
 		final File aggregatedTestReport = new File( testReport.getParent(), AGGREGATED_TEST_REPORT_FILE_NAME );
 		assertThat( aggregatedTestReport ).exists();
 	}
+
+	@Test
+	@SetSystemProperty( key = APPEND_AGGREGATED_REPORT_PROPERTY_KEY, value = "true" )
+	void persist_should_append_suites_to_aggregated_test_report() throws Exception {
+		SuiteAggregator.reset();
+		final SuiteReplayResult first = SuiteAggregator.getInstance().getSuite( "first" );
+		RecheckTestReportUtil.persist( first, testReport );
+		final SuiteReplayResult second = SuiteAggregator.getInstance().getSuite( "second" );
+		RecheckTestReportUtil.persist( second, testReport );
+
+		assertThat( SuiteAggregator.getInstance().getAggregatedTestReport().getSuiteReplayResults() ).isEmpty();
+
+		// Readable while appending, before the report is closed.
+		BackgroundWriter.getIfCreated().ifPresent( BackgroundWriter::flush );
+		final File aggregatedTestReport = new File( testReport.getParent(), AGGREGATED_TEST_REPORT_FILE_NAME );
+		assertThat( new KryoPersistence<TestReport>().load( aggregatedTestReport.toURI() ).getSuiteReplayResults() )
+				.extracting( SuiteReplayResult::getName ).containsExactly( "first", "second" );
+		try ( ChunkedReportReader reader = ChunkedReportReader.open( aggregatedTestReport.toPath() ) ) {
+			assertThat( reader.getNumberOfSuites() ).isEqualTo( 2 );
+		}
+
+		RecheckTestReportUtil.closeAggregatedTestReports();
+		assertThat( new KryoPersistence<TestReport>().load( aggregatedTestReport.toURI() ).getSuiteReplayResults() )
+				.extracting( SuiteReplayResult::getName ).containsExactly( "first", "second" );
+		SuiteAggregator.reset();
+	}
+
+	@Test
+	@SetSystemProperty( key = APPEND_AGGREGATED_REPORT_PROPERTY_KEY, value = "true" )
+	void persist_should_keep_tests_of_interleaved_suites() throws Exception {
+		SuiteAggregator.reset();
+		final SuiteReplayResult first = SuiteAggregator.getInstance().getSuite( "first" );
+		first.addTest( new TestReplayResult( "first-1", 1 ) );
+		RecheckTestReportUtil.persist( first, testReport );
+		final SuiteReplayResult second = SuiteAggregator.getInstance().getSuite( "second" );
+		second.addTest( new TestReplayResult( "second-1", 1 ) );
+		RecheckTestReportUtil.persist( second, testReport );
+		// E.g. a parallel test still holding the first suite.
+		first.addTest( new TestReplayResult( "first-2", 2 ) );
+		RecheckTestReportUtil.persist( first, testReport );
+
+		RecheckTestReportUtil.closeAggregatedTestReports();
+		final File aggregatedTestReport = new File( testReport.getParent(), AGGREGATED_TEST_REPORT_FILE_NAME );
+		final TestReport aggregated = new KryoPersistence<TestReport>().load( aggregatedTestReport.toURI() );
+		assertThat( aggregated.getSuiteReplayResults() ).extracting( SuiteReplayResult::getName )
+				.containsExactly( "first", "second" );
+		assertThat( aggregated.getSuiteReplayResults().get( 0 ).getTestReplayResults() )
+				.extracting( TestReplayResult::getName ).containsExactly( "first-1", "first-2" );
+		assertThat( aggregated.getSuiteReplayResults().get( 1 ).getTestReplayResults() )
+				.extracting( TestReplayResult::getName ).containsExactly( "second-1" );
+		SuiteAggregator.reset();
+	}
+
+	@Test
+	@SetSystemProperty( key = APPEND_AGGREGATED_REPORT_PROPERTY_KEY, value = "true" )
+	void persist_should_keep_all_tests_of_suite_persisted_several_times() throws Exception {
+		SuiteAggregator.reset();
+		final SuiteReplayResult first = SuiteAggregator.getInstance().getSuite( "suite" );
+		first.addTest( new TestReplayResult( "first", 1 ) );
+		RecheckTestReportUtil.persist( first, testReport );
+		final SuiteReplayResult second = SuiteAggregator.getInstance().getSuite( "suite" );
+		second.addTest( new TestReplayResult( "second", 2 ) );
+		RecheckTestReportUtil.persist( second, testReport );
+
+		assertThat( second ).isSameAs( first );
+		BackgroundWriter.getInstance().flush();
+		assertThat( new KryoPersistence<TestReport>().load( testReport.toURI() ).getSuiteReplayResults() )
+				.flatExtracting( SuiteReplayResult::getTestReplayResults ).extracting( TestReplayResult::getName )
+				.containsExactly( "first", "second" );
+
+		RecheckTestReportUtil.closeAggregatedTestReports();
+		final File aggregatedTestReport = new File( testReport.getParent(), AGGREGATED_TEST_REPORT_FILE_NAME );
+		final TestReport aggregated = new KryoPersistence<TestReport>().load( aggregatedTestReport.toURI() );
+		assertThat( aggregated.getSuiteReplayResults() ).hasSize( 1 );
+		assertThat( aggregated.getSuiteReplayResults().get( 0 ).getTestReplayResults() )
+				.extracting( TestReplayResult::getName ).containsExactly( "first", "second" );
+		SuiteAggregator.reset();
+	}
 }
@@ -0,0 +1,142 @@
+package de.retest.recheck.persistence.bin;
+
+import static de.retest.recheck.persistence.bin.ChunkedReportReaderTest.createReport;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.retest.recheck.report.SuiteReplayResult;
+import de.retest.recheck.report.TestReplayResult;
+import de.retest.recheck.report.TestReport;
+
+class ChunkedReportAppenderTest {
+
+	@Test
+	void appended_suites_should_be_readable_after_close( @TempDir final Path temp ) throws IOException {
+		final Path file = temp.resolve( "sub/tests.report" );
+		final TestReport report = createReport( 3, 2 );
+
+		try ( ChunkedReportAppender cut = ChunkedReportAppender.create( file, new TestReport() ) ) {
+			for ( final SuiteReplayResult suite : report.getSuiteReplayResults() ) {
+				cut.append( suite );
+			}
+		}
+
+		try ( ChunkedReportReader reader = ChunkedReportReader.open( file ) ) {
+			assertThat( reader.getNumberOfSuites() ).isEqualTo( 3 );
+			assertThat( reader.readTest( 2, 1 ).getName() ).isEqualTo( "test-2-1" );
+		}
+		final TestReport loaded = new KryoPersistence<TestReport>().load( file.toUri() );
+		assertThat( loaded.getSuiteReplayResults() ).extracting( SuiteReplayResult::getSuiteUuid )
+				.containsExactly( "uuid-0", "uuid-1", "uuid-2" );
+		assertThat( loaded.getNumberOfTests() ).isEqualTo( 6 );
+	}
+
+	@Test
+	void report_should_be_readable_after_each_append( @TempDir final Path temp ) throws IOException {
+		final Path file = temp.resolve( "tests.report" );
+		Files.write( file, new byte[] { 1, 2, 3 } );
+		final TestReport report = createReport( 2, 2 );
+
+		try ( ChunkedReportAppender cut = ChunkedReportAppender.create( file, new TestReport() ) ) {
+			assertThat( new KryoPersistence<TestReport>().load( file.toUri() ).getSuiteReplayResults() ).isEmpty();
+
+			cut.append( report.getSuiteReplayResults().get( 0 ) );
+			assertThat( new KryoPersistence<TestReport>().load( file.toUri() ).getSuiteReplayResults() )
+					.extracting( SuiteReplayResult::getSuiteUuid ).containsExactly( "uuid-0" );
+
+			cut.append( report.getSuiteReplayResults().get( 1 ) );
+			try ( ChunkedReportReader reader = ChunkedReportReader.open( file ) ) {
+				assertThat( reader.getNumberOfSuites() ).isEqualTo( 2 );
+				assertThat( reader.readTest( 1, 1 ).getName() ).isEqualTo( "test-1-1" );
+			}
+		}
+
+		final TestReport loaded = new KryoPersistence<TestReport>().load( file.toUri() );
+		assertThat( loaded.getSuiteReplayResults() ).extracting( SuiteReplayResult::getSuiteUuid )
+				.containsExactly( "uuid-0", "uuid-1" );
+		try ( Stream<Path> files = Files.list( temp ) ) {
+			assertThat( files ).containsExactly( file );
+		}
+	}
+
+	@Test
+	void appending_suite_again_should_add_its_new_tests( @TempDir final Path temp ) throws IOException {
+		final Path file = temp.resolve( "tests.report" );
+		final TestReport report = createReport( 2, 1 );
+		final SuiteReplayResult first = report.getSuiteReplayResults().get( 0 );
+
+		try ( ChunkedReportAppender cut = ChunkedReportAppender.create( file, new TestReport() ) ) {
+			cut.append( first );
+			cut.append( report.getSuiteReplayResults().get( 1 ) );
+			first.addTest( new TestReplayResult( "test-0-1", 1 ) );
+			cut.append( first );
+			cut.append( first );
+		}
+
+		final TestReport loaded = new KryoPersistence<TestReport>().load( file.toUri() );
+		assertThat( loaded.getSuiteReplayResults() ).extracting( SuiteReplayResult::getSuiteUuid )
+				.containsExactly( "uuid-0", "uuid-1" );
+		assertThat( loaded.getSuiteReplayResults().get( 0 ).getTestReplayResults() )
+				.extracting( TestReplayResult::getName ).containsExactly( "test-0-0", "test-0-1" );
+		try ( ChunkedReportReader reader = ChunkedReportReader.open( file ) ) {
+			assertThat( reader.getNumberOfSuites() ).isEqualTo( 2 );
+			assertThat( reader.getNumberOfTests( 0 ) ).isEqualTo( 2 );
+			assertThat( reader.readTest( 0, 1 ).getName() ).isEqualTo( "test-0-1" );
+		}
+	}
+
+	@Test
+	void uncommitted_frames_should_be_ignored( @TempDir final Path temp ) throws IOException {
+		final Path file = temp.resolve( "tests.report" );
+		final TestReport report = createReport( 1, 2 );
+
+		try ( ChunkedReportAppender cut = ChunkedReportAppender.create( file, new TestReport() ) ) {
+			cut.append( report.getSuiteReplayResults().get( 0 ) );
+			// E.g. an append interrupted by the JVM exiting.
+			Files.write( file, new byte[] { 1, 2, 3 }, StandardOpenOption.APPEND );
+		}
+
+		assertThat( new KryoPersistence<TestReport>().load( file.toUri() ).getNumberOfTests() ).isEqualTo( 2 );
+		try ( ChunkedReportReader reader = ChunkedReportReader.open( file ) ) {
+			assertThat( reader.getNumberOfSuites() ).isEqualTo( 1 );
+			assertThat( reader.readTest( 0, 1 ).getName() ).isEqualTo( "test-0-1" );
+		}
+	}
+
+	@Test
+	void concurrent_appenders_should_not_corrupt_report( @TempDir final Path temp ) throws IOException {
+		final Path file = temp.resolve( "tests.report" );
+		final TestReport report = createReport( 2, 2 );
+
+		final ChunkedReportAppender first = ChunkedReportAppender.create( file, new TestReport() );
+		final ChunkedReportAppender second = ChunkedReportAppender.create( file, new TestReport() );
+		first.append( report.getSuiteReplayResults().get( 0 ) );
+		second.append( report.getSuiteReplayResults().get( 1 ) );
+		first.close();
+		second.close();
+
+		try ( ChunkedReportReader reader = ChunkedReportReader.open( file ) ) {
+			assertThat( reader.getNumberOfSuites() ).isEqualTo( 1 );
+			assertThat( reader.readTest( 0, 1 ).getName() ).isEqualTo( "test-1-1" );
+		}
+	}
+
+	@Test
+	void append_after_close_should_fail( @TempDir final Path temp ) throws IOException {
+		final ChunkedReportAppender cut = ChunkedReportAppender.create( temp.resolve( "tests.report" ),
+				new TestReport() );
+		cut.close();
+
+		assertThatThrownBy( () -> cut.append( createReport( 1, 1 ).getSuiteReplayResults().get( 0 ) ) )
+				.isInstanceOf( IllegalStateException.class );
+	}
+}
@@ -0,0 +1,75 @@
+package de.retest.recheck.persistence.bin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.retest.recheck.report.SuiteReplayResult;
+import de.retest.recheck.report.TestReplayResult;
+import de.retest.recheck.report.TestReport;
+import de.retest.recheck.util.VersionProvider;
+
+class ChunkedReportReaderTest {
+
+	@Test
+	void single_tests_should_be_readable( @TempDir final Path temp ) throws IOException {
+		final Path file = temp.resolve( "tests.report" );
+		new KryoPersistence<TestReport>( true ).save( file.toUri(), createReport( 3, 4 ) );
+
+		try ( ChunkedReportReader cut = ChunkedReportReader.open( file ) ) {
+			assertThat( cut.getWriterVersion() ).isEqualTo( VersionProvider.RECHECK_VERSION );
+			assertThat( cut.getNumberOfSuites() ).isEqualTo( 3 );
+			assertThat( cut.getNumberOfTests( 2 ) ).isEqualTo( 4 );
+			assertThat( cut.readTest( 2, 1 ).getName() ).isEqualTo( "test-2-1" );
+			assertThat( cut.readTest( 0, 3 ).getName() ).isEqualTo( "test-0-3" );
+			assertThat( cut.readSuiteWithoutTests( 1 ).getName() ).isEqualTo( "suite-1" );
+			assertThat( cut.readSuiteWithoutTests( 1 ).getTestReplayResults() ).isEmpty();
+			assertThat( cut.readTests( 1 ).map( TestReplayResult::getName ).collect( Collectors.toList() ) )
+					.containsExactly( "test-1-0", "test-1-1", "test-1-2", "test-1-3" );
+		}
+	}
+
+	@Test
+	void whole_report_should_be_readable( @TempDir final Path temp ) throws IOException {
+		final Path file = temp.resolve( "tests.report" );
+		final TestReport persisted = createReport( 2, 2 );
+		new KryoPersistence<TestReport>( true ).save( file.toUri(), persisted );
+
+		try ( ChunkedReportReader cut = ChunkedReportReader.open( file ) ) {
+			final TestReport loaded = cut.readReport();
+
+			assertThat( loaded.getGoldenMasterSource() ).isEqualTo( persisted.getGoldenMasterSource() );
+			assertThat( loaded.getSuiteReplayResults() ).extracting( SuiteReplayResult::getSuiteUuid )
+					.containsExactly( "uuid-0", "uuid-1" );
+			assertThat( loaded.getNumberOfTests() ).isEqualTo( 4 );
+		}
+	}
+
+	@Test
+	void unchunked_report_should_not_be_readable( @TempDir final Path temp ) throws IOException {
+		final Path file = temp.resolve( "tests.report" );
+		new KryoPersistence<TestReport>().save( file.toUri(), createReport( 1, 1 ) );
+
+		assertThatThrownBy( () -> ChunkedReportReader.open( file ) ).isInstanceOf( IOException.class )
+				.hasMessage( "Not a chunked report." );
+	}
+
+	static TestReport createReport( final int suites, final int tests ) {
+		final TestReport report = new TestReport();
+		for ( int suiteNr = 0; suiteNr < suites; suiteNr++ ) {
+			final SuiteReplayResult suite =
+					new SuiteReplayResult( "suite-" + suiteNr, suiteNr, null, "uuid-" + suiteNr, null );
+			for ( int testNr = 0; testNr < tests; testNr++ ) {
+				suite.addTest( new TestReplayResult( "test-" + suiteNr + "-" + testNr, testNr ) );
+			}
+			report.addSuite( suite );
+		}
+		return report;
+	}
+}
@@ -9,22 +9,34 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 
 import de.retest.recheck.persistence.IncompatibleReportVersionException;
 import de.retest.recheck.persistence.Persistable;
+import de.retest.recheck.report.SuiteReplayResult;
+import de.retest.recheck.report.TestReplayResult;
 import de.retest.recheck.report.TestReport;
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
+import de.retest.recheck.util.ChecksumCalculator;
 import de.retest.recheck.util.VersionProvider;
 
 class KryoPersistenceTest {
@@ -43,6 +55,64 @@ class KryoPersistenceTest {
 		assertThat( persisted.getRelativeActionSequencePaths() ).isEqualTo( loaded.getRelativeActionSequencePaths() );
 	}
 
+	@Test
+	void chunked_roundtrip_should_work( @TempDir final Path temp ) throws IOException {
+		final URI identifier = temp.resolve( "chunked.report" ).toUri();
+		final TestReport persisted = ChunkedReportReaderTest.createReport( 2, 3 );
+
+		new KryoPersistence<TestReport>( true ).save( identifier, persisted );
+		final TestReport loaded = new KryoPersistence<TestReport>().load( identifier );
+
+		assertThat( loaded.getSuiteReplayResults() ).extracting( SuiteReplayResult::getName )
+				.containsExactly( "suite-0", "suite-1" );
+		assertThat( loaded.getSuiteReplayResults().get( 1 ).getTestReplayResults() )
+				.extracting( TestReplayResult::getName ).containsExactly( "test-1-0", "test-1-1", "test-1-2" );
+		assertThat( loaded.getNumberOfTests() ).isEqualTo( persisted.getNumberOfTests() );
+	}
+
+	@Test
+	void lazily_loaded_screenshot_should_be_written_with_binary_data() {
+		final Screenshot screenshot = new Screenshot( "lazy", new byte[0], ImageType.PNG );
+		screenshot.setBinaryDataSource( () -> new byte[] { 1, 2, 3 },
+				ChecksumCalculator.getInstance().sha256( new byte[] { 1, 2, 3 } ) );
+		final Kryo kryo = KryoPersistence.createKryo();
+		final Output output = new Output( 4096, -1 );
+
+		kryo.writeClassAndObject( output, screenshot );
+		final Screenshot loaded = (Screenshot) kryo.readClassAndObject( new Input( output.toBytes() ) );
+
+		assertThat( loaded.getBinaryData() ).containsExactly( 1, 2, 3 );
+		assertThat( loaded ).isEqualTo( screenshot );
+	}
+
+	@Test
+	void registered_classes_should_not_be_written_by_name() {
+		final Output output = new Output( 4096, -1 );
+		KryoPersistence.createKryo().writeClassAndObject( output, ChunkedReportReaderTest.createReport( 1, 1 ) );
+
+		assertThat( new String( output.toBytes(), StandardCharsets.ISO_8859_1 ) )
+				.doesNotContain( TestReport.class.getName() ) //
+				.doesNotContain( SuiteReplayResult.class.getName() ) //
+				.doesNotContain( TestReplayResult.class.getName() );
+	}
+
+	@Test
+	void concurrent_roundtrips_should_work( @TempDir final Path temp ) throws Exception {
+		final KryoPersistence<TestReport> cut = new KryoPersistence<>();
+
+		final List<Integer> numberOfTests = IntStream.range( 0, 20 ).parallel().mapToObj( i -> {
+			final URI identifier = temp.resolve( i + ".report" ).toUri();
+			try {
+				cut.save( identifier, ChunkedReportReaderTest.createReport( 1, i ) );
+				return cut.load( identifier ).getNumberOfTests();
+			} catch ( final IOException e ) {
+				throw new UncheckedIOException( e );
+			}
+		} ).collect( Collectors.toList() );
+
+		assertThat( numberOfTests ).isEqualTo( IntStream.range( 0, 20 ).boxed().collect( Collectors.toList() ) );
+	}
+
 	public de.retest.recheck.test.Test createDummyTest() {
 		final ArrayList<String> tests = new ArrayList<>();
 		tests.add( "../test.test" );
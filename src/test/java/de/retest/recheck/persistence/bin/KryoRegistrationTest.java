@@ -0,0 +1,81 @@
+package de.retest.recheck.persistence.bin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Registration;
+
+class KryoRegistrationTest {
+
+	@Test
+	void ids_of_version_1_should_not_change() {
+		final Kryo kryo = new Kryo();
+		KryoRegistration.register( kryo );
+
+		final List<String> registered = IntStream.range( 100, 200 ) //
+				.mapToObj( kryo::getRegistration ) //
+				.filter( registration -> registration != null ) //
+				.map( KryoRegistrationTest::toString ) //
+				.collect( Collectors.toList() );
+
+		assertThat( registered ).startsWith( //
+				"100=java.util.ArrayList", //
+				"101=java.util.HashMap", //
+				"102=java.util.HashSet", //
+				"103=java.util.LinkedHashMap", //
+				"104=java.util.LinkedHashSet", //
+				"105=java.util.TreeMap", //
+				"106=java.util.TreeSet", //
+				"107=java.util.Date", //
+				"108=java.awt.Rectangle", //
+				"109=[B", //
+				"120=de.retest.recheck.report.TestReport", //
+				"121=de.retest.recheck.report.SuiteReplayResult", //
+				"122=de.retest.recheck.report.TestReplayResult", //
+				"123=de.retest.recheck.report.ActionReplayResult", //
+				"124=de.retest.recheck.ui.review.GoldenMasterSource", //
+				"125=de.retest.recheck.ui.descriptors.GroundState", //
+				"126=de.retest.recheck.ui.descriptors.SutState", //
+				"140=de.retest.recheck.ui.descriptors.Element", //
+				"141=de.retest.recheck.ui.descriptors.RootElement", //
+				"142=de.retest.recheck.ui.descriptors.IdentifyingAttributes", //
+				"143=de.retest.recheck.ui.descriptors.Attributes", //
+				"144=de.retest.recheck.ui.Path", //
+				"145=de.retest.recheck.ui.PathElement", //
+				"146=de.retest.recheck.ui.image.Screenshot", //
+				"147=de.retest.recheck.ui.image.Screenshot$ImageType", //
+				"160=de.retest.recheck.ui.descriptors.StringAttribute", //
+				"161=de.retest.recheck.ui.descriptors.TextAttribute", //
+				"162=de.retest.recheck.ui.descriptors.WeightedTextAttribute", //
+				"163=de.retest.recheck.ui.descriptors.CodeLocAttribute", //
+				"164=de.retest.recheck.ui.descriptors.ContextAttribute", //
+				"165=de.retest.recheck.ui.descriptors.SuffixAttribute", //
+				"166=de.retest.recheck.ui.descriptors.PathAttribute", //
+				"167=de.retest.recheck.ui.descriptors.OutlineAttribute", //
+				"168=de.retest.recheck.ui.descriptors.DefaultAttribute", //
+				"180=de.retest.recheck.ui.diff.StateDifference", //
+				"181=de.retest.recheck.ui.diff.RootElementDifference", //
+				"182=de.retest.recheck.ui.diff.ElementDifference", //
+				"183=de.retest.recheck.ui.diff.AttributesDifference", //
+				"184=de.retest.recheck.ui.diff.IdentifyingAttributesDifference", //
+				"185=de.retest.recheck.ui.diff.InsertedDeletedElementDifference", //
+				"186=de.retest.recheck.ui.diff.AttributeDifference", //
+				"187=de.retest.recheck.ui.descriptors.AdditionalAttributeDifference", //
+				"188=de.retest.recheck.ui.descriptors.ParseStringAttributeDifference", //
+				"189=de.retest.recheck.ui.descriptors.ScreenshotAttributeDifference", //
+				"190=de.retest.recheck.ui.descriptors.VariableNameAttributeDifference", //
+				"191=de.retest.recheck.ui.diff.ElementIdentificationWarning", //
+				"192=de.retest.recheck.ui.diff.meta.MetadataDifference", //
+				"193=de.retest.recheck.ui.diff.meta.MetadataElementDifference" );
+	}
+
+	private static String toString( final Registration registration ) {
+		return registration.getId() + "=" + registration.getType().getName();
+	}
+}
@@ -0,0 +1,56 @@
+package de.retest.recheck.persistence.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import de.retest.recheck.persistence.migration.transformers.ContainedComponents2ContainedElementsTransformer;
+import de.retest.recheck.persistence.migration.transformers.PathAndType2LowerCaseTransformer;
+
+class XmlTransformerTest {
+
+	static final String XML = "src/test/resources/migration/XmlMigratorTest-retest-v3.1.0.xml";
+
+	@Test
+	void chained_transformation_should_be_same_as_transforming_one_after_another() throws Exception {
+		final List<XmlTransformer> transformers = Arrays.asList( //
+				new ReplaceAttributeTransformer( "reTestXmlDataContainer", "dataTypeVersion", ".*", "4" ),
+				new ReplaceAttributeTransformer( "reTestXmlDataContainer", "reTestVersion", ".*", "1.0.0" ),
+				new ContainedComponents2ContainedElementsTransformer(), //
+				new RenameElementTransformer( "screenshot", "image" ), //
+				new RemoveElementTransformer( "attributes", "screenshot" ), //
+				new PathAndType2LowerCaseTransformer() );
+
+		final String chained;
+		try ( InputStream in = XmlTransformer.transform( new FileInputStream( XML ), transformers ) ) {
+			chained = IOUtils.toString( in, StandardCharsets.UTF_8 );
+		}
+
+		InputStream sequential = new FileInputStream( XML );
+		for ( final XmlTransformer transformer : transformers ) {
+			final InputStream previous = sequential;
+			sequential = transformer.transform( previous );
+			previous.close();
+		}
+		try ( InputStream in = sequential ) {
+			assertThat( chained ).isEqualTo( IOUtils.toString( in, StandardCharsets.UTF_8 ) );
+		}
+	}
+
+	@Test
+	void transformation_without_transformers_should_keep_content() throws Exception {
+		final String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><root><child attribute=\"value\">text</child></root>";
+
+		try ( InputStream in =
+				XmlTransformer.transform( IOUtils.toInputStream( xml, StandardCharsets.UTF_8 ), Arrays.asList() ) ) {
+			assertThat( IOUtils.toString( in, StandardCharsets.UTF_8 ) ).isEqualTo( xml );
+		}
+	}
+}
@@ -1,24 +1,33 @@
 package de.retest.recheck.persistence.xml;
 
+import static de.retest.recheck.RecheckProperties.PERSIST_MIGRATED_XML_PROPERTY_KEY;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.junitpioneer.jupiter.SetSystemProperty;
 
 import de.retest.recheck.ioerror.ReTestLoadException;
 import de.retest.recheck.ioerror.ReTestSaveException;
+import de.retest.recheck.persistence.xml.util.XmlVersionCheckResult;
+import de.retest.recheck.ui.descriptors.SutState;
 import de.retest.recheck.util.ApprovalsUtil;
 import de.retest.recheck.util.FileUtil;
+import de.retest.recheck.util.NamedBufferedInputStream;
 
 class XmlFolderPersistenceTest {
 
+	static final String OUTDATED_SUT_STATE = "src/test/resources/migration/XmlMigratorTest-retest-v3.1.0.xml";
+
 	File baseFolder;
 	XmlTransformer xmlTransformer;
 	XmlFolderPersistence<TestPersistable> persistence;
@@ -59,6 +68,35 @@ class XmlFolderPersistenceTest {
 		assertThat( element ).isNotNull();
 	}
 
+	@Test
+	void migrated_file_should_not_be_persisted_by_default() throws Exception {
+		final File xmlFile = copyOutdatedSutState();
+
+		new XmlFolderPersistence<SutState>( new XmlTransformer() ).load( baseFolder.toURI() );
+
+		assertThat( xmlFile ).hasSameBinaryContentAs( new File( OUTDATED_SUT_STATE ) );
+	}
+
+	@Test
+	@SetSystemProperty( key = PERSIST_MIGRATED_XML_PROPERTY_KEY, value = "true" )
+	void migrated_file_should_be_persisted_if_enabled() throws Exception {
+		final File xmlFile = copyOutdatedSutState();
+		final XmlFolderPersistence<SutState> sutStatePersistence = new XmlFolderPersistence<>( new XmlTransformer() );
+
+		final SutState migrated = sutStatePersistence.load( baseFolder.toURI() );
+
+		try ( NamedBufferedInputStream in = new NamedBufferedInputStream( xmlFile ) ) {
+			assertThat( XmlVersionCheckResult.create( in ).isCompatible() ).isTrue();
+		}
+		assertThat( sutStatePersistence.load( baseFolder.toURI() ) ).isEqualTo( migrated );
+	}
+
+	File copyOutdatedSutState() throws IOException {
+		final File xmlFile = new File( baseFolder, "retest.xml" );
+		FileUtils.copyFile( new File( OUTDATED_SUT_STATE ), xmlFile );
+		return xmlFile;
+	}
+
 	@Test
 	void try_to_load_from_non_existing_file() throws Exception {
 		final File file = new File( "this will hopefully never exist" );
@@ -6,8 +6,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import javax.xml.bind.JAXBContext;
+
 import org.junit.jupiter.api.Test;
 
+import de.retest.recheck.report.TestReport;
 import de.retest.recheck.ui.descriptors.Element;
 import de.retest.recheck.ui.descriptors.SutState;
 
@@ -42,4 +45,29 @@ class XmlTransformerTest {
 		assertThat( meta3.getRetestId() ).isEqualTo( "meta-afc35" );
 	}
 
+	@Test
+	void should_not_mix_data_from_multiple_xml_files_across_instances() throws Exception {
+		final Path state0 = Paths.get( TEST_RESOURCES_BASE_PATH, "XmlTransformerTest.test.state0.xml" );
+		new XmlTransformer().fromXML( Files.newInputStream( state0 ), null );
+
+		final Path state1 = Paths.get( TEST_RESOURCES_BASE_PATH, "XmlTransformerTest.test.state1.xml" );
+		@SuppressWarnings( "unchecked" )
+		final ReTestXmlDataContainer<SutState> result =
+				(ReTestXmlDataContainer<SutState>) new XmlTransformer().fromXML( Files.newInputStream( state1 ), null );
+
+		final Element meta3 = result.data().getRootElements().get( 0 ) //
+				.getContainedElements().get( 0 ) //
+				.getContainedElements().get( 0 );
+
+		assertThat( meta3.getRetestId() ).isEqualTo( "meta-afc35" );
+	}
+
+	@Test
+	void context_should_be_reused_for_same_classes() throws Exception {
+		final JAXBContext context = XmlTransformer.getJAXBContext( SutState.class );
+
+		assertThat( XmlTransformer.getJAXBContext( SutState.class ) ).isSameAs( context );
+		assertThat( XmlTransformer.getJAXBContext( SutState.class, TestReport.class ) ).isNotSameAs( context );
+	}
+
 }
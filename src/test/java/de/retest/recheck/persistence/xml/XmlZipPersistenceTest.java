@@ -1,5 +1,6 @@
 package de.retest.recheck.persistence.xml;
 
+import static de.retest.recheck.RecheckProperties.LAZY_SCREENSHOTS_PROPERTY_KEY;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -8,6 +9,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -16,9 +18,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.junitpioneer.jupiter.SetSystemProperty;
 
 import de.retest.recheck.ioerror.ReTestLoadException;
 import de.retest.recheck.ioerror.ReTestSaveException;
+import de.retest.recheck.ui.descriptors.Attributes;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.RootElement;
+import de.retest.recheck.ui.descriptors.SutState;
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
 import de.retest.recheck.util.ApprovalsUtil;
 import de.retest.recheck.util.FileUtil;
 import de.retest.recheck.util.FileUtil.ZipReader;
@@ -76,6 +85,22 @@ class XmlZipPersistenceTest {
 		assertThat( element ).isNotNull();
 	}
 
+	@Test
+	@SetSystemProperty( key = LAZY_SCREENSHOTS_PROPERTY_KEY, value = "true" )
+	void lazily_loaded_screenshots_should_survive_saving_to_same_file() throws Exception {
+		final URI identifier = new File( baseFolder, "state.zip" ).toURI();
+		final XmlZipPersistence<SutState> sutStatePersistence = new XmlZipPersistence<>( new XmlTransformer() );
+		final Screenshot screenshot = new Screenshot( "root", new byte[] { 1, 2, 3 }, ImageType.PNG );
+		sutStatePersistence.save( identifier, new SutState( Collections.singleton( new RootElement( "retestId",
+				IdentifyingAttributes.create( de.retest.recheck.ui.Path.fromString( "html[1]" ), "html" ),
+				new Attributes(), screenshot, "screen", 1, "title" ) ) ) );
+
+		sutStatePersistence.save( identifier, sutStatePersistence.load( identifier ) );
+		final SutState loaded = sutStatePersistence.load( identifier );
+
+		assertThat( loaded.getRootElements().get( 0 ).getScreenshot().getBinaryData() ).containsExactly( 1, 2, 3 );
+	}
+
 	@Test
 	void try_to_load_from_non_existing_file() throws Exception {
 		final File file = new File( baseFolder, "this will hopefully never exist" );
@@ -1,5 +1,6 @@
 package de.retest.recheck.persistence.xml.util;
 
+import static de.retest.recheck.RecheckProperties.LAZY_SCREENSHOTS_PROPERTY_KEY;
 import static de.retest.recheck.util.FileUtil.readFromZipFile;
 import static de.retest.recheck.util.FileUtil.writeToFile;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -9,6 +10,7 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -21,6 +23,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.junitpioneer.jupiter.SetSystemProperty;
 
 import de.retest.recheck.persistence.Persistable;
 import de.retest.recheck.ui.image.Screenshot;
@@ -225,6 +228,59 @@ class LazyScreenshotZipPersistenceTest {
 		assertThat( screenshot2.getBinaryData() ).isEqualTo( imageBytes2 );
 	}
 
+	@Test
+	@SetSystemProperty( key = LAZY_SCREENSHOTS_PROPERTY_KEY, value = "true" )
+	void lazily_read_screenshots_should_have_sha_without_loading() throws Exception {
+		final File zipFile = getTmpZipfile();
+		final Screenshot lazy1 = new Screenshot( "testimage1", new byte[0], ImageType.PNG );
+		final Screenshot lazy2 = new Screenshot( "testimage2", new byte[0], ImageType.PNG );
+		screenshotPersistence.screenshots.add( lazy1 );
+		screenshotPersistence.screenshots.add( lazy2 );
+
+		writeToFile( zipFile, out -> {
+			final ZipOutputStream zout = new ZipOutputStream( out );
+			zout.putNextEntry( new ZipEntry( path1 ) );
+			zout.write( imageBytes1 );
+			zout.putNextEntry( new ZipEntry( path2 ) );
+			zout.write( imageBytes2 );
+			zout.finish();
+		} );
+		readFromZipFile( zipFile, in -> {
+			screenshotPersistence.loadScreenshotsNow( in );
+			return null;
+		} );
+		Files.delete( zipFile.toPath() );
+
+		assertThat( lazy1 ).isEqualTo( screenshot1 ).hasSameHashCodeAs( screenshot1 );
+		assertThat( lazy2 ).isEqualTo( screenshot2 ).isNotEqualTo( lazy1 );
+	}
+
+	@Test
+	@SetSystemProperty( key = LAZY_SCREENSHOTS_PROPERTY_KEY, value = "true" )
+	void lazily_read_screenshots_should_be_loaded_from_zipfile() throws Exception {
+		final File zipFile = getTmpZipfile();
+		final Screenshot lazy1 = new Screenshot( "testimage1", new byte[0], ImageType.PNG );
+		final Screenshot lazy2 = new Screenshot( "testimage2", new byte[0], ImageType.PNG );
+		screenshotPersistence.screenshots.add( lazy1 );
+		screenshotPersistence.screenshots.add( lazy2 );
+
+		writeToFile( zipFile, out -> {
+			final ZipOutputStream zout = new ZipOutputStream( out );
+			zout.putNextEntry( new ZipEntry( path1 ) );
+			zout.write( imageBytes1 );
+			zout.putNextEntry( new ZipEntry( path2 ) );
+			zout.write( imageBytes2 );
+			zout.finish();
+		} );
+		readFromZipFile( zipFile, in -> {
+			screenshotPersistence.loadScreenshotsNow( in );
+			return null;
+		} );
+
+		assertThat( lazy1.getBinaryData() ).isEqualTo( imageBytes1 );
+		assertThat( lazy2.getBinaryData() ).isEqualTo( imageBytes2 );
+	}
+
 	@Test
 	void reading_of_duplicates() throws Exception {
 		final File zipFile = getTmpZipfile();
@@ -1,5 +1,6 @@
 package de.retest.recheck.persistence.xml.util;
 
+import static de.retest.recheck.RecheckProperties.LAZY_SCREENSHOTS_PROPERTY_KEY;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -7,12 +8,14 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.junitpioneer.jupiter.SetSystemProperty;
 
 import de.retest.recheck.persistence.Persistable;
 import de.retest.recheck.ui.image.Screenshot;
@@ -126,6 +129,28 @@ class ScreenshotFolderPersistenceTest {
 		assertThat( parent.getRight() ).isNull();
 	}
 
+	@Test
+	@SetSystemProperty( key = LAZY_SCREENSHOTS_PROPERTY_KEY, value = "true" )
+	void load_image_lazily() throws Exception {
+		createImageFileForEmptyScreenshot();
+
+		screenshotPersistence.getUnmarshallListener().afterUnmarshal( emptyScreenshot, null );
+		final byte[] changedImageBytes = "testcontent2".getBytes();
+		Files.write( emptyImageFile.toPath(), changedImageBytes );
+
+		assertThat( emptyScreenshot.getBinaryData() ).isEqualTo( changedImageBytes );
+	}
+
+	@Test
+	@SetSystemProperty( key = LAZY_SCREENSHOTS_PROPERTY_KEY, value = "true" )
+	void load_not_existing_image_lazily() {
+		final Pair<Screenshot, Screenshot> parent = Pair.of( emptyScreenshot, emptyScreenshot );
+		screenshotPersistence.getUnmarshallListener().afterUnmarshal( emptyScreenshot, parent );
+		screenshotPersistence.getUnmarshallListener().afterUnmarshal( parent, new Object() );
+
+		assertThat( parent.getLeft() ).isNull();
+	}
+
 	void createImageFileForEmptyScreenshot() throws IOException {
 		FileUtil.writeToFile( emptyImageFile, new Writer() {
 			@Override
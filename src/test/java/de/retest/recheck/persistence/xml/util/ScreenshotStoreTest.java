@@ -0,0 +1,122 @@
+package de.retest.recheck.persistence.xml.util;
+
+import static de.retest.recheck.RecheckProperties.HARD_LINK_SCREENSHOTS_PROPERTY_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junitpioneer.jupiter.SetSystemProperty;
+
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
+
+class ScreenshotStoreTest {
+
+	ScreenshotStore cut;
+
+	File first;
+	File second;
+
+	@BeforeEach
+	void setUp( @TempDir final Path temp ) {
+		cut = new ScreenshotStore();
+		first = temp.resolve( "first.recheck/screenshot/image.png" ).toFile();
+		second = temp.resolve( "second.recheck/screenshot/image.png" ).toFile();
+	}
+
+	@Test
+	void save_should_write_screenshot() throws Exception {
+		cut.save( first, screenshot( "content" ) );
+
+		assertThat( first ).hasBinaryContent( "content".getBytes() );
+	}
+
+	@Test
+	void save_should_skip_unchanged_screenshot() throws Exception {
+		cut.save( first, screenshot( "content" ) );
+		final FileTime past = FileTime.fromMillis( 0 );
+		Files.setLastModifiedTime( first.toPath(), past );
+
+		cut.save( first, screenshot( "content" ) );
+		new ScreenshotStore().save( first, screenshot( "content" ) );
+
+		assertThat( Files.getLastModifiedTime( first.toPath() ) ).isEqualTo( past );
+	}
+
+	@Test
+	void save_should_replace_changed_screenshot() throws Exception {
+		cut.save( first, screenshot( "content" ) );
+		cut.save( first, screenshot( "changed" ) );
+
+		assertThat( first ).hasBinaryContent( "changed".getBytes() );
+		assertThat( cut.getReferenceCount( screenshot( "content" ).getSha256() ) ).isZero();
+		assertThat( cut.getReferenceCount( screenshot( "changed" ).getSha256() ) ).isEqualTo( 1 );
+	}
+
+	@Test
+	void identical_screenshots_should_be_counted() throws Exception {
+		cut.save( first, screenshot( "content" ) );
+		cut.save( second, screenshot( "content" ) );
+
+		assertThat( cut.getReferenceCount( screenshot( "content" ).getSha256() ) ).isEqualTo( 2 );
+		assertThat( Files.isSameFile( first.toPath(), second.toPath() ) ).isFalse();
+	}
+
+	@Test
+	@SetSystemProperty( key = HARD_LINK_SCREENSHOTS_PROPERTY_KEY, value = "true" )
+	void identical_screenshots_should_be_linked_if_enabled() throws Exception {
+		cut.save( first, screenshot( "content" ) );
+		cut.save( second, screenshot( "content" ) );
+
+		assertThat( second ).hasBinaryContent( "content".getBytes() );
+		assertThat( Files.isSameFile( first.toPath(), second.toPath() ) ).isTrue();
+	}
+
+	@Test
+	@SetSystemProperty( key = HARD_LINK_SCREENSHOTS_PROPERTY_KEY, value = "true" )
+	void changing_linked_screenshot_should_not_change_others() throws Exception {
+		cut.save( first, screenshot( "content" ) );
+		cut.save( second, screenshot( "content" ) );
+
+		cut.save( second, screenshot( "changed" ) );
+
+		assertThat( first ).hasBinaryContent( "content".getBytes() );
+		assertThat( second ).hasBinaryContent( "changed".getBytes() );
+	}
+
+	@Test
+	@SetSystemProperty( key = HARD_LINK_SCREENSHOTS_PROPERTY_KEY, value = "true" )
+	void deleted_screenshot_should_not_be_linked() throws Exception {
+		cut.save( first, screenshot( "content" ) );
+		Files.delete( first.toPath() );
+
+		cut.save( second, screenshot( "content" ) );
+
+		assertThat( second ).hasBinaryContent( "content".getBytes() );
+		assertThat( cut.getReferenceCount( screenshot( "content" ).getSha256() ) ).isEqualTo( 1 );
+	}
+
+	@Test
+	void store_should_only_remember_most_recent_files() throws Exception {
+		cut = new ScreenshotStore( 1 );
+
+		cut.save( first, screenshot( "content" ) );
+		cut.save( second, screenshot( "content" ) );
+
+		assertThat( cut.getReferenceCount( screenshot( "content" ).getSha256() ) ).isEqualTo( 1 );
+		final FileTime past = FileTime.fromMillis( 0 );
+		Files.setLastModifiedTime( first.toPath(), past );
+		cut.save( first, screenshot( "content" ) );
+		assertThat( Files.getLastModifiedTime( first.toPath() ) ).isEqualTo( past );
+	}
+
+	private static Screenshot screenshot( final String content ) {
+		return new Screenshot( "image", content.getBytes(), ImageType.PNG );
+	}
+}
@@ -37,6 +37,26 @@ class SuiteReplayResultTest {
 		assertThat( cut.isEmpty() ).isFalse();
 	}
 
+	@Test
+	void snapshot_should_not_get_tests_added_later() {
+		final TestReplayResult first = mock( TestReplayResult.class );
+		when( first.getDuration() ).thenReturn( 1L );
+		final TestReplayResult second = mock( TestReplayResult.class );
+		when( second.getDuration() ).thenReturn( 2L );
+		final SuiteReplayResult cut = new SuiteReplayResult( "foo", 3, null, "uuid", null );
+		cut.addTest( first );
+
+		final SuiteReplayResult snapshot = cut.snapshot();
+		cut.addTest( second );
+
+		assertThat( snapshot.getTestReplayResults() ).containsExactly( first );
+		assertThat( snapshot.getDuration() ).isEqualTo( 1L );
+		assertThat( snapshot.getName() ).isEqualTo( "foo" );
+		assertThat( snapshot.getSuiteNr() ).isEqualTo( 3 );
+		assertThat( snapshot.getSuiteUuid() ).isEqualTo( "uuid" );
+		assertThat( cut.getTestReplayResults() ).containsExactly( first, second );
+	}
+
 	@Test
 	void constructor_without_test_source_root_should_be_empty() {
 		final SuiteReplayResult cut = new SuiteReplayResult( "foo", 0, null, null, null );
@@ -1,6 +1,15 @@
 package de.retest.recheck.ui;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
@@ -63,4 +72,63 @@ public class PathTest {
 		Path.fromString( "/html/body/div/" );
 		Path.fromString( "/HTML/BODY/DIV/" );
 	}
+
+	@Test
+	public void equal_paths_should_be_the_same_instance() {
+		final Path path = Path.path( Path.path( ELEMENT_0 ), ELEMENT_1 );
+
+		assertThat( Path.fromString( "elem[1]/leleme[1]" ) ).isSameAs( path );
+		assertThat( Path.path( Path.fromString( "elem[1]" ), ELEMENT_1 ) ).isSameAs( path );
+		assertThat( Path.path( null, ELEMENT_0 ) ).isSameAs( path.getParentPath() );
+	}
+
+	@Test
+	public void concurrently_created_paths_should_be_the_same_instance() throws Exception {
+		final int threads = 8;
+		final ExecutorService executor = Executors.newFixedThreadPool( threads );
+		try {
+			final CountDownLatch start = new CountDownLatch( 1 );
+			final List<Future<List<Path>>> results = new ArrayList<>();
+			for ( int thread = 0; thread < threads; thread++ ) {
+				results.add( executor.submit( () -> {
+					start.await();
+					final List<Path> paths = new ArrayList<>();
+					for ( int i = 0; i < 1_000; i++ ) {
+						paths.add( Path.fromString( "html[1]/body[1]/div[" + i % 100 + "]/span[" + i + "]" ) );
+					}
+					return paths;
+				} ) );
+			}
+			start.countDown();
+
+			final List<Path> expected = results.get( 0 ).get();
+			for ( final Future<List<Path>> result : results ) {
+				final List<Path> actual = result.get();
+				for ( int i = 0; i < expected.size(); i++ ) {
+					assertThat( actual.get( i ) ).isSameAs( expected.get( i ) );
+					assertThat( actual.get( i ).getParentPath() ).isSameAs( expected.get( i ).getParentPath() );
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void unused_paths_should_be_garbage_collected() throws Exception {
+		final List<WeakReference<Path>> references = new ArrayList<>();
+		for ( int i = 0; i < 10_000; i++ ) {
+			references.add( new WeakReference<>( Path.fromString( "unused[1]/div[" + i + "]/span[" + i + "]" ) ) );
+		}
+		// Explicit GC is just a hint, which may be ignored or delayed.
+		final WeakReference<Object> sentinel = new WeakReference<>( new Object() );
+		for ( int attempt = 0; attempt < 10 && sentinel.get() != null; attempt++ ) {
+			System.gc();
+			Thread.sleep( 10 );
+		}
+		assumeTrue( "Garbage collection did not run.", sentinel.get() == null );
+
+		final long retained = references.stream().filter( ref -> ref.get() != null ).count();
+		assertThat( retained ).isLessThan( references.size() / 2 );
+	}
 }
@@ -8,6 +8,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.junit.Test;
 
@@ -92,6 +93,19 @@ public class AttributesTest {
 		assertThat( newState.get( Attributes.SCREENSHOT ) ).isEqualTo( newScreenshot );
 	}
 
+	@Test
+	public void entriesWithScreenshot_should_be_ordered_like_map() throws Exception {
+		final MutableAttributes mutable = new MutableAttributes();
+		mutable.put( "z", "last" );
+		mutable.put( "a", "first" );
+		mutable.put( new Screenshot( "test", new byte[] {}, ImageType.PNG ) );
+		final Attributes state = mutable.immutable();
+
+		final Iterator<Entry<String, Object>> entries = state.entriesWithScreenshot();
+
+		assertThat( entries ).toIterable().containsExactlyElementsOf( new TreeMap<String, Object>( state.getMap() ).entrySet() );
+	}
+
 	private Set<AttributeDifference> createAttributeChanges( final String key, final String expected,
 			final String actual ) {
 		return Collections.singleton( new AttributeDifference( key, expected, actual ) );
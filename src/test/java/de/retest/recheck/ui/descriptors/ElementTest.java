@@ -261,6 +261,60 @@ public class ElementTest {
 		assertThat( e0.hashCode() ).isNotEqualTo( e1.hashCode() );
 	}
 
+	@Test
+	public void equal_subtrees_should_yield_same_fingerprint() throws Exception {
+		final Element e0 = createParentWithChild( "red" );
+		final Element e1 = createParentWithChild( "red" );
+
+		assertThat( e0.getFingerprint() ).isEqualTo( e1.getFingerprint() );
+		assertThat( e0 ).isEqualTo( e1 );
+		assertThat( e0.hashCode() ).isEqualTo( e1.hashCode() );
+	}
+
+	@Test
+	public void different_attributes_of_contained_elements_should_yield_different_fingerprint() throws Exception {
+		final Element e0 = createParentWithChild( "red" );
+		final Element e1 = createParentWithChild( "blue" );
+
+		assertThat( e0.getFingerprint() ).isNotEqualTo( e1.getFingerprint() );
+		assertThat( e0 ).isNotEqualTo( e1 );
+	}
+
+	@Test
+	public void adding_children_should_update_fingerprint() throws Exception {
+		final Element element = createParentWithChild( "red" );
+		final long fingerprint = element.getFingerprint();
+
+		element.addChildren( createParentWithChild( "red" ) );
+
+		assertThat( element.getFingerprint() ).isNotEqualTo( fingerprint );
+	}
+
+	@Test
+	public void adding_children_should_update_fingerprint_of_parents() throws Exception {
+		final Element parent = createParentWithChild( "red" );
+		final Element child = parent.getContainedElements().get( 0 );
+		final long fingerprint = parent.getFingerprint();
+
+		child.addChildren( Element.create( "grandchild", child,
+				IdentifyingAttributes.create( Path.fromString( "Parent[0]/Child[0]/Grandchild[0]" ), "Grandchild" ),
+				new MutableAttributes().immutable() ) );
+
+		assertThat( parent.getFingerprint() ).isNotEqualTo( fingerprint );
+	}
+
+	private static Element createParentWithChild( final String color ) {
+		final Element parent = Element.create( "parent", mock( Element.class ),
+				IdentifyingAttributes.create( Path.fromString( "Parent[0]" ), "Parent" ),
+				new MutableAttributes().immutable() );
+		final MutableAttributes attributes = new MutableAttributes();
+		attributes.put( "color", color );
+		parent.addChildren( Element.create( "child", parent,
+				IdentifyingAttributes.create( Path.fromString( "Parent[0]/Child[0]" ), "Child" ),
+				attributes.immutable() ) );
+		return parent;
+	}
+
 	@Test
 	public void getAttributeValue_should_return_IdentifyingAttribute_if_present() {
 		final Element element = Element.create( "retestId", mock( Element.class ),
@@ -210,6 +210,55 @@ public class IdentifyingAttributesTest {
 		GloballyIgnoredAttributes.getTestInstance();
 	}
 
+	@Test
+	public void changed_ignored_attributes_should_influence_result_of_already_matched_attributes() {
+		final IdentifyingAttributes expected =
+				IdentifyingAttributes.create( Path.fromString( "Window[1]/path[1]/component[1]" ), component.class );
+		final IdentifyingAttributes actual = IdentifyingAttributes
+				.create( Path.fromString( "Window[1]/path[1]/component[1]" ), otherComponent.class );
+
+		assertThat( expected.match( actual ) ).isLessThan( 1.0 );
+		GloballyIgnoredAttributes.getTestInstance( Arrays.asList( TYPE_ATTRIBUTE_KEY ) );
+		assertThat( expected.match( actual ) ).isCloseTo( 1.0, within( 0.01 ) );
+		GloballyIgnoredAttributes.getTestInstance();
+		assertThat( expected.match( actual ) ).isLessThan( 1.0 );
+	}
+
+	@Test
+	public void ignored_attribute_should_only_be_ignored_if_expected() {
+		final List<Attribute> attributes = IdentifyingAttributes.createList( path, component.class.getName() );
+		final IdentifyingAttributes expected = new IdentifyingAttributes( attributes );
+		attributes.add( new WeightedTextAttribute( "text", "some text" ) );
+		final IdentifyingAttributes actual = new IdentifyingAttributes( attributes );
+
+		GloballyIgnoredAttributes.getTestInstance( Arrays.asList( "text" ) );
+		assertThat( expected.match( actual ) ).isCloseTo( 3.0 / 4.5, within( 0.0001 ) );
+		assertThat( actual.match( expected ) ).isCloseTo( 1.0, within( 0.0001 ) );
+		GloballyIgnoredAttributes.getTestInstance();
+	}
+
+	@Test
+	public void match_should_weight_attributes() {
+		final List<Attribute> expectedAttributes = IdentifyingAttributes.createList( path, component.class.getName() );
+		expectedAttributes.add( new WeightedTextAttribute( "text", "some text" ) );
+		expectedAttributes.add( new StringAttribute( "a", "a" ) );
+		expectedAttributes.add( OutlineAttribute.createAbsolute( new Rectangle( 0, 0, 10, 10 ) ) );
+		final List<Attribute> actualAttributes =
+				IdentifyingAttributes.createList( path, otherComponent.class.getName() );
+		actualAttributes.add( new WeightedTextAttribute( "text", "some text" ) );
+		actualAttributes.add( new StringAttribute( "z", "z" ) );
+
+		final IdentifyingAttributes expected = new IdentifyingAttributes( expectedAttributes );
+		final IdentifyingAttributes actual = new IdentifyingAttributes( actualAttributes );
+
+		// path, suffix and text match, type doesn't, "a" and "z" are only in one of them
+		final double weights = 4 * Attribute.NORMAL_WEIGHT + WeightedTextAttribute.TEXT_WEIGHT + Attribute.IGNORE_WEIGHT
+				+ Attribute.NORMAL_WEIGHT;
+		final double expectedMatch = (2 * Attribute.NORMAL_WEIGHT + WeightedTextAttribute.TEXT_WEIGHT) / weights;
+		assertThat( expected.match( actual ) ).isCloseTo( expectedMatch, within( 0.0001 ) );
+		assertThat( actual.match( expected ) ).isCloseTo( expectedMatch, within( 0.0001 ) );
+	}
+
 	@Test( expected = IllegalArgumentException.class )
 	public void blank_type_should_give_exception() {
 		create( fromString( "/HTML/DIV" ), " " );
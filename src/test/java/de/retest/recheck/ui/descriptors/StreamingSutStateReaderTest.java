@@ -0,0 +1,195 @@
+package de.retest.recheck.ui.descriptors;
+
+import static de.retest.recheck.RecheckProperties.STREAMING_XML_READER_PROPERTY_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.Rectangle;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junitpioneer.jupiter.SetSystemProperty;
+
+import de.retest.recheck.persistence.xml.ReTestXmlDataContainer;
+import de.retest.recheck.persistence.xml.XmlFolderPersistence;
+import de.retest.recheck.persistence.xml.XmlTransformer;
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
+
+class StreamingSutStateReaderTest {
+
+	static Stream<String> goldenMasters() {
+		return Stream.of( //
+				"src/test/resources/de/retest/recheck/persistence/xml/XmlTransformerTest.test.state0.xml",
+				"src/test/resources/de/retest/recheck/persistence/xml/XmlTransformerTest.test.state1.xml",
+				"src/test/resources/retest/recheck/de.retest.recheck.RecheckImplIT/filter.check.recheck/retest.xml",
+				"src/test/resources/retest/recheck/de.retest.recheck.RecheckImplIT/no-filter.check.recheck/retest.xml" );
+	}
+
+	@ParameterizedTest
+	@MethodSource( "goldenMasters" )
+	void should_read_golden_master_same_as_jaxb( final String goldenMaster ) throws IOException {
+		final byte[] xml = Files.readAllBytes( Paths.get( goldenMaster ) );
+
+		assertSameAsJaxb( xml );
+	}
+
+	@Test
+	void should_read_all_attribute_types_same_as_jaxb() throws IOException {
+		assertSameAsJaxb( toXml( createSutState() ) );
+	}
+
+	@Test
+	void should_read_empty_and_untyped_values_same_as_jaxb() throws IOException {
+		final String xml = container( "<descriptors retestId=\"root\">" //
+				+ "<identifyingAttributes><attributes>" //
+				+ "<attribute key=\"type\" xsi:type=\"stringAttribute\"/>" //
+				+ "<attribute key=\"text\" xsi:type=\"textAttribute\">  </attribute>" //
+				+ "<attribute key=\"default\" xsi:type=\"defaultAttribute\"><value xsi:type=\"xsd:int\">42</value></attribute>" //
+				+ "<attribute key=\"empty\" xsi:type=\"defaultAttribute\"><value/></attribute>" //
+				+ "<attribute key=\"outline\" xsi:type=\"outlineAttribute\"><x>1</x></attribute>" //
+				+ "</attributes></identifyingAttributes>" //
+				+ "<attributes><attributes>" //
+				+ "<entry><key>string</key><value xsi:type=\"xsd:string\"/></entry>" //
+				+ "<entry><key>long</key><value xsi:type=\"xsd:long\">5</value></entry>" //
+				+ "<entry><key>null</key></entry>" //
+				+ "</attributes></attributes>" //
+				+ "<containedElements/>" //
+				+ "</descriptors>" //
+				+ "<metadata><entry><key>empty</key><value></value></entry><entry><key>missing</key></entry></metadata>" );
+
+		assertSameAsJaxb( xml.getBytes( StandardCharsets.UTF_8 ) );
+	}
+
+	@Test
+	void equal_contained_elements_should_be_the_same_instance() throws IOException {
+		final RootElement root = createRootElement( "root", null );
+		root.addChildren( createElement( root, "child", "a" ), createElement( root, "child", "a" ) );
+		final byte[] xml = toXml( new SutState( Arrays.asList( root ) ) );
+
+		final List<Element> children = read( xml ).getRootElements().get( 0 ).getContainedElements();
+		final List<Element> jaxbChildren = readWithJaxb( xml ).getRootElements().get( 0 ).getContainedElements();
+
+		assertThat( children.get( 0 ) ).isSameAs( children.get( 1 ) );
+		assertThat( jaxbChildren.get( 0 ) ).isSameAs( jaxbChildren.get( 1 ) );
+	}
+
+	@Test
+	void unsupported_attribute_type_should_give_meaningful_error() {
+		final String xml = container( "<descriptors retestId=\"root\"><identifyingAttributes><attributes>"
+				+ "<attribute key=\"custom\" xsi:type=\"customAttribute\">value</attribute>"
+				+ "</attributes></identifyingAttributes></descriptors>" );
+
+		assertThatThrownBy( () -> read( xml.getBytes( StandardCharsets.UTF_8 ) ) ) //
+				.isInstanceOf( IOException.class ) //
+				.hasMessageContaining( "Unsupported attribute type 'customAttribute'" );
+	}
+
+	@Test
+	@SetSystemProperty( key = STREAMING_XML_READER_PROPERTY_KEY, value = "true" )
+	void folder_persistence_should_load_screenshots( @TempDir final Path temp ) throws IOException {
+		final XmlFolderPersistence<SutState> persistence = new XmlFolderPersistence<>( new XmlTransformer() );
+		final SutState persisted = createSutState();
+		persistence.save( temp.toUri(), persisted );
+
+		final SutState loaded = persistence.load( temp.toUri() );
+
+		assertThat( loaded ).isEqualTo( persisted );
+		final RootElement root = loaded.getRootElements().get( 0 );
+		assertThat( root.getScreenshot().getBinaryData() ).containsExactly( 1, 2, 3 );
+		assertThat( ((Screenshot) root.getAttributes().get( Attributes.SCREENSHOT )).getBinaryData() )
+				.containsExactly( 4, 5, 6 );
+	}
+
+	private static void assertSameAsJaxb( final byte[] xml ) throws IOException {
+		assertThat( read( xml ) ).usingRecursiveComparison() //
+				.ignoringAllOverriddenEquals() //
+				// Transient caches and the screenshot's binary data, which is set by the listener.
+				.ignoringFieldsMatchingRegexes( ".*[cC]ache.*", ".*prepared.*", ".*binaryData", ".*sha256" ) //
+				.isEqualTo( readWithJaxb( xml ) );
+	}
+
+	private static SutState read( final byte[] xml ) throws IOException {
+		return StreamingSutStateReader.read( new ByteArrayInputStream( xml ), null );
+	}
+
+	private static SutState readWithJaxb( final byte[] xml ) {
+		final InputStream in = new ByteArrayInputStream( xml );
+		final ReTestXmlDataContainer<SutState> container = new XmlTransformer().fromXML( in );
+		return container.data();
+	}
+
+	private static byte[] toXml( final SutState sutState ) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new XmlTransformer().toXML( new ReTestXmlDataContainer<>( sutState ), out );
+		return out.toByteArray();
+	}
+
+	private static String container( final String content ) {
+		return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" //
+				+ "<reTestXmlDataContainer xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" "
+				+ "xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" reTestVersion=\"1.0.0\" "
+				+ "dataType=\"de.retest.recheck.ui.descriptors.SutState\" dataTypeVersion=\"4\">" //
+				+ "<data xsi:type=\"sutState\">" + content + "</data></reTestXmlDataContainer>";
+	}
+
+	private static SutState createSutState() {
+		final MutableAttributes attributes = new MutableAttributes();
+		attributes.put( "string", "value with <special> & \"chars\"" );
+		attributes.put( "enabled", true );
+		attributes.put( "size", 12 );
+		attributes.put( new Screenshot( "attributes-shot", new byte[] { 4, 5, 6 }, ImageType.PNG ) );
+		final RootElement root = createRootElement( "root", attributes.immutable() );
+		root.setScreenshot( new Screenshot( "root-shot", new byte[] { 1, 2, 3 }, ImageType.PNG ) );
+
+		final Element child = createElement( root, "child", "text" );
+		final Element grandchild = Element.create( "grandchild", child, new IdentifyingAttributes( Arrays.asList(
+				new PathAttribute( de.retest.recheck.ui.Path.fromString( "html[1]/body[1]/div[1]/p[2]" ), "pathVar" ),
+				new StringAttribute( "type", "p", "typeVar" ), //
+				new SuffixAttribute( 2 ), //
+				new TextAttribute( "text", "some text" ), //
+				new WeightedTextAttribute( "name", "weighted" ), //
+				new CodeLocAttribute( "[Foo.java:42]" ), //
+				new ContextAttribute( "context" ), //
+				new DefaultAttribute( "default", "default value" ), //
+				OutlineAttribute.create( new Rectangle( 1, 2, 3, 4 ) ), //
+				OutlineAttribute.createAbsolute( new Rectangle( 5, 6, 7, 8 ) ) ) ),
+				new Attributes() );
+		child.addChildren( grandchild );
+		root.addChildren( child );
+
+		final Map<String, String> metadata = new HashMap<>();
+		metadata.put( "os.name", "Linux" );
+		metadata.put( "browser", "Chrome" );
+		return new SutState( Arrays.asList( root ), () -> metadata );
+	}
+
+	private static RootElement createRootElement( final String retestId, final Attributes attributes ) {
+		final IdentifyingAttributes identifyingAttributes =
+				IdentifyingAttributes.create( de.retest.recheck.ui.Path.fromString( "html[1]" ), "html" );
+		return new RootElement( retestId, identifyingAttributes,
+				attributes == null ? new Attributes() : attributes, null, "screen", 1, "title" );
+	}
+
+	private static Element createElement( final Element parent, final String retestId, final String text ) {
+		final List<Attribute> attributes = IdentifyingAttributes
+				.createList( de.retest.recheck.ui.Path.fromString( "html[1]/body[1]" ), "body" );
+		attributes.add( new TextAttribute( "text", text ) );
+		return Element.create( retestId, parent, new IdentifyingAttributes( attributes ), new Attributes() );
+	}
+}
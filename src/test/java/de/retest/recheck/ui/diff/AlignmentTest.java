@@ -209,6 +209,93 @@ class AlignmentTest {
 		assertThat( mappedActual ).isNull();
 	}
 
+	@Test
+	void candidate_alignment_should_be_equal_to_exhaustive_alignment() {
+		final Element expected = buildTable( "root[0]", 20, 0 );
+		final Element actual = buildTable( "root[0]", 20, 3 );
+
+		final Alignment exhaustive = Alignment.createAlignment( expected, actual, 0, true, false );
+		final Alignment candidates = Alignment.createAlignment( expected, actual, 5, true, false );
+
+		assertThat( candidates ).isEqualTo( exhaustive );
+	}
+
+	@Test
+	void candidate_alignment_without_fallback_should_not_align_elements_without_candidates() {
+		final Element expComp = buildEqual( "root[0]/a[0]/comp[0]", Comp.class );
+		final Element expected = buildEqual( "root[0]", Root.class, buildEqual( "root[0]/a[0]", Root.class, expComp ),
+				buildEqual( "root[0]/b[0]", Root.class ) );
+
+		final Element actComp = buildEqual( "root[0]/b[0]/comp[0]", Comp.class );
+		final Element actual = buildEqual( "root[0]", Root.class, buildEqual( "root[0]/a[0]", Root.class ),
+				buildEqual( "root[0]/b[0]", Root.class, actComp ) );
+
+		final Alignment exhaustive = Alignment.createAlignment( expected, actual, 0, true, false );
+		final Alignment fallback = Alignment.createAlignment( expected, actual, 1, true, false );
+		final Alignment noFallback = Alignment.createAlignment( expected, actual, 1, false, false );
+
+		assertThat( exhaustive.getActual( expComp ) ).isSameAs( actComp );
+		assertThat( fallback.getActual( expComp ) ).isSameAs( actComp );
+		assertThat( noFallback.getActual( expComp ) ).isNull();
+	}
+
+	@Test
+	void parallel_alignment_should_be_equal_to_sequential_alignment() {
+		final Element expected = buildTable( "root[0]", 20, 0 );
+		final Element actual = buildTable( "root[0]", 20, 3 );
+
+		final Alignment sequential = Alignment.createAlignment( expected, actual, 0, true, false );
+		final Alignment parallel = Alignment.createAlignment( expected, actual, 0, true, true );
+		final Alignment parallelCandidates = Alignment.createAlignment( expected, actual, 5, true, true );
+
+		assertThat( parallel ).isEqualTo( sequential );
+		assertThat( parallelCandidates ).isEqualTo( sequential );
+	}
+
+	@Test
+	void hierarchical_alignment_should_align_cells_within_aligned_rows() {
+		final Element expCell = buildEqual( "table[0]/row[0]/cell[0]", Comp.class );
+		final Element expRow0 = buildEqual( "table[0]/row[0]", Comp.class, expCell );
+		final Element expRow1 = buildEqual( "table[0]/row[1]", Comp.class,
+				buildEqual( "table[0]/row[1]/cell[0]", Comp.class ) );
+		final Element expected = buildEqual( "table[0]", Root.class, expRow0, expRow1 );
+
+		final Element actCell = buildEqual( "table[0]/row[0]/cell[0]", OtherComp.class );
+		final Element actRow0 = buildEqual( "table[0]/row[0]", Comp.class, actCell );
+		final Element actRow1 = buildEqual( "table[0]/row[1]", Comp.class,
+				buildEqual( "table[0]/row[1]/cell[0]", Comp.class ) );
+		final Element actual = buildEqual( "table[0]", Root.class, actRow0, actRow1 );
+
+		final Alignment alignment = Alignment.createHierarchicalAlignment( expected, actual );
+
+		assertThat( alignment.getActual( expRow0 ) ).isSameAs( actRow0 );
+		assertThat( alignment.getActual( expRow1 ) ).isSameAs( actRow1 );
+		assertThat( alignment.getActual( expCell ) ).isSameAs( actCell );
+	}
+
+	@Test
+	void hierarchical_alignment_should_align_moved_elements() {
+		// root/a/x, root/b/y - root/a, root/b/y, root/b/x
+		final Element expX = buildEqual( "root[0]/a[0]/x[0]", Comp.class );
+		final Element expA = buildEqual( "root[0]/a[0]", Comp.class, expX );
+		final Element expY = buildEqual( "root[0]/b[0]/y[0]", OtherComp.class );
+		final Element expB = buildEqual( "root[0]/b[0]", OtherComp.class, expY );
+		final Element expected = buildEqual( "root[0]", Root.class, expA, expB );
+
+		final Element actX = buildEqual( "root[0]/b[0]/x[0]", Comp.class );
+		final Element actA = buildEqual( "root[0]/a[0]", Comp.class );
+		final Element actY = buildEqual( "root[0]/b[0]/y[0]", OtherComp.class );
+		final Element actB = buildEqual( "root[0]/b[0]", OtherComp.class, actY, actX );
+		final Element actual = buildEqual( "root[0]", Root.class, actA, actB );
+
+		final Alignment alignment = Alignment.createHierarchicalAlignment( expected, actual );
+
+		assertThat( alignment.getActual( expA ) ).isSameAs( actA );
+		assertThat( alignment.getActual( expB ) ).isSameAs( actB );
+		assertThat( alignment.getActual( expY ) ).isSameAs( actY );
+		assertThat( alignment.getActual( expX ) ).isSameAs( actX );
+	}
+
 	@Test
 	void toReverseDeque_should_create_reverse_deque() throws Exception {
 		final Element e0 = Element.create( "e0", mock( Element.class ),
@@ -224,6 +311,19 @@ class AlignmentTest {
 		assertThat( deque ).containsExactly( e2, e1, e0 );
 	}
 
+	private static Element buildTable( final String path, final int size, final int shift ) {
+		final Element table = buildEqual( path, Root.class );
+		for ( int row = 0; row < size; row++ ) {
+			final String rowPath = path + "/row[" + (row + shift) + "]";
+			final Element rowElement = buildEqual( rowPath, Comp.class );
+			for ( int cell = 0; cell < size; cell++ ) {
+				rowElement.addChildren( buildEqual( rowPath + "/cell[" + cell + "]", OtherComp.class ) );
+			}
+			table.addChildren( rowElement );
+		}
+		return table;
+	}
+
 	private static Element buildEqual( final String path, final Class<?> type, final Element... containedComponents ) {
 		final Element element = Element.create( "id", mock( Element.class ),
 				IdentifyingAttributes.create( fromString( path ), type ), new Attributes() );
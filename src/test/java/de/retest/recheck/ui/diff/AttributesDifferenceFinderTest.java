@@ -221,6 +221,21 @@ class AttributesDifferenceFinderTest {
 		assertThat( diff.getDifferences() ).containsExactly( new AttributeDifference( key, expected, actual ) );
 	}
 
+	@Test
+	void differences_of_expected_attributes_should_precede_additional_ones() {
+		final MutableAttributes attributes1 = new MutableAttributes();
+		attributes1.put( "b", "expected" );
+		attributes1.put( "d", "expected" );
+		final MutableAttributes attributes2 = new MutableAttributes();
+		attributes2.put( "a", "actual" );
+		attributes2.put( "b", "actual" );
+		attributes2.put( "c", "actual" );
+		final AttributesDifference difference = cut.differenceFor( element( attributes1 ), element( attributes2 ) );
+
+		assertThat( difference.getDifferences() ).extracting( AttributeDifference::getKey ) //
+				.containsExactly( "b", "d", "a", "c" );
+	}
+
 	private Element element( final MutableAttributes ma ) {
 		return Element.create( "id", mock( Element.class ), identifyingAttributes, ma.immutable() );
 	}
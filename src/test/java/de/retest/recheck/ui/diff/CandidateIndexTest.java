@@ -0,0 +1,66 @@
+package de.retest.recheck.ui.diff;
+
+import static de.retest.recheck.ui.Path.fromString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.retest.recheck.ui.descriptors.Attribute;
+import de.retest.recheck.ui.descriptors.Attributes;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.OutlineAttribute;
+import de.retest.recheck.ui.descriptors.TextAttribute;
+
+class CandidateIndexTest {
+
+	@Test
+	void candidates_should_be_ordered_by_expressiveness() {
+		final Element sameOutline = create( "a", "html[1]/div[2]/span[1]", "span", "other", 0, 0 );
+		final Element sameParent = create( "b", "html[1]/div[1]/span[3]", "span", "other", 500, 500 );
+		final Element sameText = create( "c", "html[1]/div[3]/span[1]", "span", "text", 500, 500 );
+		final Element samePath = create( "d", "html[1]/div[1]/span[1]", "span", "other", 500, 500 );
+		final Element sameRetestId = create( "id", "html[1]/p[1]", "p", "other", 500, 500 );
+		final Element unrelated = create( "e", "html[1]/p[2]", "p", "other", 500, 500 );
+		final CandidateIndex cut = new CandidateIndex(
+				Arrays.asList( unrelated, sameOutline, sameParent, sameText, samePath, sameRetestId ) );
+
+		final List<Element> candidates =
+				cut.getCandidates( create( "id", "html[1]/div[1]/span[1]", "span", "text", 0, 0 ), 10 );
+
+		assertThat( candidates ).containsExactly( sameRetestId, samePath, sameText, sameParent, sameOutline );
+	}
+
+	@Test
+	void candidates_should_be_distinct_and_skip_ambiguous_buckets() {
+		final Element e0 = create( "id", "html[1]/div[1]/span[1]", "span", "text", 0, 0 );
+		final Element e1 = create( "e1", "html[1]/div[1]/span[2]", "span", "text", 0, 0 );
+		final Element e2 = create( "e2", "html[1]/div[1]/span[3]", "span", "text", 0, 0 );
+		final CandidateIndex cut = new CandidateIndex( Arrays.asList( e0, e1, e2 ) );
+
+		assertThat( cut.getCandidates( e0, 10 ) ).containsExactly( e0, e1, e2 );
+		assertThat( cut.getCandidates( e0, 2 ) ).containsExactly( e0 );
+	}
+
+	@Test
+	void elements_without_common_keys_should_not_be_candidates() {
+		final Element actual = create( "a", "html[1]/div[1]", "div", "text", 0, 0 );
+		final CandidateIndex cut = new CandidateIndex( Arrays.asList( actual ) );
+
+		assertThat( cut.getCandidates( create( "b", "html[1]/p[1]", "p", "other", 500, 500 ), 10 ) ).isEmpty();
+	}
+
+	private static Element create( final String retestId, final String path, final String type, final String text,
+			final int x, final int y ) {
+		final List<Attribute> attributes = IdentifyingAttributes.createList( fromString( path ), type );
+		attributes.add( new TextAttribute( "text", text ) );
+		attributes.add( OutlineAttribute.create( new Rectangle( x, y, 10, 10 ) ) );
+		return Element.create( retestId, mock( Element.class ), new IdentifyingAttributes( attributes ),
+				new Attributes() );
+	}
+}
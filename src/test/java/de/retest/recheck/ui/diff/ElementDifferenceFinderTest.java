@@ -6,10 +6,13 @@ import static de.retest.recheck.ui.diff.ElementBuilder.createIdentifyingAttribut
 import static de.retest.recheck.ui.diff.ElementBuilder.toAttributes;
 import static de.retest.recheck.ui.diff.ElementDifferenceFinder.getElementDifferences;
 import static de.retest.recheck.ui.diff.ElementDifferenceFinder.getNonEmptyDifferences;
+import static de.retest.recheck.ui.image.ImageUtils.image2Screenshot;
+import static java.awt.image.BufferedImage.TYPE_INT_RGB;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -21,10 +24,12 @@ import de.retest.recheck.ui.Environment;
 import de.retest.recheck.ui.descriptors.Attributes;
 import de.retest.recheck.ui.descriptors.Element;
 import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.MutableAttributes;
 import de.retest.recheck.ui.diff.ElementBuilder.child1;
 import de.retest.recheck.ui.diff.ElementBuilder.child2;
 import de.retest.recheck.ui.diff.ElementBuilder.child3;
 import de.retest.recheck.ui.diff.ElementBuilder.comp1;
+import de.retest.recheck.ui.image.Screenshot;
 
 class ElementDifferenceFinderTest {
 
@@ -81,6 +86,57 @@ class ElementDifferenceFinderTest {
 		assertThat( difference ).isNull();
 	}
 
+	@Test
+	void unchanged_subtrees_should_be_skipped() {
+		final ElementDifferenceFinder cut = new ElementDifferenceFinder( mock( Environment.class ) );
+
+		final Element expected = buildTree( "green" );
+		final Element actual = buildTree( "yellow" );
+
+		final Collection<ElementDifference> differences = cut.findChildDifferences( expected, actual );
+
+		assertThat( getNonEmptyDifferences( new ArrayList<>( differences ) ) ) //
+				.extracting( ElementDifference::getRetestId ) //
+				.containsExactly( "changed" );
+	}
+
+	private static Element buildTree( final String color ) {
+		final Element root = buildTreeElement( "root", "root[1]", "blue" );
+		final Element unchanged = buildTreeElement( "unchanged", "root[1]/comp[1]", "red" );
+		unchanged.addChildren( buildTreeElement( "unchangedChild", "root[1]/comp[1]/comp[1]", "red" ) );
+		final Element changed = buildTreeElement( "changed-parent", "root[1]/comp[2]", "red" );
+		changed.addChildren( buildTreeElement( "changed", "root[1]/comp[2]/comp[1]", color ) );
+		root.addChildren( unchanged, changed );
+		return root;
+	}
+
+	private static Element buildTreeElement( final String retestId, final String path, final String color ) {
+		return Element.create( retestId, mock( Element.class ),
+				new IdentifyingAttributes( createIdentifyingAttribute( fromString( path ), comp1.class ) ),
+				toAttributes( "color", color ) );
+	}
+
+	@Test
+	void changed_screenshot_with_same_persistence_id_should_not_be_skipped() {
+		final ElementDifferenceFinder cut = new ElementDifferenceFinder( mock( Environment.class ) );
+
+		final Element expected = buildScreenshotElement( image2Screenshot( "shot", new BufferedImage( 10, 10, TYPE_INT_RGB ) ) );
+		final BufferedImage image = new BufferedImage( 10, 10, TYPE_INT_RGB );
+		image.setRGB( 5, 5, 0xffffff );
+		final Element actual = buildScreenshotElement( image2Screenshot( "shot", image ) );
+
+		assertThat( expected ).isEqualTo( actual );
+		assertThat( cut.differenceFor( expected, actual ) ).isNotNull();
+	}
+
+	private static Element buildScreenshotElement( final Screenshot screenshot ) {
+		final MutableAttributes attributes = new MutableAttributes();
+		attributes.put( screenshot );
+		return Element.create( "id", mock( Element.class ),
+				new IdentifyingAttributes( createIdentifyingAttribute( fromString( "comp1" ), comp1.class ) ),
+				attributes.immutable() );
+	}
+
 	@Test
 	void different_state_in_first_child() throws Exception {
 		final ElementDifferenceFinder cut = new ElementDifferenceFinder( mock( Environment.class ) );
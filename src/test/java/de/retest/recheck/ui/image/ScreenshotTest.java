@@ -1,10 +1,17 @@
 package de.retest.recheck.ui.image;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.SerializationUtils;
 import org.junit.jupiter.api.Test;
 
 import de.retest.recheck.ui.image.Screenshot.ImageType;
+import de.retest.recheck.util.ChecksumCalculator;
 
 class ScreenshotTest {
 
@@ -36,4 +43,71 @@ class ScreenshotTest {
 		final Screenshot shot = new Screenshot( "some", new byte[] { 1, 2, 4, 6, 3, 4, 7, 8, 2 }, ImageType.PNG );
 		shot.setBinaryData( null );
 	}
+
+	@Test
+	void binary_data_should_be_loaded_on_demand() {
+		final AtomicInteger loads = new AtomicInteger();
+		final Screenshot shot = new Screenshot( "some", new byte[0], ImageType.PNG );
+		shot.setBinaryDataSource( () -> {
+			loads.incrementAndGet();
+			return new byte[] { 1, 2, 3 };
+		}, ChecksumCalculator.getInstance().sha256( new byte[] { 1, 2, 3 } ) );
+
+		assertThat( loads ).hasValue( 0 );
+		assertThat( shot.getBinaryData() ).containsExactly( 1, 2, 3 );
+		assertThat( shot ).isEqualTo( new Screenshot( "some", new byte[] { 1, 2, 3 }, ImageType.PNG ) );
+		assertThat( loads ).hasValue( 1 );
+	}
+
+	@Test
+	void serialization_should_include_binary_data_loaded_on_demand() {
+		final AtomicInteger loads = new AtomicInteger();
+		final Screenshot shot = new Screenshot( "some", new byte[0], ImageType.PNG );
+		shot.setBinaryDataSource( () -> {
+			loads.incrementAndGet();
+			return new byte[] { 1, 2, 3 };
+		}, ChecksumCalculator.getInstance().sha256( new byte[] { 1, 2, 3 } ) );
+
+		final Screenshot copy = SerializationUtils.roundtrip( shot );
+
+		assertThat( copy.getBinaryData() ).containsExactly( 1, 2, 3 );
+		assertThat( copy ).isEqualTo( shot );
+		assertThat( loads ).hasValue( 1 );
+	}
+
+	@Test
+	void equality_should_not_load_binary_data() {
+		final Screenshot shot = new Screenshot( "some", new byte[0], ImageType.PNG );
+		shot.setBinaryDataSource( () -> {
+			throw new IOException( "must not be loaded" );
+		}, ChecksumCalculator.getInstance().sha256( new byte[] { 1, 2, 3 } ) );
+		final Screenshot same = new Screenshot( "some", new byte[] { 1, 2, 3 }, ImageType.PNG );
+		final Screenshot other = new Screenshot( "some", new byte[] { 1, 2 }, ImageType.PNG );
+
+		assertThat( shot ).isEqualTo( same ).hasSameHashCodeAs( same ).isNotEqualTo( other );
+	}
+
+	@Test
+	void sha_should_not_change_when_binary_data_is_loaded_again() {
+		final AtomicInteger loads = new AtomicInteger();
+		final Screenshot shot = new Screenshot( "some", new byte[0], ImageType.PNG );
+		shot.setBinaryDataSource( () -> new byte[] { (byte) loads.incrementAndGet() }, "sha" );
+		final int hashCode = shot.hashCode();
+
+		shot.getBinaryData();
+
+		assertThat( shot.getSha256() ).isEqualTo( "sha" );
+		assertThat( shot.hashCode() ).isEqualTo( hashCode );
+	}
+
+	@Test
+	void failing_to_load_binary_data_should_give_meaningful_error() {
+		final Screenshot shot = new Screenshot( "some", new byte[0], ImageType.PNG );
+		shot.setBinaryDataSource( () -> {
+			throw new IOException( "gone" );
+		}, "sha" );
+
+		assertThatThrownBy( shot::getBinaryData ).isInstanceOf( UncheckedIOException.class )
+				.hasMessageContaining( "Screenshot of some" );
+	}
 }
@@ -3,6 +3,9 @@ package de.retest.recheck.util;
 import static de.retest.recheck.util.ChecksumCalculator.getInstance;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
 import org.junit.Test;
 
 public class ChecksumCalculatorTest {
@@ -42,4 +45,11 @@ public class ChecksumCalculatorTest {
 		assertThat( getInstance().sha256( TEST_3.getBytes() ) ).isEqualTo( TEST_SHA256_3 );
 	}
 
+	@Test
+	public void SHA256_of_stream_should_equal_SHA256_of_bytes() throws IOException {
+		assertThat( getInstance().sha256( new ByteArrayInputStream( TEST_1.getBytes() ) ) ).isEqualTo( TEST_SHA256_1 );
+		assertThat( getInstance().sha256( new ByteArrayInputStream( TEST_2.getBytes() ) ) ).isEqualTo( TEST_SHA256_2 );
+		assertThat( getInstance().sha256( new ByteArrayInputStream( TEST_3.getBytes() ) ) ).isEqualTo( TEST_SHA256_3 );
+	}
+
 }
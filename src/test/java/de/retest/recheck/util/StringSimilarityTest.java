@@ -7,6 +7,9 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.Locale;
+
+import org.apache.commons.text.similarity.FuzzyScore;
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -18,6 +21,7 @@ import net.jqwik.api.Property;
 import net.jqwik.api.constraints.AlphaChars;
 import net.jqwik.api.constraints.Chars;
 import net.jqwik.api.constraints.NumericChars;
+import net.jqwik.api.constraints.StringLength;
 
 class StringSimilarityTest {
 
@@ -145,6 +149,88 @@ class StringSimilarityTest {
 		assertThat( similarity ).isEqualTo( 0.0 );
 	}
 
+	@Property
+	void textSimilarity_should_be_equal_to_fuzzy_score( @ForAll @StringLength( max = 30 ) final String text0,
+			@ForAll @StringLength( max = 30 ) final String text1 ) throws Exception {
+		assertThat( StringSimilarity.textSimilarity( text0, text1 ) ).as( "'%s' compared to '%s'", text0, text1 )
+				.isEqualTo( referenceTextSimilarity( text0, text1 ) );
+	}
+
+	@Property
+	void textSimilarity_of_prepared_texts_should_be_equal_to_fuzzy_score(
+			@ForAll @AlphaChars @StringLength( max = 30 ) final String text0,
+			@ForAll @AlphaChars @StringLength( max = 30 ) final String text1 ) throws Exception {
+		assertThat( StringSimilarity.textSimilarity( StringSimilarity.PreparedText.of( text0 ),
+				StringSimilarity.PreparedText.of( text1 ) ) ).as( "'%s' compared to '%s'", text0, text1 )
+						.isEqualTo( referenceTextSimilarity( text0, text1 ) );
+	}
+
+	@Test
+	void textSimilarity_should_handle_null_values() throws Exception {
+		assertThat( StringSimilarity.textSimilarity( (String) null, null ) ).isEqualTo( 1.0 );
+		assertThat( StringSimilarity.textSimilarity( null, "a" ) ).isEqualTo( 0.0 );
+		assertThat( StringSimilarity.textSimilarity( StringSimilarity.PreparedText.of( "a" ),
+				StringSimilarity.PreparedText.of( null ) ) ).isEqualTo( 0.0 );
+	}
+
+	@Property
+	void pathSimilarity_should_be_equal_to_regex_implementation( @ForAll @RandomPath final String randomPath0,
+			@ForAll @RandomPath final String randomPath1 ) throws Exception {
+		assertThat( StringSimilarity.pathSimilarity( StringSimilarity.PreparedPath.of( randomPath0 ),
+				StringSimilarity.PreparedPath.of( randomPath1 ) ) )
+						.as( "'%s' compared to '%s'", randomPath0, randomPath1 )
+						.isEqualTo( referencePathSimilarity( randomPath0, randomPath1 ) );
+	}
+
+	/**
+	 * The implementation based on commons-text, as used before it was optimized.
+	 */
+	private static double referenceTextSimilarity( final String text0, final String text1 ) {
+		if ( text0 == null || text1 == null ) {
+			return StringSimilarity.simpleSimilarity( text0, text1 );
+		}
+		if ( text0.equals( text1 ) ) {
+			return 1.0;
+		}
+		final double fuzzyDistance = new FuzzyScore( Locale.GERMAN ).fuzzyScore( text0, text1 );
+		if ( fuzzyDistance == 0.0 ) {
+			return 0.0;
+		}
+		return fuzzyDistance / (Math.max( text0.length(), text1.length() ) * 4.0);
+	}
+
+	/**
+	 * The implementation based on regular expressions, as used before it was optimized.
+	 */
+	private static double referencePathSimilarity( final String path0, final String path1 ) {
+		if ( path0.equals( path1 ) ) {
+			return 1.0;
+		}
+		final String cleanPath0 = path0.replaceAll( "[\\[\\]]", "" );
+		final String cleanPath1 = path1.replaceAll( "[\\[\\]]", "" );
+		if ( cleanPath0.isEmpty() || cleanPath1.isEmpty() ) {
+			return 0.0;
+		}
+		int commonPrefixLength = 0;
+		while ( commonPrefixLength < Math.min( cleanPath0.length(), cleanPath1.length() )
+				&& cleanPath0.charAt( commonPrefixLength ) == cleanPath1.charAt( commonPrefixLength ) ) {
+			commonPrefixLength++;
+		}
+		int commonSuffixLength = 0;
+		while ( cleanPath0.length() - commonSuffixLength > commonPrefixLength
+				&& cleanPath1.length() - commonSuffixLength > commonPrefixLength
+				&& cleanPath0.charAt( cleanPath0.length() - 1 - commonSuffixLength ) == cleanPath1
+						.charAt( cleanPath1.length() - 1 - commonSuffixLength ) ) {
+			commonSuffixLength++;
+		}
+		final int minLength = Math.min( cleanPath0.length(), cleanPath1.length() );
+		final int maxLength = Math.max( cleanPath0.length(), cleanPath1.length() );
+		final int difference =
+				Math.abs( minLength - (commonPrefixLength + commonSuffixLength) ) + maxLength - minLength;
+		final double similarity = (maxLength - difference) / (double) maxLength;
+		return similarity * similarity;
+	}
+
 	@Test
 	@Disabled( "This test can be performed manually to test other similarity implementations." )
 	void pathSimilarity_should_be_efficient() {